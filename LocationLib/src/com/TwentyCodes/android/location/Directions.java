@@ -0,0 +1,793 @@
+/**
+ * Directions.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A parsed Google Directions API response, with all of its routes, and all of
+ * the legs and steps of each route.
+ * 
+ * Parsing only copies out the fields of the response. The geometry stays in
+ * Google's encoded polyline format, a few bytes per point, until a polyline
+ * is asked for, and a step's html instructions are only turned into plain text
+ * when they are asked for. So reading the summary, distance and duration of
+ * every alternative route costs no decoding at all, and only the route that
+ * is drawn is ever decoded.
+ * 
+ * This class is not thread safe, but may be handed from the thread that
+ * parsed it to another.
+ * 
+ * @author ricky barrette
+ */
+public class Directions {
+
+	/**
+	 * Builds the model from the parser's callbacks, which arrive steps first,
+	 * then their leg, then the route
+	 * 
+	 * @author ricky barrette
+	 */
+	private static class Builder implements DirectionsParser.Handler {
+		private final ArrayList<Route> mRoutes = new ArrayList<Route>();
+		private ArrayList<Leg> mLegs = new ArrayList<Leg>();
+		private ArrayList<Step> mSteps = new ArrayList<Step>();
+		private final StringBuilder mEncoded = new StringBuilder();
+
+		@Override
+		public void onLeg(final int route, final int index, final DirectionsParser.Leg leg) {
+			final Leg l = new Leg(mSteps, toBytes(mEncoded));
+			l.mDistanceText = leg.getDistanceText();
+			l.mDistance = leg.getDistance();
+			l.mDurationText = leg.getDurationText();
+			l.mDuration = leg.getDuration();
+			l.mStartAddress = leg.getStartAddress();
+			l.mEndAddress = leg.getEndAddress();
+			l.mStartLat = toE6(leg.getStartLatitude());
+			l.mStartLon = toE6(leg.getStartLongitude());
+			l.mEndLat = toE6(leg.getEndLatitude());
+			l.mEndLon = toE6(leg.getEndLongitude());
+			mLegs.add(l);
+			mSteps = new ArrayList<Step>();
+			mEncoded.setLength(0);
+		}
+
+		@Override
+		public void onRoute(final int index, final DirectionsParser.Route route) {
+			final Route r = new Route(mLegs, new ArrayList<String>(route.getWarnings()), toBytes(route.getOverviewPolyline()));
+			r.mCopyrights = route.getCopyrights();
+			r.mSummary = route.getSummary();
+			mRoutes.add(r);
+			mLegs = new ArrayList<Leg>();
+		}
+
+		@Override
+		public void onStep(final int route, final int leg, final int index, final DirectionsParser.Step step) {
+			final int start = mEncoded.length();
+			mEncoded.append(step.getPolyline());
+			final Step s = new Step(start, mEncoded.length());
+			s.mHtmlInstructions = step.getInstructions();
+			s.mDistanceText = step.getDistanceText();
+			s.mDistance = step.getDistance();
+			s.mDurationText = step.getDurationText();
+			s.mDuration = step.getDuration();
+			s.mStartLat = toE6(step.getStartLatitude());
+			s.mStartLon = toE6(step.getStartLongitude());
+			s.mEndLat = toE6(step.getEndLatitude());
+			s.mEndLon = toE6(step.getEndLongitude());
+			mSteps.add(s);
+		}
+	}
+
+	/**
+	 * A leg of a route, from one waypoint to the next
+	 * 
+	 * @author ricky barrette
+	 */
+	public static class Leg {
+		private String mDistanceText;
+		private long mDistance;
+		private String mDurationText;
+		private long mDuration;
+		private String mStartAddress;
+		private String mEndAddress;
+		private int mStartLat;
+		private int mStartLon;
+		private int mEndLat;
+		private int mEndLon;
+		private final List<Step> mSteps;
+
+		/**
+		 * the encoded polylines of the steps, one after another
+		 */
+		private final byte[] mEncoded;
+		private Polyline mPolyline;
+
+		private Leg(final ArrayList<Step> steps, final byte[] encoded) {
+			mSteps = Collections.unmodifiableList(steps);
+			mEncoded = encoded;
+			for (final Step step : steps)
+				step.mLeg = this;
+		}
+
+		/**
+		 * Decodes the polylines of the steps onto the end of a polyline
+		 * 
+		 * @param polyline
+		 * @author ricky barrette
+		 */
+		private void decode(final Polyline polyline) {
+			polyline.ensureCapacity(polyline.size() + mEncoded.length / 4);
+			// steps share their ends, so each one joins on to the last
+			for (final Step step : mSteps)
+				polyline.append(mEncoded, step.mStart, step.mEnd - step.mStart, true);
+		}
+
+		/**
+		 * @return the length of the leg in meters
+		 */
+		public long getDistance() {
+			return mDistance;
+		}
+
+		/**
+		 * @return the length of the leg formatted for display
+		 */
+		public String getDistanceText() {
+			return mDistanceText;
+		}
+
+		/**
+		 * @return the duration of the leg in seconds
+		 */
+		public long getDuration() {
+			return mDuration;
+		}
+
+		/**
+		 * @return the duration of the leg formatted for display
+		 */
+		public String getDurationText() {
+			return mDurationText;
+		}
+
+		public String getEndAddress() {
+			return mEndAddress;
+		}
+
+		public int getEndLatitudeE6() {
+			return mEndLat;
+		}
+
+		public int getEndLongitudeE6() {
+			return mEndLon;
+		}
+
+		/**
+		 * @return the path of the leg, which is decoded on first use
+		 * @author ricky barrette
+		 */
+		public Polyline getPolyline() {
+			if (mPolyline == null) {
+				mPolyline = new Polyline(mEncoded.length / 4);
+				decode(mPolyline);
+			}
+			return mPolyline;
+		}
+
+		public String getStartAddress() {
+			return mStartAddress;
+		}
+
+		public int getStartLatitudeE6() {
+			return mStartLat;
+		}
+
+		public int getStartLongitudeE6() {
+			return mStartLon;
+		}
+
+		/**
+		 * @return the steps of the leg, in order
+		 */
+		public List<Step> getSteps() {
+			return mSteps;
+		}
+	}
+
+	/**
+	 * One of the alternative routes of a response
+	 * 
+	 * @author ricky barrette
+	 */
+	public static class Route {
+		private String mCopyrights;
+		private String mSummary;
+		private final List<String> mWarnings;
+		private final List<Leg> mLegs;
+		private final byte[] mOverview;
+		private Polyline mPolyline;
+		private Polyline mOverviewPolyline;
+		private PolylinePyramid mPyramid;
+
+		private Route(final ArrayList<Leg> legs, final ArrayList<String> warnings, final byte[] overview) {
+			mLegs = Collections.unmodifiableList(legs);
+			mWarnings = Collections.unmodifiableList(warnings);
+			mOverview = overview;
+		}
+
+		public String getCopyrights() {
+			return mCopyrights;
+		}
+
+		/**
+		 * @return the length of the route in meters
+		 * @author ricky barrette
+		 */
+		public long getDistance() {
+			long distance = 0;
+			for (final Leg leg : mLegs)
+				distance += leg.mDistance;
+			return distance;
+		}
+
+		/**
+		 * @return the duration of the route in seconds
+		 * @author ricky barrette
+		 */
+		public long getDuration() {
+			long duration = 0;
+			for (final Leg leg : mLegs)
+				duration += leg.mDuration;
+			return duration;
+		}
+
+		/**
+		 * @return the legs of the route, one per waypoint after the origin
+		 */
+		public List<Leg> getLegs() {
+			return mLegs;
+		}
+
+		/**
+		 * @return the simplified path of the whole route, which is decoded on
+		 *         first use
+		 * @author ricky barrette
+		 */
+		public Polyline getOverviewPolyline() {
+			if (mOverviewPolyline == null) {
+				mOverviewPolyline = new Polyline(mOverview.length / 4);
+				mOverviewPolyline.append(mOverview, 0, mOverview.length, false);
+			}
+			return mOverviewPolyline;
+		}
+
+		/**
+		 * @return the full path of the route, every step of every leg, which
+		 *         is decoded on first use
+		 * @author ricky barrette
+		 */
+		public Polyline getPolyline() {
+			if (mPolyline == null) {
+				int length = 0;
+				for (final Leg leg : mLegs)
+					length += leg.mEncoded.length;
+				mPolyline = new Polyline(length / 4);
+				for (final Leg leg : mLegs)
+					leg.decode(mPolyline);
+			}
+			return mPolyline;
+		}
+
+		/**
+		 * @return the full path of the route simplified for each zoom level,
+		 *         which is built on first use
+		 * @author ricky barrette
+		 */
+		public PolylinePyramid getPyramid() {
+			if (mPyramid == null)
+				mPyramid = new PolylinePyramid(getPolyline());
+			return mPyramid;
+		}
+
+		/**
+		 * @return a short description of the route, ie the roads it takes
+		 */
+		public String getSummary() {
+			return mSummary;
+		}
+
+		public List<String> getWarnings() {
+			return mWarnings;
+		}
+	}
+
+	/**
+	 * A single instruction of a leg
+	 * 
+	 * @author ricky barrette
+	 */
+	public static class Step {
+		private Leg mLeg;
+		private final int mStart;
+		private final int mEnd;
+		private String mHtmlInstructions;
+		private String mInstructions;
+		private String mDistanceText;
+		private long mDistance;
+		private String mDurationText;
+		private long mDuration;
+		private int mStartLat;
+		private int mStartLon;
+		private int mEndLat;
+		private int mEndLon;
+		private Polyline mPolyline;
+
+		/**
+		 * @param start
+		 *            offset of the step's encoded polyline in its leg's
+		 * @param end
+		 *            offset after the step's encoded polyline
+		 */
+		private Step(final int start, final int end) {
+			mStart = start;
+			mEnd = end;
+		}
+
+		/**
+		 * @return the length of the step in meters
+		 */
+		public long getDistance() {
+			return mDistance;
+		}
+
+		/**
+		 * @return the length of the step formatted for display
+		 */
+		public String getDistanceText() {
+			return mDistanceText;
+		}
+
+		/**
+		 * @return the duration of the step in seconds
+		 */
+		public long getDuration() {
+			return mDuration;
+		}
+
+		/**
+		 * @return the duration of the step formatted for display
+		 */
+		public String getDurationText() {
+			return mDurationText;
+		}
+
+		public int getEndLatitudeE6() {
+			return mEndLat;
+		}
+
+		public int getEndLongitudeE6() {
+			return mEndLon;
+		}
+
+		/**
+		 * @return the instructions for the step, as html
+		 */
+		public String getHtmlInstructions() {
+			return mHtmlInstructions;
+		}
+
+		/**
+		 * @return the instructions for the step as plain text, which are
+		 *         stripped of their html on first use
+		 * @author ricky barrette
+		 */
+		public String getInstructions() {
+			if (mInstructions == null && mHtmlInstructions != null)
+				mInstructions = toText(mHtmlInstructions);
+			return mInstructions;
+		}
+
+		/**
+		 * @return the path of the step, which is decoded on first use
+		 * @author ricky barrette
+		 */
+		public Polyline getPolyline() {
+			if (mPolyline == null) {
+				mPolyline = new Polyline((mEnd - mStart) / 4);
+				mPolyline.append(mLeg.mEncoded, mStart, mEnd - mStart, false);
+			}
+			return mPolyline;
+		}
+
+		public int getStartLatitudeE6() {
+			return mStartLat;
+		}
+
+		public int getStartLongitudeE6() {
+			return mStartLon;
+		}
+	}
+
+	/**
+	 * Version of the format written by write()
+	 */
+	private static final int VERSION = 1;
+
+	private final String mStatus;
+	private final List<Route> mRoutes;
+
+	/**
+	 * Creates a new Directions
+	 * 
+	 * @param status
+	 * @param routes
+	 * @author ricky barrette
+	 */
+	private Directions(final String status, final ArrayList<Route> routes) {
+		mStatus = status;
+		mRoutes = Collections.unmodifiableList(routes);
+	}
+
+	/**
+	 * @return the routes of the response, the first is Google's pick and the
+	 *         rest are alternatives
+	 */
+	public List<Route> getRoutes() {
+		return mRoutes;
+	}
+
+	/**
+	 * @return the status of the response, ie "OK" or "ZERO_RESULTS", or null
+	 *         if there wasn't one
+	 */
+	public String getStatus() {
+		return mStatus;
+	}
+
+	/**
+	 * Parses a Directions API response
+	 * 
+	 * @param reader
+	 *            the response, which is read as it is parsed. It is not closed.
+	 * @return the parsed directions, which may have no routes
+	 * @throws IOException
+	 *             if the response could not be read, or is not valid JSON
+	 * @author ricky barrette
+	 */
+	public static Directions parse(final Reader reader) throws IOException {
+		final Builder builder = new Builder();
+		final String status = DirectionsParser.parse(reader, builder);
+		return new Directions(status, builder.mRoutes);
+	}
+
+	/**
+	 * Reads directions written by {@link #write(DataOutput)}
+	 * 
+	 * @param in
+	 * @return the directions
+	 * @throws IOException
+	 *             if they could not be read, or were written by another
+	 *             version of this class
+	 * @author ricky barrette
+	 */
+	public static Directions read(final DataInput in) throws IOException {
+		if (readVarint(in) != VERSION)
+			throw new IOException("unknown directions version");
+		final String status = readString(in);
+		final int routeCount = readVarint(in);
+		final ArrayList<Route> routes = new ArrayList<Route>(routeCount);
+		for (int r = 0; r < routeCount; r++) {
+			final String copyrights = readString(in);
+			final String summary = readString(in);
+			final int warningCount = readVarint(in);
+			final ArrayList<String> warnings = new ArrayList<String>(warningCount);
+			for (int i = 0; i < warningCount; i++)
+				warnings.add(readString(in));
+			final byte[] overview = readBytes(in);
+
+			final int legCount = readVarint(in);
+			final ArrayList<Leg> legs = new ArrayList<Leg>(legCount);
+			for (int l = 0; l < legCount; l++) {
+				final byte[] encoded = readBytes(in);
+				final int stepCount = readVarint(in);
+				final ArrayList<Step> steps = new ArrayList<Step>(stepCount);
+				int start = 0;
+				for (int s = 0; s < stepCount; s++) {
+					final int end = start + readVarint(in);
+					if (end > encoded.length)
+						throw new IOException("malformed step");
+					final Step step = new Step(start, end);
+					step.mHtmlInstructions = readString(in);
+					step.mDistanceText = readString(in);
+					step.mDistance = readVarint(in);
+					step.mDurationText = readString(in);
+					step.mDuration = readVarint(in);
+					step.mStartLat = in.readInt();
+					step.mStartLon = in.readInt();
+					step.mEndLat = in.readInt();
+					step.mEndLon = in.readInt();
+					steps.add(step);
+					start = end;
+				}
+
+				final Leg leg = new Leg(steps, encoded);
+				leg.mDistanceText = readString(in);
+				leg.mDistance = readVarint(in);
+				leg.mDurationText = readString(in);
+				leg.mDuration = readVarint(in);
+				leg.mStartAddress = readString(in);
+				leg.mEndAddress = readString(in);
+				leg.mStartLat = in.readInt();
+				leg.mStartLon = in.readInt();
+				leg.mEndLat = in.readInt();
+				leg.mEndLon = in.readInt();
+				legs.add(leg);
+			}
+
+			final Route route = new Route(legs, warnings, overview);
+			route.mCopyrights = copyrights;
+			route.mSummary = summary;
+			routes.add(route);
+		}
+		return new Directions(status, routes);
+	}
+
+	/**
+	 * @param in
+	 * @return a byte array written by writeBytes()
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private static byte[] readBytes(final DataInput in) throws IOException {
+		final byte[] bytes = new byte[readVarint(in)];
+		in.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * @param in
+	 * @return a string written by writeString()
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private static String readString(final DataInput in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	/**
+	 * @param in
+	 * @return an unsigned varint written by writeVarint()
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private static int readVarint(final DataInput in) throws IOException {
+		int result = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			final int b = in.readUnsignedByte();
+			result |= (b & 0x7f) << shift;
+			if (b < 0x80) {
+				if (result < 0)
+					break;
+				return result;
+			}
+		}
+		throw new IOException("malformed varint");
+	}
+
+	/**
+	 * @param encoded
+	 *            an encoded polyline, which is always US-ASCII
+	 * @return its bytes
+	 * @author ricky barrette
+	 */
+	private static byte[] toBytes(final CharSequence encoded) {
+		final byte[] bytes = new byte[encoded.length()];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = (byte) encoded.charAt(i);
+		return bytes;
+	}
+
+	/**
+	 * @param entity
+	 *            the name or number of an html entity, without the & and ;
+	 * @return the char of the entity, or 0 if it is unknown
+	 * @author ricky barrette
+	 */
+	private static char toChar(final String entity) {
+		if (entity.equals("amp"))
+			return '&';
+		if (entity.equals("lt"))
+			return '<';
+		if (entity.equals("gt"))
+			return '>';
+		if (entity.equals("quot"))
+			return '"';
+		if (entity.equals("apos"))
+			return '\'';
+		if (entity.equals("nbsp"))
+			return ' ';
+		if (entity.length() > 1 && entity.charAt(0) == '#')
+			try {
+				final boolean isHex = entity.charAt(1) == 'x' || entity.charAt(1) == 'X';
+				final int code = Integer.parseInt(entity.substring(isHex ? 2 : 1), isHex ? 16 : 10);
+				return code > 0 && code < 0x10000 ? (char) code : 0;
+			} catch (final NumberFormatException e) {
+				return 0;
+			}
+		return 0;
+	}
+
+	/**
+	 * @param degrees
+	 * @return the degrees in microdegrees, 0 if they are missing
+	 * @author ricky barrette
+	 */
+	private static int toE6(final double degrees) {
+		return Double.isNaN(degrees) ? 0 : (int) Math.round(degrees * 1E6);
+	}
+
+	/**
+	 * Strips the html of a step's instructions, ie
+	 * "Turn &lt;b&gt;left&lt;/b&gt;&lt;div&gt;Destination will be on the right&lt;/div&gt;"
+	 * 
+	 * @param html
+	 * @return the plain text, with blocks on their own lines
+	 * @author ricky barrette
+	 */
+	static String toText(final String html) {
+		final int length = html.length();
+		final StringBuilder sb = new StringBuilder(length);
+		int i = 0;
+		while (i < length) {
+			final char c = html.charAt(i);
+			if (c == '<') {
+				final int close = html.indexOf('>', i);
+				if (close == -1)
+					break;
+				// block tags start a new line
+				final char tag = Character.toLowerCase(i + 1 < close ? html.charAt(i + 1) : ' ');
+				if ((tag == 'd' || tag == 'b' && i + 2 < close && Character.toLowerCase(html.charAt(i + 2)) == 'r' || tag == 'p') && sb.length() > 0
+						&& sb.charAt(sb.length() - 1) != '\n')
+					sb.append('\n');
+				i = close + 1;
+			} else if (c == '&') {
+				final int semi = html.indexOf(';', i);
+				final String entity = semi == -1 || semi - i > 8 ? null : html.substring(i + 1, semi);
+				final char decoded = entity == null ? 0 : toChar(entity);
+				if (decoded == 0) {
+					sb.append(c);
+					i++;
+				} else {
+					sb.append(decoded);
+					i = semi + 1;
+				}
+			} else {
+				sb.append(c);
+				i++;
+			}
+		}
+		return sb.toString().trim();
+	}
+
+	/**
+	 * Writes the directions compactly, keeping polylines encoded, so they can
+	 * be read back with {@link #read(DataInput)}
+	 * 
+	 * @param out
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public void write(final DataOutput out) throws IOException {
+		writeVarint(VERSION, out);
+		writeString(mStatus, out);
+		writeVarint(mRoutes.size(), out);
+		for (final Route route : mRoutes) {
+			writeString(route.mCopyrights, out);
+			writeString(route.mSummary, out);
+			writeVarint(route.mWarnings.size(), out);
+			for (final String warning : route.mWarnings)
+				writeString(warning, out);
+			writeBytes(route.mOverview, out);
+
+			writeVarint(route.mLegs.size(), out);
+			for (final Leg leg : route.mLegs) {
+				writeBytes(leg.mEncoded, out);
+				writeVarint(leg.mSteps.size(), out);
+				for (final Step step : leg.mSteps) {
+					writeVarint(step.mEnd - step.mStart, out);
+					writeString(step.mHtmlInstructions, out);
+					writeString(step.mDistanceText, out);
+					writeVarint((int) step.mDistance, out);
+					writeString(step.mDurationText, out);
+					writeVarint((int) step.mDuration, out);
+					out.writeInt(step.mStartLat);
+					out.writeInt(step.mStartLon);
+					out.writeInt(step.mEndLat);
+					out.writeInt(step.mEndLon);
+				}
+
+				writeString(leg.mDistanceText, out);
+				writeVarint((int) leg.mDistance, out);
+				writeString(leg.mDurationText, out);
+				writeVarint((int) leg.mDuration, out);
+				writeString(leg.mStartAddress, out);
+				writeString(leg.mEndAddress, out);
+				out.writeInt(leg.mStartLat);
+				out.writeInt(leg.mStartLon);
+				out.writeInt(leg.mEndLat);
+				out.writeInt(leg.mEndLon);
+			}
+		}
+	}
+
+	/**
+	 * Writes a byte array, ie an encoded polyline, which unlike writeUTF()
+	 * has no 64k limit
+	 * 
+	 * @param bytes
+	 * @param out
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private static void writeBytes(final byte[] bytes, final DataOutput out) throws IOException {
+		writeVarint(bytes.length, out);
+		out.write(bytes);
+	}
+
+	/**
+	 * Writes a string that may be null
+	 * 
+	 * @param string
+	 * @param out
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private static void writeString(final String string, final DataOutput out) throws IOException {
+		out.writeBoolean(string != null);
+		if (string != null)
+			out.writeUTF(string);
+	}
+
+	/**
+	 * Writes a non negative int as a varint, so small values take few bytes
+	 * 
+	 * @param value
+	 * @param out
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private static void writeVarint(final int value, final DataOutput out) throws IOException {
+		if (value < 0)
+			throw new IOException("negative varint");
+		int v = value;
+		while ((v & ~0x7f) != 0) {
+			out.writeByte(v & 0x7f | 0x80);
+			v >>>= 7;
+		}
+		out.writeByte(v);
+	}
+}
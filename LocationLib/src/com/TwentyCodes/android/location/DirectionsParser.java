@@ -0,0 +1,536 @@
+/**
+ * DirectionsParser.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class reads a Google Directions API response as it streams in, without
+ * building a JSON tree of it. Only the routes, legs and steps are walked, and
+ * of those only the fields a directions display needs are kept, everything
+ * else is skipped as it goes by.
+ * 
+ * Each step, leg and route is handed to a {@link Handler} when its closing
+ * brace is read. The objects handed over are reused for the next one, so a
+ * handler must copy out anything it wants to keep.
+ * 
+ * @author ricky barrette
+ */
+public class DirectionsParser {
+
+	/**
+	 * Receives the pieces of a response as they are parsed
+	 * 
+	 * @author ricky barrette
+	 */
+	public interface Handler {
+
+		/**
+		 * Called when a leg has been parsed, after all of its steps
+		 * 
+		 * @param route
+		 *            index of the route
+		 * @param index
+		 *            of the leg in the route
+		 * @param leg
+		 *            only valid during this call
+		 * @author ricky barrette
+		 */
+		public void onLeg(int route, int index, Leg leg);
+
+		/**
+		 * Called when a route has been parsed, after all of its legs
+		 * 
+		 * @param index
+		 *            of the route
+		 * @param route
+		 *            only valid during this call
+		 * @author ricky barrette
+		 */
+		public void onRoute(int index, Route route);
+
+		/**
+		 * Called when a step has been parsed
+		 * 
+		 * @param route
+		 *            index of the route
+		 * @param leg
+		 *            index of the leg in the route
+		 * @param index
+		 *            of the step in the leg
+		 * @param step
+		 *            only valid during this call
+		 * @author ricky barrette
+		 */
+		public void onStep(int route, int leg, int index, Step step);
+	}
+
+	/**
+	 * A leg of a route, from one waypoint to the next
+	 * 
+	 * @author ricky barrette
+	 */
+	public static class Leg {
+		private String mDistanceText;
+		private long mDistance;
+		private String mDurationText;
+		private long mDuration;
+		private String mStartAddress;
+		private String mEndAddress;
+		private final double[] mStart = new double[2];
+		private final double[] mEnd = new double[2];
+
+		/**
+		 * @return the length of the leg in meters
+		 */
+		public long getDistance() {
+			return mDistance;
+		}
+
+		/**
+		 * @return the length of the leg formatted for display
+		 */
+		public String getDistanceText() {
+			return mDistanceText;
+		}
+
+		/**
+		 * @return the duration of the leg in seconds
+		 */
+		public long getDuration() {
+			return mDuration;
+		}
+
+		/**
+		 * @return the duration of the leg formatted for display
+		 */
+		public String getDurationText() {
+			return mDurationText;
+		}
+
+		public String getEndAddress() {
+			return mEndAddress;
+		}
+
+		public double getEndLatitude() {
+			return mEnd[0];
+		}
+
+		public double getEndLongitude() {
+			return mEnd[1];
+		}
+
+		public String getStartAddress() {
+			return mStartAddress;
+		}
+
+		public double getStartLatitude() {
+			return mStart[0];
+		}
+
+		public double getStartLongitude() {
+			return mStart[1];
+		}
+
+		private void reset() {
+			mDistanceText = null;
+			mDistance = 0;
+			mDurationText = null;
+			mDuration = 0;
+			mStartAddress = null;
+			mEndAddress = null;
+			mStart[0] = mStart[1] = mEnd[0] = mEnd[1] = Double.NaN;
+		}
+	}
+
+	/**
+	 * One of the routes of a response
+	 * 
+	 * @author ricky barrette
+	 */
+	public static class Route {
+		private String mCopyrights;
+		private String mSummary;
+		private final ArrayList<String> mWarnings = new ArrayList<String>();
+		private final StringBuilder mOverviewPolyline = new StringBuilder();
+
+		public String getCopyrights() {
+			return mCopyrights;
+		}
+
+		/**
+		 * @return the encoded polyline of the whole route, simplified
+		 */
+		public CharSequence getOverviewPolyline() {
+			return mOverviewPolyline;
+		}
+
+		public String getSummary() {
+			return mSummary;
+		}
+
+		public List<String> getWarnings() {
+			return mWarnings;
+		}
+
+		private void reset() {
+			mCopyrights = null;
+			mSummary = null;
+			mWarnings.clear();
+			mOverviewPolyline.setLength(0);
+		}
+	}
+
+	/**
+	 * A single instruction of a leg
+	 * 
+	 * @author ricky barrette
+	 */
+	public static class Step {
+		private String mInstructions;
+		private String mDistanceText;
+		private long mDistance;
+		private String mDurationText;
+		private long mDuration;
+		private final double[] mStart = new double[2];
+		private final double[] mEnd = new double[2];
+		private final StringBuilder mPolyline = new StringBuilder();
+
+		/**
+		 * @return the length of the step in meters
+		 */
+		public long getDistance() {
+			return mDistance;
+		}
+
+		/**
+		 * @return the length of the step formatted for display
+		 */
+		public String getDistanceText() {
+			return mDistanceText;
+		}
+
+		/**
+		 * @return the duration of the step in seconds
+		 */
+		public long getDuration() {
+			return mDuration;
+		}
+
+		/**
+		 * @return the duration of the step formatted for display
+		 */
+		public String getDurationText() {
+			return mDurationText;
+		}
+
+		public double getEndLatitude() {
+			return mEnd[0];
+		}
+
+		public double getEndLongitude() {
+			return mEnd[1];
+		}
+
+		/**
+		 * @return the instructions for the step, as html
+		 */
+		public String getInstructions() {
+			return mInstructions;
+		}
+
+		/**
+		 * @return the encoded polyline of the step, in a buffer that is reused
+		 *         by the next step
+		 */
+		public CharSequence getPolyline() {
+			return mPolyline;
+		}
+
+		public double getStartLatitude() {
+			return mStart[0];
+		}
+
+		public double getStartLongitude() {
+			return mStart[1];
+		}
+
+		private void reset() {
+			mInstructions = null;
+			mDistanceText = null;
+			mDistance = 0;
+			mDurationText = null;
+			mDuration = 0;
+			mStart[0] = mStart[1] = mEnd[0] = mEnd[1] = Double.NaN;
+			mPolyline.setLength(0);
+		}
+	}
+
+	private final JsonPullParser mParser;
+	private final Handler mHandler;
+	private final Route mRoute = new Route();
+	private final Leg mLeg = new Leg();
+	private final Step mStep = new Step();
+
+	/*
+	 * {text, value} of the last call to readTextValue()
+	 */
+	private String mText;
+	private long mValue;
+
+	/**
+	 * Creates a new DirectionsParser
+	 * 
+	 * @param parser
+	 * @param handler
+	 * @author ricky barrette
+	 */
+	private DirectionsParser(final JsonPullParser parser, final Handler handler) {
+		mParser = parser;
+		mHandler = handler;
+	}
+
+	/**
+	 * Parses a Directions API response
+	 * 
+	 * @param reader
+	 *            the response, which is read as it is parsed. It is not closed.
+	 * @param handler
+	 *            to receive the routes, legs and steps
+	 * @return the status of the response, ie "OK" or "ZERO_RESULTS", or null
+	 *         if there wasn't one
+	 * @throws IOException
+	 *             if the response could not be read, or is not valid JSON
+	 * @author ricky barrette
+	 */
+	public static String parse(final Reader reader, final Handler handler) throws IOException {
+		if (handler == null)
+			throw new NullPointerException();
+		return new DirectionsParser(new JsonPullParser(reader), handler).readResponse();
+	}
+
+	/**
+	 * Reads a leg object
+	 * 
+	 * @param route
+	 * @param index
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private void readLeg(final int route, final int index) throws IOException {
+		mLeg.reset();
+		mParser.beginObject();
+		while (mParser.hasNext()) {
+			final CharSequence name = mParser.nextName();
+			if ("steps".contentEquals(name)) {
+				int step = 0;
+				mParser.beginArray();
+				while (mParser.hasNext())
+					readStep(route, index, step++);
+				mParser.endArray();
+			} else if ("distance".contentEquals(name)) {
+				readTextValue();
+				mLeg.mDistanceText = mText;
+				mLeg.mDistance = mValue;
+			} else if ("duration".contentEquals(name)) {
+				readTextValue();
+				mLeg.mDurationText = mText;
+				mLeg.mDuration = mValue;
+			} else if ("start_address".contentEquals(name))
+				mLeg.mStartAddress = mParser.nextString();
+			else if ("end_address".contentEquals(name))
+				mLeg.mEndAddress = mParser.nextString();
+			else if ("start_location".contentEquals(name))
+				readLocation(mLeg.mStart);
+			else if ("end_location".contentEquals(name))
+				readLocation(mLeg.mEnd);
+			else
+				mParser.skipValue();
+		}
+		mParser.endObject();
+		mHandler.onLeg(route, index, mLeg);
+	}
+
+	/**
+	 * Reads a {lat, lng} object
+	 * 
+	 * @param out
+	 *            to receive {lat, lng}
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private void readLocation(final double[] out) throws IOException {
+		mParser.beginObject();
+		while (mParser.hasNext()) {
+			final CharSequence name = mParser.nextName();
+			if ("lat".contentEquals(name))
+				out[0] = mParser.nextDouble();
+			else if ("lng".contentEquals(name))
+				out[1] = mParser.nextDouble();
+			else
+				mParser.skipValue();
+		}
+		mParser.endObject();
+	}
+
+	/**
+	 * Reads a {points} polyline object
+	 * 
+	 * @param out
+	 *            to receive the encoded points
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private void readPolyline(final StringBuilder out) throws IOException {
+		mParser.beginObject();
+		while (mParser.hasNext())
+			if ("points".contentEquals(mParser.nextName()))
+				mParser.nextString(out);
+			else
+				mParser.skipValue();
+		mParser.endObject();
+	}
+
+	/**
+	 * Reads the top level object
+	 * 
+	 * @return the status
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private String readResponse() throws IOException {
+		String status = null;
+		mParser.beginObject();
+		while (mParser.hasNext()) {
+			final CharSequence name = mParser.nextName();
+			if ("routes".contentEquals(name)) {
+				int route = 0;
+				mParser.beginArray();
+				while (mParser.hasNext())
+					readRoute(route++);
+				mParser.endArray();
+			} else if ("status".contentEquals(name))
+				status = mParser.nextString();
+			else
+				mParser.skipValue();
+		}
+		mParser.endObject();
+		return status;
+	}
+
+	/**
+	 * Reads a route object
+	 * 
+	 * @param index
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private void readRoute(final int index) throws IOException {
+		mRoute.reset();
+		mParser.beginObject();
+		while (mParser.hasNext()) {
+			final CharSequence name = mParser.nextName();
+			if ("legs".contentEquals(name)) {
+				int leg = 0;
+				mParser.beginArray();
+				while (mParser.hasNext())
+					readLeg(index, leg++);
+				mParser.endArray();
+			} else if ("copyrights".contentEquals(name))
+				mRoute.mCopyrights = mParser.nextString();
+			else if ("summary".contentEquals(name))
+				mRoute.mSummary = mParser.nextString();
+			else if ("overview_polyline".contentEquals(name))
+				readPolyline(mRoute.mOverviewPolyline);
+			else if ("warnings".contentEquals(name)) {
+				mParser.beginArray();
+				while (mParser.hasNext())
+					mRoute.mWarnings.add(mParser.nextString());
+				mParser.endArray();
+			} else
+				mParser.skipValue();
+		}
+		mParser.endObject();
+		mHandler.onRoute(index, mRoute);
+	}
+
+	/**
+	 * Reads a step object
+	 * 
+	 * @param route
+	 * @param leg
+	 * @param index
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private void readStep(final int route, final int leg, final int index) throws IOException {
+		mStep.reset();
+		mParser.beginObject();
+		while (mParser.hasNext()) {
+			final CharSequence name = mParser.nextName();
+			if ("polyline".contentEquals(name))
+				readPolyline(mStep.mPolyline);
+			else if ("html_instructions".contentEquals(name))
+				mStep.mInstructions = mParser.nextString();
+			else if ("distance".contentEquals(name)) {
+				readTextValue();
+				mStep.mDistanceText = mText;
+				mStep.mDistance = mValue;
+			} else if ("duration".contentEquals(name)) {
+				readTextValue();
+				mStep.mDurationText = mText;
+				mStep.mDuration = mValue;
+			} else if ("start_location".contentEquals(name))
+				readLocation(mStep.mStart);
+			else if ("end_location".contentEquals(name))
+				readLocation(mStep.mEnd);
+			else
+				mParser.skipValue();
+		}
+		mParser.endObject();
+		mHandler.onStep(route, leg, index, mStep);
+	}
+
+	/**
+	 * Reads a {text, value} object, ie a distance or duration, into mText and
+	 * mValue
+	 * 
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private void readTextValue() throws IOException {
+		mText = null;
+		mValue = 0;
+		mParser.beginObject();
+		while (mParser.hasNext()) {
+			final CharSequence name = mParser.nextName();
+			if ("text".contentEquals(name))
+				mText = mParser.nextString();
+			else if ("value".contentEquals(name))
+				mValue = mParser.nextLong();
+			else
+				mParser.skipValue();
+		}
+		mParser.endObject();
+	}
+}
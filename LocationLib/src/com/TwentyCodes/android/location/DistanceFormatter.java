@@ -0,0 +1,301 @@
+/**
+ * DistanceFormatter.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormatSymbols;
+
+/**
+ * This imutable class converts distances into human readable strings, ie
+ * "1.25 Km" or "300 ft", appending them to a caller's StringBuilder or char[]
+ * rather than building new Strings. Since it holds no mutable state, a single
+ * instance can be shared between threads.
+ * 
+ * Fractions are rounded half even and trailing zeros are dropped, like
+ * DecimalFormat does, ie 1.0625 Km is "1.062 Km". Rounding goes by the exact
+ * value of the double, so 1.0005 Km, which is a little under 1.0005, is
+ * "1 Km".
+ * 
+ * @author ricky barrette
+ */
+public class DistanceFormatter {
+
+	private static final double KM_PER_MILE = 1.609344;
+	private static final int FEET_PER_MILE = 5280;
+	private static final long[] POWERS_OF_TEN = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L };
+
+	/**
+	 * Scaled distances from here up are formatted with BigDecimal, as a
+	 * double no longer holds their fraction
+	 */
+	private static final double MAX_SCALED = 1E15;
+
+	/**
+	 * Distances from here up may not fit in a 32 char buffer
+	 */
+	private static final double MAX_SHORT = 1E20;
+
+	/**
+	 * Enough chars for any distance, the largest double has 309 digits
+	 */
+	private static final int MAX_LENGTH = 320;
+
+	/**
+	 * The largest number of fraction digits supported
+	 */
+	public static final int MAX_PRECISION = POWERS_OF_TEN.length - 1;
+
+	/**
+	 * Scratch space for format(double, StringBuilder), one per thread so
+	 * formatters can be shared
+	 */
+	private static final ThreadLocal<char[]> BUFFER = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[32];
+		}
+	};
+
+	private final boolean mIsMetric;
+	private final int mPrecision;
+	private final int mSmallUnitPrecision;
+	private final char mDecimalSeparator;
+
+	/**
+	 * Creates a new DistanceFormatter that formats like
+	 * {@link GeoUtils#distanceToString(double, boolean)}
+	 * 
+	 * @param metric
+	 *            true if metric, false for US
+	 * @author ricky barrette
+	 */
+	public DistanceFormatter(final boolean metric) {
+		this(metric, metric ? 3 : 2, 2);
+	}
+
+	/**
+	 * Creates a new DistanceFormatter using the default locale's decimal
+	 * separator
+	 * 
+	 * @param metric
+	 *            true if metric, false for US
+	 * @param precision
+	 *            max fraction digits for Km and mi
+	 * @param smallUnitPrecision
+	 *            max fraction digits for m and ft
+	 * @author ricky barrette
+	 */
+	public DistanceFormatter(final boolean metric, final int precision, final int smallUnitPrecision) {
+		this(metric, precision, smallUnitPrecision, DecimalFormatSymbols.getInstance().getDecimalSeparator());
+	}
+
+	/**
+	 * Creates a new DistanceFormatter
+	 * 
+	 * @param metric
+	 *            true if metric, false for US
+	 * @param precision
+	 *            max fraction digits for Km and mi
+	 * @param smallUnitPrecision
+	 *            max fraction digits for m and ft
+	 * @param decimalSeparator
+	 * @author ricky barrette
+	 */
+	public DistanceFormatter(final boolean metric, final int precision, final int smallUnitPrecision, final char decimalSeparator) {
+		if (precision < 0 || precision > MAX_PRECISION || smallUnitPrecision < 0 || smallUnitPrecision > MAX_PRECISION)
+			throw new IllegalArgumentException("precision must be between 0 and " + MAX_PRECISION);
+		mIsMetric = metric;
+		mPrecision = precision;
+		mSmallUnitPrecision = smallUnitPrecision;
+		mDecimalSeparator = decimalSeparator;
+	}
+
+	/**
+	 * Formats a distance
+	 * 
+	 * @param distance
+	 *            in kilometers
+	 * @return string distance
+	 * @author ricky barrette
+	 */
+	public String format(final double distance) {
+		return format(distance, new StringBuilder(16)).toString();
+	}
+
+	/**
+	 * Formats a distance into the provided char[]
+	 * 
+	 * @param distance
+	 *            in kilometers
+	 * @param buffer
+	 * @param offset
+	 *            where to start writing in buffer
+	 * @return the number of chars written
+	 * @throws ArrayIndexOutOfBoundsException
+	 *             if buffer is too small. 32 chars is enough for distances
+	 *             under 1E20 Km, and 320 for any distance.
+	 * @author ricky barrette
+	 */
+	public int format(double distance, final char[] buffer, final int offset) {
+		int pos = offset;
+		String unit;
+		int precision;
+		if (mIsMetric) {
+			if (distance < 1) {
+				distance = distance * 1000;
+				unit = " m";
+				precision = mSmallUnitPrecision;
+			} else {
+				unit = " Km";
+				precision = mPrecision;
+			}
+		} else {
+			distance = distance / KM_PER_MILE;
+			if (distance < 1) {
+				distance = distance * FEET_PER_MILE;
+				unit = " ft";
+				precision = mSmallUnitPrecision;
+			} else {
+				unit = " mi";
+				precision = mPrecision;
+			}
+		}
+
+		if (Double.isNaN(distance) || Double.isInfinite(distance)) {
+			final String s = Double.toString(distance);
+			s.getChars(0, s.length(), buffer, pos);
+			pos += s.length();
+		} else {
+			if (distance < 0) {
+				buffer[pos++] = '-';
+				distance = -distance;
+			}
+
+			final double scaledDistance = distance * POWERS_OF_TEN[precision];
+			long scaled = (long) scaledDistance;
+			final double remainder = scaledDistance - scaled;
+			/*
+			 * the multiplication may have rounded across a tie, and a tie has
+			 * to go by the digits of the double, so leave those to BigDecimal
+			 */
+			if (scaledDistance >= MAX_SCALED || Math.abs(remainder - 0.5) <= 2 * Math.ulp(scaledDistance))
+				return pos + formatExact(distance, precision, buffer, pos, unit) - offset;
+			if (remainder > 0.5)
+				scaled++;
+
+			// drop trailing zeros from the fraction
+			while (precision > 0 && scaled % 10 == 0) {
+				scaled /= 10;
+				precision--;
+			}
+
+			pos = writeLong(scaled / POWERS_OF_TEN[precision], buffer, pos);
+			if (precision > 0) {
+				buffer[pos++] = mDecimalSeparator;
+				long fraction = scaled % POWERS_OF_TEN[precision];
+				for (int i = pos + precision - 1; i >= pos; i--) {
+					buffer[i] = (char) ('0' + fraction % 10);
+					fraction /= 10;
+				}
+				pos += precision;
+			}
+		}
+
+		unit.getChars(0, unit.length(), buffer, pos);
+		pos += unit.length();
+		return pos - offset;
+	}
+
+	/**
+	 * Formats a distance onto the end of the provided StringBuilder
+	 * 
+	 * @param distance
+	 *            in kilometers
+	 * @param sb
+	 * @return sb, for convenience
+	 * @author ricky barrette
+	 */
+	public StringBuilder format(final double distance, final StringBuilder sb) {
+		final char[] buffer = Math.abs(distance) < MAX_SHORT ? BUFFER.get() : new char[MAX_LENGTH];
+		return sb.append(buffer, 0, format(distance, buffer, 0));
+	}
+
+	/**
+	 * Formats a positive distance with BigDecimal, rounding it like
+	 * DecimalFormat does. That is half even on the shortest digits that
+	 * identify the double, unless those digits are a tie, which goes by the
+	 * exact value of the double.
+	 * 
+	 * @param distance
+	 *            in the unit
+	 * @param precision
+	 *            max fraction digits
+	 * @param buffer
+	 * @param pos
+	 *            where to start writing in buffer
+	 * @param unit
+	 * @return the number of chars written
+	 * @author ricky barrette
+	 */
+	private int formatExact(final double distance, final int precision, final char[] buffer, final int pos, final String unit) {
+		BigDecimal value = BigDecimal.valueOf(distance);
+		if (value.scale() > precision) {
+			final int exact = new BigDecimal(distance).compareTo(value);
+			value = value.setScale(precision, exact > 0 ? RoundingMode.HALF_UP : exact < 0 ? RoundingMode.HALF_DOWN : RoundingMode.HALF_EVEN);
+		}
+		final String digits = value.signum() == 0 ? "0" : value.stripTrailingZeros().toPlainString();
+		int i = pos;
+		for (int j = 0; j < digits.length(); j++) {
+			final char c = digits.charAt(j);
+			buffer[i++] = c == '.' ? mDecimalSeparator : c;
+		}
+		unit.getChars(0, unit.length(), buffer, i);
+		return i + unit.length() - pos;
+	}
+
+	/**
+	 * @return true if this formatter uses metric units
+	 * @author ricky barrette
+	 */
+	public boolean isMetric() {
+		return mIsMetric;
+	}
+
+	/**
+	 * Writes the digits of a positive long into buffer
+	 * 
+	 * @param value
+	 * @param buffer
+	 * @param pos
+	 * @return the position after the last digit
+	 * @author ricky barrette
+	 */
+	private static int writeLong(long value, final char[] buffer, final int pos) {
+		int digits = 1;
+		for (long v = value / 10; v > 0; v /= 10)
+			digits++;
+		for (int i = pos + digits - 1; i >= pos; i--) {
+			buffer[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		return pos + digits;
+	}
+}
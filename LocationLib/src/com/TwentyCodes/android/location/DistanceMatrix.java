@@ -0,0 +1,236 @@
+/**
+ * DistanceMatrix.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class computes the distance from every origin to every destination,
+ * ie for dispatch planning, into a flat row major array where the distance
+ * from origin i to destination j is at out[i * destinations + j].
+ * 
+ * The parallel version splits the origins into bands, one task each, and
+ * every task walks the destinations in blocks so the block stays in cache
+ * while the band's origins are run against it. Both versions share the same
+ * kernel, so their results are identical, and match
+ * {@link GeoUtils#distancesKm(double, double, double[], double[], double[])}
+ * exactly.
+ * 
+ * @author ricky barrette
+ */
+public class DistanceMatrix {
+
+	/**
+	 * The shared inner loop, with the destinations' trig precomputed once for
+	 * all of the bands
+	 * 
+	 * @author ricky barrette
+	 */
+	private static final class Kernel {
+		private final double[] mOriginLats;
+		private final double[] mOriginLngs;
+		private final double[] mDestLngs;
+		private final double[] mSinLat;
+		private final double[] mCosLat;
+		private final double[] mOut;
+
+		Kernel(final double[] originLats, final double[] originLngs, final double[] destLats, final double[] destLngs, final double[] out) {
+			mOriginLats = originLats;
+			mOriginLngs = originLngs;
+			mDestLngs = destLngs;
+			mOut = out;
+			mSinLat = new double[destLats.length];
+			mCosLat = new double[destLats.length];
+			for (int j = 0; j < destLats.length; j++) {
+				final double lat2Rad = Math.toRadians(destLats[j]);
+				mSinLat[j] = Math.sin(lat2Rad);
+				mCosLat[j] = Math.cos(lat2Rad);
+			}
+		}
+
+		/**
+		 * Computes the rows of origins start to end
+		 */
+		void run(final int start, final int end) {
+			final int columns = mDestLngs.length;
+			for (int block = 0; block < columns; block += BLOCK_SIZE) {
+				final int blockEnd = Math.min(block + BLOCK_SIZE, columns);
+				for (int i = start; i < end; i++) {
+					final double lat1Rad = Math.toRadians(mOriginLats[i]);
+					final double sinLat1 = Math.sin(lat1Rad);
+					final double cosLat1 = Math.cos(lat1Rad);
+					final double lon = mOriginLngs[i];
+					final int row = i * columns;
+					for (int j = block; j < blockEnd; j++) {
+						final double deltaLonRad = Math.toRadians(mDestLngs[j] - lon);
+						mOut[row + j] = Math.acos(sinLat1 * mSinLat[j] + cosLat1 * mCosLat[j] * Math.cos(deltaLonRad)) * GeoUtils.EARTH_RADIUS_KM;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Destinations per cache block, 5 arrays of 1024 doubles is 40 KB
+	 */
+	private static final int BLOCK_SIZE = 1024;
+
+	/**
+	 * Below this many cells, the parallel version just runs on the calling
+	 * thread
+	 */
+	private static final int MIN_PARALLEL_CELLS = 1 << 14;
+
+	/**
+	 * Tasks per thread, so threads that finish early can pick up more work
+	 */
+	private static final int TASKS_PER_THREAD = 4;
+
+	private static ExecutorService sExecutor;
+
+	/**
+	 * Computes the distance matrix on the calling thread
+	 * 
+	 * @param originLats
+	 * @param originLngs
+	 * @param destLats
+	 * @param destLngs
+	 * @param out
+	 *            array of at least origins * destinations to receive the
+	 *            distances in KM
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static double[] compute(final double[] originLats, final double[] originLngs, final double[] destLats, final double[] destLngs, final double[] out) {
+		check(originLats, originLngs, destLats, destLngs, out);
+		final Kernel kernel = new Kernel(originLats, originLngs, destLats, destLngs, out);
+		kernel.run(0, originLats.length);
+		return out;
+	}
+
+	/**
+	 * Computes the distance matrix on the shared pool, with one thread per
+	 * core
+	 * 
+	 * @see #computeParallel(double[], double[], double[], double[], double[],
+	 *      ExecutorService, int)
+	 * @author ricky barrette
+	 */
+	public static double[] computeParallel(final double[] originLats, final double[] originLngs, final double[] destLats, final double[] destLngs,
+			final double[] out) throws InterruptedException {
+		return computeParallel(originLats, originLngs, destLats, destLngs, out, getExecutor(), Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Computes the distance matrix on the provided executor, blocking until it
+	 * is done
+	 * 
+	 * @param originLats
+	 * @param originLngs
+	 * @param destLats
+	 * @param destLngs
+	 * @param out
+	 *            array of at least origins * destinations to receive the
+	 *            distances in KM
+	 * @param executor
+	 * @param threads
+	 *            the number of threads the executor will run at once
+	 * @return out, for convenience
+	 * @throws InterruptedException
+	 *             if the calling thread was interrupted while waiting, the
+	 *             contents of out are undefined
+	 * @author ricky barrette
+	 */
+	public static double[] computeParallel(final double[] originLats, final double[] originLngs, final double[] destLats, final double[] destLngs,
+			final double[] out, final ExecutorService executor, final int threads) throws InterruptedException {
+		check(originLats, originLngs, destLats, destLngs, out);
+		final int rows = originLats.length;
+		final Kernel kernel = new Kernel(originLats, originLngs, destLats, destLngs, out);
+		if (threads <= 1 || (long) rows * destLats.length < MIN_PARALLEL_CELLS) {
+			kernel.run(0, rows);
+			return out;
+		}
+
+		final int tasks = Math.min(rows, threads * TASKS_PER_THREAD);
+		final List<Callable<Void>> bands = new ArrayList<Callable<Void>>(tasks);
+		for (int t = 0; t < tasks; t++) {
+			final int start = (int) ((long) rows * t / tasks);
+			final int end = (int) ((long) rows * (t + 1) / tasks);
+			bands.add(new Callable<Void>() {
+				@Override
+				public Void call() {
+					kernel.run(start, end);
+					return null;
+				}
+			});
+		}
+
+		final List<Future<Void>> results = executor.invokeAll(bands);
+		for (final Future<Void> result : results)
+			try {
+				result.get();
+			} catch (final ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException)
+					throw (RuntimeException) e.getCause();
+				throw new RuntimeException(e.getCause());
+			}
+		return out;
+	}
+
+	/**
+	 * Validates the arguments
+	 * 
+	 * @author ricky barrette
+	 */
+	private static void check(final double[] originLats, final double[] originLngs, final double[] destLats, final double[] destLngs, final double[] out) {
+		if (originLats == null || originLngs == null || destLats == null || destLngs == null || out == null)
+			throw new NullPointerException();
+		if (originLngs.length != originLats.length || destLngs.length != destLats.length)
+			throw new IllegalArgumentException("lats and lngs must be the same length");
+		if (out.length < (long) originLats.length * destLats.length)
+			throw new IllegalArgumentException("out must be at least origins * destinations long");
+	}
+
+	/**
+	 * @return the shared pool used by
+	 *         {@link #computeParallel(double[], double[], double[], double[], double[])}
+	 *         , created on first use
+	 * @author ricky barrette
+	 */
+	private static synchronized ExecutorService getExecutor() {
+		if (sExecutor == null)
+			sExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+				@Override
+				public Thread newThread(final Runnable r) {
+					final Thread thread = new Thread(r, "DistanceMatrix");
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		return sExecutor;
+	}
+}
@@ -0,0 +1,164 @@
+/**
+ * DistanceMethod.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+/**
+ * The formulas available for computing the distance between two points, from
+ * cheapest to most accurate. Pick the cheapest one that meets your needs, ie
+ * EQUIRECTANGULAR to pre-filter candidates, then HAVERSINE or VINCENTY on the
+ * few that survive.
+ * 
+ * The error bounds below are relative to the WGS84 ellipsoid unless stated
+ * otherwise.
+ * 
+ * @author ricky barrette
+ */
+public enum DistanceMethod {
+
+	/**
+	 * Flat earth approximation, projecting both points onto a plane at their
+	 * mean latitude. Costs a single cos and sqrt. Within 0.1% of HAVERSINE for
+	 * distances under 100 Km away from the poles, but error grows with
+	 * distance and latitude and it should not be used across the
+	 * anti-meridian or for distances over a few hundred Km. Add the up to 0.5%
+	 * sphere vs ellipsoid error of HAVERSINE on top of that.
+	 */
+	EQUIRECTANGULAR {
+		@Override
+		public double distanceKm(final double lat1, final double lon1, final double lat2, final double lon2) {
+			final double x = Math.toRadians(lon2 - lon1) * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+			final double y = Math.toRadians(lat2 - lat1);
+			return Math.sqrt(x * x + y * y) * GeoUtils.EARTH_RADIUS_KM;
+		}
+	},
+
+	/**
+	 * Spherical law of cosines, the formula used by
+	 * {@link GeoUtils#distanceKm(double, double, double, double)}. Accurate to
+	 * the sphere for long distances, but acos loses precision for distances
+	 * under a few meters, where results can be off by a meter or more.
+	 * Sphere vs ellipsoid error is up to 0.5%.
+	 */
+	SPHERICAL_LAW_OF_COSINES {
+		@Override
+		public double distanceKm(final double lat1, final double lon1, final double lat2, final double lon2) {
+			return GeoUtils.distanceKm(lat1, lon1, lat2, lon2);
+		}
+	},
+
+	/**
+	 * Haversine formula. Numerically stable from millimeters up to near
+	 * antipodal points, and cheaper than SPHERICAL_LAW_OF_COSINES, whose
+	 * Math.acos costs more than its sin, cos and atan2 together. Sphere vs
+	 * ellipsoid error is up to 0.5%, typically around 0.3%.
+	 */
+	HAVERSINE {
+		@Override
+		public double distanceKm(final double lat1, final double lon1, final double lat2, final double lon2) {
+			final double sinDLat = Math.sin(Math.toRadians(lat2 - lat1) / 2);
+			final double sinDLon = Math.sin(Math.toRadians(lon2 - lon1) / 2);
+			final double a = sinDLat * sinDLat + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * sinDLon * sinDLon;
+			return 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a)) * GeoUtils.EARTH_RADIUS_KM;
+		}
+	},
+
+	/**
+	 * Vincenty's inverse formula on the WGS84 ellipsoid. Accurate to within
+	 * 0.5 mm, but iterative and several times the cost of HAVERSINE. For
+	 * nearly antipodal points, where the iteration does not converge, it falls
+	 * back to HAVERSINE.
+	 */
+	VINCENTY {
+		@Override
+		public double distanceKm(final double lat1, final double lon1, final double lat2, final double lon2) {
+			final double L = Math.toRadians(lon2 - lon1);
+			final double U1 = Math.atan((1 - WGS84_F) * Math.tan(Math.toRadians(lat1)));
+			final double U2 = Math.atan((1 - WGS84_F) * Math.tan(Math.toRadians(lat2)));
+			final double sinU1 = Math.sin(U1), cosU1 = Math.cos(U1);
+			final double sinU2 = Math.sin(U2), cosU2 = Math.cos(U2);
+
+			double lambda = L, lambdaP;
+			double sinSigma, cosSigma, sigma, cosSqAlpha, cos2SigmaM;
+			int iterations = VINCENTY_MAX_ITERATIONS;
+			do {
+				final double sinLambda = Math.sin(lambda), cosLambda = Math.cos(lambda);
+				final double t = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+				sinSigma = Math.sqrt(cosU2 * sinLambda * (cosU2 * sinLambda) + t * t);
+				if (sinSigma == 0)
+					// co-incident points
+					return 0;
+				cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+				sigma = Math.atan2(sinSigma, cosSigma);
+				final double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+				cosSqAlpha = 1 - sinAlpha * sinAlpha;
+				// cosSqAlpha is 0 when both points are on the equator
+				cos2SigmaM = cosSqAlpha == 0 ? 0 : cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha;
+				final double C = WGS84_F / 16 * cosSqAlpha * (4 + WGS84_F * (4 - 3 * cosSqAlpha));
+				lambdaP = lambda;
+				lambda = L + (1 - C) * WGS84_F * sinAlpha * (sigma + C * sinSigma * (cos2SigmaM + C * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+			} while (Math.abs(lambda - lambdaP) > 1e-12 && --iterations > 0);
+
+			if (iterations == 0)
+				return HAVERSINE.distanceKm(lat1, lon1, lat2, lon2);
+
+			final double uSq = cosSqAlpha * (WGS84_A * WGS84_A - WGS84_B * WGS84_B) / (WGS84_B * WGS84_B);
+			final double A = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+			final double B = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+			final double deltaSigma = B
+					* sinSigma
+					* (cos2SigmaM + B / 4
+							* (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM) - B / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+			return WGS84_B * A * (sigma - deltaSigma) / 1000;
+		}
+	};
+
+	/**
+	 * WGS84 semi-major axis in meters
+	 */
+	private static final double WGS84_A = 6378137.0;
+
+	/**
+	 * WGS84 semi-minor axis in meters
+	 */
+	private static final double WGS84_B = 6356752.314245;
+
+	/**
+	 * WGS84 flattening
+	 */
+	private static final double WGS84_F = 1 / 298.257223563;
+
+	private static final int VINCENTY_MAX_ITERATIONS = 200;
+
+	/**
+	 * computes the distance between lat1/lon1 and lat2/lon2 using this method
+	 * 
+	 * @param lat1
+	 *            source lat
+	 * @param lon1
+	 *            source lon
+	 * @param lat2
+	 *            destination lat
+	 * @param lon2
+	 *            destination lon
+	 * @return the distance in KM
+	 * @author ricky barrette
+	 */
+	public abstract double distanceKm(double lat1, double lon1, double lat2, double lon2);
+}
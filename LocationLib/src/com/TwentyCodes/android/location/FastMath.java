@@ -0,0 +1,220 @@
+/**
+ * FastMath.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+/**
+ * This class contains table driven trig functions, and versions of the
+ * GeoUtils computations built on them, for hot loops where Math.sin(),
+ * Math.cos(), Math.atan2() and friends dominate. Use these directly from a
+ * call site, or call {@link GeoUtils#setFastMathEnabled(boolean)} to have
+ * GeoUtils' scalar methods use them everywhere.
+ * 
+ * sin and cos look up the nearest of 4096 table entries and correct for the
+ * remainder with the angle addition formulas, so they are within 1E-15 of
+ * Math.sin() and Math.cos() for angles under 2 pi, with the error growing
+ * with the size of the angle like any range reduction. atan2, asin and acos
+ * do the same with a 1024 entry atan table, and are within 1E-15 radians of
+ * their Math counterparts.
+ * 
+ * The geo computations use the same formulas as GeoUtils, except that acos
+ * and asin clamp their arguments rather than return NaN. bearing() and
+ * distanceFrom() along a bearing match GeoUtils to within 1E-8 degrees.
+ * distanceKm() and distanceFrom() along a latitude arc go through acos, which
+ * amplifies the last bits of its argument near 1 in both versions, so they
+ * only match to within 1 cm and 1E-5 degrees. Use
+ * {@link DistanceMethod#HAVERSINE} if short distances matter.
+ * 
+ * @author ricky barrette
+ */
+public final class FastMath {
+
+	private static final int SIN_SIZE = 4096;
+	private static final int SIN_MASK = SIN_SIZE - 1;
+	private static final int COS_OFFSET = SIN_SIZE / 4;
+	private static final double SIN_SCALE = SIN_SIZE / (2 * Math.PI);
+	private static final double SIN_STEP = 2 * Math.PI / SIN_SIZE;
+	private static final double[] SIN_TABLE = new double[SIN_SIZE];
+
+	private static final int ATAN_SIZE = 1024;
+	private static final double[] ATAN_TABLE = new double[ATAN_SIZE + 1];
+
+	private static final double HALF_PI = Math.PI / 2;
+
+	static {
+		for (int i = 0; i < SIN_SIZE; i++)
+			SIN_TABLE[i] = Math.sin(i * SIN_STEP);
+		for (int i = 0; i <= ATAN_SIZE; i++)
+			ATAN_TABLE[i] = Math.atan((double) i / ATAN_SIZE);
+	}
+
+	/**
+	 * @param x
+	 *            -1 to 1. Unlike Math.acos(), which returns NaN, values past
+	 *            either end are clamped to it, so the rounding errors of
+	 *            distanceKm() and distanceFrom() don't turn into NaN.
+	 * @return the arc cosine of x in radians, 0 to pi
+	 * @author ricky barrette
+	 */
+	public static double acos(final double x) {
+		if (x >= 1)
+			return 0;
+		if (x <= -1)
+			return Math.PI;
+		return atan2(Math.sqrt((1 - x) * (1 + x)), x);
+	}
+
+	/**
+	 * @param x
+	 *            -1 to 1. Unlike Math.asin(), which returns NaN, values past
+	 *            either end are clamped to it.
+	 * @return the arc sine of x in radians, -pi/2 to pi/2
+	 * @author ricky barrette
+	 */
+	public static double asin(final double x) {
+		if (x >= 1)
+			return HALF_PI;
+		if (x <= -1)
+			return -HALF_PI;
+		return atan2(x, Math.sqrt((1 - x) * (1 + x)));
+	}
+
+	/**
+	 * @param t
+	 *            0 to 1
+	 * @return the arc tangent of t
+	 * @author ricky barrette
+	 */
+	private static double atan(final double t) {
+		final int index = (int) (t * ATAN_SIZE + 0.5);
+		final double ti = (double) index / ATAN_SIZE;
+		/*
+		 * atan(t) = atan(ti) + atan(r), where r is under 1/2048 so the
+		 * series converges after three terms
+		 */
+		final double r = (t - ti) / (1 + t * ti);
+		final double r2 = r * r;
+		return ATAN_TABLE[index] + r * (1 - r2 * (1.0 / 3 - r2 * (1.0 / 5)));
+	}
+
+	/**
+	 * @param y
+	 * @param x
+	 * @return the angle of the point x/y from the x axis in radians, -pi to pi
+	 * @author ricky barrette
+	 */
+	public static double atan2(final double y, final double x) {
+		final double ax = Math.abs(x);
+		final double ay = Math.abs(y);
+		if (ax == 0 && ay == 0)
+			return 0;
+
+		// reduce to an angle between 0 and 45 degrees
+		double angle = ax >= ay ? atan(ay / ax) : HALF_PI - atan(ax / ay);
+		if (x < 0)
+			angle = Math.PI - angle;
+		return y < 0 ? -angle : angle;
+	}
+
+	/**
+	 * @see GeoUtils#bearing(double, double, double, double)
+	 * @author ricky barrette
+	 */
+	public static double bearing(final double lat1, final double lon1, final double lat2, final double lon2) {
+		final double lat1Rad = Math.toRadians(lat1);
+		final double lat2Rad = Math.toRadians(lat2);
+		final double deltaLonRad = Math.toRadians(lon2 - lon1);
+		final double cosLat2 = cos(lat2Rad);
+		final double y = sin(deltaLonRad) * cosLat2;
+		final double x = cos(lat1Rad) * sin(lat2Rad) - sin(lat1Rad) * cosLat2 * cos(deltaLonRad);
+		return GeoUtils.radToBearing(atan2(y, x));
+	}
+
+	/**
+	 * @param x
+	 *            in radians
+	 * @return the cosine of x
+	 * @author ricky barrette
+	 */
+	public static double cos(final double x) {
+		final long index = Math.round(x * SIN_SCALE);
+		final double r = x - index * SIN_STEP;
+		final double r2 = r * r;
+		// cos(a + r) = cos(a)cos(r) - sin(a)sin(r)
+		return SIN_TABLE[(int) (index + COS_OFFSET & SIN_MASK)] * (1 - r2 * (0.5 - r2 * (1.0 / 24))) - SIN_TABLE[(int) (index & SIN_MASK)] * r
+				* (1 - r2 * (1.0 / 6 - r2 * (1.0 / 120)));
+	}
+
+	/**
+	 * @see GeoUtils#distanceFrom(double, double, double)
+	 * @author ricky barrette
+	 */
+	public static double distanceFrom(final double lat, final double lon, final double distance) {
+		final double lat1Rad = Math.toRadians(lat);
+		final double cosLat = cos(lat1Rad);
+		final double sinLat = sin(lat1Rad);
+		// cos(d)sec^2(lat) - tan^2(lat)
+		return lon + Math.toDegrees(acos((cos(distance / 1000 / GeoUtils.EARTH_RADIUS_KM) - sinLat * sinLat) / (cosLat * cosLat)));
+	}
+
+	/**
+	 * @see GeoUtils#distanceFrom(double, double, double, float, double[])
+	 * @author ricky barrette
+	 */
+	public static double[] distanceFrom(final double lat, final double lon, final double distance, final float bearing, final double[] out) {
+		final double dist = distance / GeoUtils.EARTH_RADIUS_KM;
+		final double brng = Math.toRadians(bearing);
+		final double lat1 = Math.toRadians(lat);
+		final double sinLat1 = sin(lat1);
+		final double cosLat1 = cos(lat1);
+		final double sinDist = sin(dist);
+		final double cosDist = cos(dist);
+
+		final double lat2 = asin(sinLat1 * cosDist + cosLat1 * sinDist * cos(brng));
+		out[0] = Math.toDegrees(lat2);
+		out[1] = lon + Math.toDegrees(atan2(sin(brng) * sinDist * cosLat1, cosDist - sinLat1 * sin(lat2)));
+		return out;
+	}
+
+	/**
+	 * @see GeoUtils#distanceKm(double, double, double, double)
+	 * @author ricky barrette
+	 */
+	public static double distanceKm(final double lat1, final double lon1, final double lat2, final double lon2) {
+		final double lat1Rad = Math.toRadians(lat1);
+		final double lat2Rad = Math.toRadians(lat2);
+		final double deltaLonRad = Math.toRadians(lon2 - lon1);
+		return acos(sin(lat1Rad) * sin(lat2Rad) + cos(lat1Rad) * cos(lat2Rad) * cos(deltaLonRad)) * GeoUtils.EARTH_RADIUS_KM;
+	}
+
+	/**
+	 * @param x
+	 *            in radians
+	 * @return the sine of x
+	 * @author ricky barrette
+	 */
+	public static double sin(final double x) {
+		final long index = Math.round(x * SIN_SCALE);
+		final double r = x - index * SIN_STEP;
+		final double r2 = r * r;
+		// sin(a + r) = sin(a)cos(r) + cos(a)sin(r)
+		return SIN_TABLE[(int) (index & SIN_MASK)] * (1 - r2 * (0.5 - r2 * (1.0 / 24))) + SIN_TABLE[(int) (index + COS_OFFSET & SIN_MASK)] * r
+				* (1 - r2 * (1.0 / 6 - r2 * (1.0 / 120)));
+	}
+}
@@ -0,0 +1,354 @@
+/**
+ * GeoBounds.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import com.google.android.gms.maps.model.LatLng;
+
+/**
+ * A lat/lon bounding box, ie the visible region of a map, kept as primitives
+ * so it can be tested against cheaply and reused between frames. If west is
+ * greater than east, the box crosses the anti-meridian.
+ * 
+ * Longitudes -180 and 180 are the same meridian. West edges are kept in
+ * [-180, 180) and east edges in (-180, 180], so a box that ends at the
+ * anti-meridian keeps 180 as its east edge, and a point on the anti-meridian
+ * is inside of any box that touches it, whichever way it is given.
+ * 
+ * This class is mutable, and not thread safe.
+ * 
+ * @author ricky barrette
+ */
+public class GeoBounds {
+
+	private double mSouth;
+	private double mWest;
+	private double mNorth;
+	private double mEast;
+	private boolean isEmpty;
+
+	/**
+	 * Creates a new empty GeoBounds. The first point included will become its
+	 * bounds
+	 * 
+	 * @author ricky barrette
+	 */
+	public GeoBounds() {
+		isEmpty = true;
+	}
+
+	/**
+	 * Creates a new GeoBounds
+	 * 
+	 * @param south
+	 * @param west
+	 * @param north
+	 * @param east
+	 *            if less than west, the box crosses the anti-meridian
+	 * @author ricky barrette
+	 */
+	public GeoBounds(final double south, final double west, final double north, final double east) {
+		set(south, west, north, east);
+	}
+
+	/**
+	 * @param lon
+	 * @return lon wrapped into [-180, 180)
+	 * @author ricky barrette
+	 */
+	private static double wrap(final double lon) {
+		if (lon >= -180 && lon < 180)
+			return lon;
+		return ((lon + 180) % 360 + 360) % 360 - 180;
+	}
+
+	/**
+	 * @param lat
+	 * @param lon
+	 * @return true if lat/lon is inside of this box
+	 * @author ricky barrette
+	 */
+	public boolean contains(final double lat, final double lon) {
+		if (isEmpty || lat < mSouth || lat > mNorth)
+			return false;
+		return containsLon(wrap(lon));
+	}
+
+	/**
+	 * @param point
+	 * @return true if point is inside of this box
+	 * @author ricky barrette
+	 */
+	public boolean contains(final LatLng point) {
+		return point != null && contains(point.latitude, point.longitude);
+	}
+
+	/**
+	 * Tests each lats[i]/lngs[i] against this box
+	 * 
+	 * @param lats
+	 * @param lngs
+	 * @param count
+	 *            number of points to test
+	 * @param out
+	 *            array of at least count to receive the indexes of the points
+	 *            inside of this box, in order
+	 * @return the number of points inside of this box
+	 * @author ricky barrette
+	 */
+	public int contains(final double[] lats, final double[] lngs, final int count, final int[] out) {
+		int found = 0;
+		if (isEmpty)
+			return found;
+		for (int i = 0; i < count; i++)
+			if (contains(lats[i], lngs[i]))
+				out[found++] = i;
+		return found;
+	}
+
+	/**
+	 * @param lon
+	 *            wrapped into [-180, 180)
+	 * @return true if lon is between west and east
+	 * @author ricky barrette
+	 */
+	private boolean containsLon(final double lon) {
+		if (mWest <= mEast)
+			// -180 is also the east edge 180
+			return lon >= mWest && lon <= mEast || lon == -180 && mEast == 180;
+		return lon >= mWest || lon <= mEast;
+	}
+
+	/**
+	 * Grows this box by a margin on every side, ie so things just off the edge
+	 * of the screen still get drawn
+	 * 
+	 * @param degrees
+	 * @return this, for convenience
+	 * @author ricky barrette
+	 */
+	public GeoBounds expand(final double degrees) {
+		if (isEmpty)
+			return this;
+		final double width = getLongitudeSpan() + 2 * degrees;
+		mSouth = Math.max(mSouth - degrees, -90);
+		mNorth = Math.min(mNorth + degrees, 90);
+		if (width >= 360) {
+			mWest = -180;
+			mEast = 180;
+		} else {
+			mWest = wrap(mWest - degrees);
+			mEast = wrapEast(mEast + degrees);
+		}
+		return this;
+	}
+
+	/**
+	 * @return the latitude of the center of this box
+	 * @author ricky barrette
+	 */
+	public double getCenterLatitude() {
+		return (mSouth + mNorth) / 2;
+	}
+
+	/**
+	 * @return the longitude of the center of this box, taking the
+	 *         anti-meridian into account
+	 * @author ricky barrette
+	 */
+	public double getCenterLongitude() {
+		return wrap(mWest + getLongitudeSpan() / 2);
+	}
+
+	/**
+	 * @return the eastern longitude
+	 * @author ricky barrette
+	 */
+	public double getEast() {
+		return mEast;
+	}
+
+	/**
+	 * @return the latitude span of this box in degrees
+	 * @author ricky barrette
+	 */
+	public double getLatitudeSpan() {
+		return isEmpty ? 0 : mNorth - mSouth;
+	}
+
+	/**
+	 * @return the longitude span of this box in degrees, taking the
+	 *         anti-meridian into account
+	 * @author ricky barrette
+	 */
+	public double getLongitudeSpan() {
+		if (isEmpty)
+			return 0;
+		return mWest <= mEast ? mEast - mWest : mEast - mWest + 360;
+	}
+
+	/**
+	 * @return the northern latitude
+	 * @author ricky barrette
+	 */
+	public double getNorth() {
+		return mNorth;
+	}
+
+	/**
+	 * @return the southern latitude
+	 * @author ricky barrette
+	 */
+	public double getSouth() {
+		return mSouth;
+	}
+
+	/**
+	 * @return the western longitude
+	 * @author ricky barrette
+	 */
+	public double getWest() {
+		return mWest;
+	}
+
+	/**
+	 * Grows this box just enough to include lat/lon. Like the maps API's
+	 * LatLngBounds, it grows east or west, whichever is shorter.
+	 * 
+	 * @param lat
+	 * @param lon
+	 * @return this, for convenience
+	 * @author ricky barrette
+	 */
+	public GeoBounds include(final double lat, double lon) {
+		lon = wrap(lon);
+		if (isEmpty) {
+			set(lat, lon, lat, lon);
+			return this;
+		}
+		if (lat < mSouth)
+			mSouth = lat;
+		else if (lat > mNorth)
+			mNorth = lat;
+
+		if (!containsLon(lon)) {
+			// distance to grow west or east to reach lon
+			final double west = ((mWest - lon) % 360 + 360) % 360;
+			final double east = ((lon - mEast) % 360 + 360) % 360;
+			if (west < east)
+				mWest = lon;
+			else
+				mEast = lon == -180 ? 180 : lon;
+		}
+		return this;
+	}
+
+	/**
+	 * @param point
+	 * @return this, for convenience
+	 * @author ricky barrette
+	 */
+	public GeoBounds include(final LatLng point) {
+		return include(point.latitude, point.longitude);
+	}
+
+	/**
+	 * @param other
+	 * @return true if this box and other share any area
+	 * @author ricky barrette
+	 */
+	public boolean intersects(final GeoBounds other) {
+		if (isEmpty || other.isEmpty)
+			return false;
+		if (other.mNorth < mSouth || other.mSouth > mNorth)
+			return false;
+		/*
+		 * two lon ranges overlap if either contains the start of the other
+		 */
+		return containsLon(other.mWest) || other.containsLon(mWest);
+	}
+
+	/**
+	 * @return true if nothing has been included in this box yet
+	 * @author ricky barrette
+	 */
+	public boolean isEmpty() {
+		return isEmpty;
+	}
+
+	/**
+	 * Sets the bounds of this box
+	 * 
+	 * @param south
+	 * @param west
+	 * @param north
+	 * @param east
+	 *            if less than west, the box crosses the anti-meridian
+	 * @return this, for convenience
+	 * @author ricky barrette
+	 */
+	public GeoBounds set(final double south, final double west, final double north, final double east) {
+		mSouth = Math.max(Math.min(south, north), -90);
+		mNorth = Math.min(Math.max(south, north), 90);
+		if (east - west >= 360) {
+			mWest = -180;
+			mEast = 180;
+		} else {
+			mWest = wrap(west);
+			// unless the box is only the anti-meridian itself
+			mEast = east == west ? mWest : wrapEast(east);
+		}
+		isEmpty = false;
+		return this;
+	}
+
+	/**
+	 * Sets this box from a center and span, ie from a map's center and its
+	 * lat/lon spans
+	 * 
+	 * @param lat
+	 *            center lat
+	 * @param lon
+	 *            center lon
+	 * @param latSpan
+	 *            in degrees
+	 * @param lonSpan
+	 *            in degrees
+	 * @return this, for convenience
+	 * @author ricky barrette
+	 */
+	public GeoBounds setCenter(final double lat, final double lon, final double latSpan, final double lonSpan) {
+		return set(lat - latSpan / 2, lon - lonSpan / 2, lat + latSpan / 2, lon + lonSpan / 2);
+	}
+
+	/**
+	 * @param lon
+	 * @return lon wrapped into (-180, 180], for east edges
+	 * @author ricky barrette
+	 */
+	private static double wrapEast(final double lon) {
+		final double wrapped = wrap(lon);
+		return wrapped == -180 ? 180 : wrapped;
+	}
+
+	@Override
+	public String toString() {
+		return isEmpty ? "GeoBounds[empty]" : "GeoBounds[" + mSouth + ", " + mWest + ", " + mNorth + ", " + mEast + "]";
+	}
+}
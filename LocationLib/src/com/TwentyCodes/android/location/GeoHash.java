@@ -0,0 +1,310 @@
+/**
+ * GeoHash.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+/**
+ * This class contains tools for encoding points as geohashes. A geohash is
+ * kept as a long holding 5 bits per character, so hashes can be used as map
+ * keys, sorted, and compared without building Strings. Hashes that share a
+ * prefix are near each other.
+ * 
+ * @author ricky barrette
+ */
+public class GeoHash {
+
+	/**
+	 * The maximum number of characters a geohash held in a long can have
+	 */
+	public static final int MAX_PRECISION = 12;
+
+	private static final char[] BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz".toCharArray();
+
+	private static final int[] DECODE = new int[128];
+
+	static {
+		for (int i = 0; i < DECODE.length; i++)
+			DECODE[i] = -1;
+		for (int i = 0; i < BASE32.length; i++)
+			DECODE[BASE32[i]] = i;
+	}
+
+	/**
+	 * Appends the characters of a geohash to the provided StringBuilder
+	 * 
+	 * @param hash
+	 * @param precision
+	 *            number of characters
+	 * @param sb
+	 * @return sb, for convenience
+	 * @author ricky barrette
+	 */
+	public static StringBuilder append(final long hash, final int precision, final StringBuilder sb) {
+		checkPrecision(precision);
+		for (int i = precision - 1; i >= 0; i--)
+			sb.append(BASE32[(int) (hash >>> i * 5) & 0x1f]);
+		return sb;
+	}
+
+	/**
+	 * @param precision
+	 * @throws IllegalArgumentException
+	 *             if precision is not between 1 and MAX_PRECISION
+	 * @author ricky barrette
+	 */
+	private static void checkPrecision(final int precision) {
+		if (precision < 1 || precision > MAX_PRECISION)
+			throw new IllegalArgumentException("precision must be between 1 and " + MAX_PRECISION);
+	}
+
+	/**
+	 * Computes the geohashes of a given precision that cover a bounding box.
+	 * If minLon is greater than maxLon, the box is taken to cross the
+	 * anti-meridian.
+	 * 
+	 * @param minLat
+	 * @param minLon
+	 * @param maxLat
+	 * @param maxLon
+	 * @param precision
+	 *            number of characters
+	 * @return the hashes covering the box, ordered by lat then lon
+	 * @author ricky barrette
+	 */
+	public static long[] cover(final double minLat, final double minLon, final double maxLat, final double maxLon, final int precision) {
+		checkPrecision(precision);
+		final int bits = precision * 5;
+		final int latBits = bits / 2;
+		final int lonBits = bits - latBits;
+		final long lonCells = 1L << lonBits;
+
+		final long y0 = index(minLat, -90, 180, latBits);
+		final long y1 = index(maxLat, -90, 180, latBits);
+		final long x0 = index(minLon, -180, 360, lonBits);
+		long x1 = index(maxLon, -180, 360, lonBits);
+		if (minLon > maxLon)
+			x1 += lonCells;
+
+		final long count = (y1 - y0 + 1) * (x1 - x0 + 1);
+		if (count > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("too many cells, use a lower precision");
+
+		final long[] out = new long[(int) count];
+		int i = 0;
+		for (long y = y0; y <= y1; y++)
+			for (long x = x0; x <= x1; x++)
+				out[i++] = interleave(x % lonCells, y, bits);
+		return out;
+	}
+
+	/**
+	 * Decodes a geohash into the bounding box of its cell
+	 * 
+	 * @param hash
+	 * @param precision
+	 *            number of characters
+	 * @param out
+	 *            array of at least 4 to receive {minLat, minLon, maxLat,
+	 *            maxLon}
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static double[] decode(final long hash, final int precision, final double[] out) {
+		checkPrecision(precision);
+		final int bits = precision * 5;
+		final int latBits = bits / 2;
+		final int lonBits = bits - latBits;
+		final double latSize = 180.0 / (1L << latBits);
+		final double lonSize = 360.0 / (1L << lonBits);
+		final long x = deinterleave(hash, bits, true);
+		final long y = deinterleave(hash, bits, false);
+		out[0] = -90 + y * latSize;
+		out[1] = -180 + x * lonSize;
+		out[2] = out[0] + latSize;
+		out[3] = out[1] + lonSize;
+		return out;
+	}
+
+	/**
+	 * Extracts the longitude (even) or latitude (odd) bits of a geohash,
+	 * counting from the most significant bit
+	 * 
+	 * @param hash
+	 * @param bits
+	 *            total number of bits in the hash
+	 * @param lon
+	 *            true for the longitude bits, false for the latitude bits
+	 * @return the cell index along that axis
+	 * @author ricky barrette
+	 */
+	private static long deinterleave(final long hash, final int bits, final boolean lon) {
+		long index = 0;
+		for (int i = lon ? 0 : 1; i < bits; i += 2)
+			index = index << 1 | (hash >>> bits - 1 - i) & 1;
+		return index;
+	}
+
+	/**
+	 * Encodes a point as a geohash
+	 * 
+	 * @param lat
+	 * @param lon
+	 * @param precision
+	 *            number of characters, 1 to MAX_PRECISION
+	 * @return the geohash
+	 * @author ricky barrette
+	 */
+	public static long encode(final double lat, final double lon, final int precision) {
+		checkPrecision(precision);
+		final int bits = precision * 5;
+		final int latBits = bits / 2;
+		final int lonBits = bits - latBits;
+		return interleave(index(lon, -180, 360, lonBits), index(lat, -90, 180, latBits), bits);
+	}
+
+	/**
+	 * Parses a geohash String, ie "dr5ru"
+	 * 
+	 * @param geohash
+	 * @return the geohash, its precision is geohash.length()
+	 * @throws IllegalArgumentException
+	 *             if geohash contains an invalid character or is too long
+	 * @author ricky barrette
+	 */
+	public static long fromString(final CharSequence geohash) {
+		checkPrecision(geohash.length());
+		long hash = 0;
+		for (int i = 0; i < geohash.length(); i++) {
+			final char c = Character.toLowerCase(geohash.charAt(i));
+			final int value = c < DECODE.length ? DECODE[c] : -1;
+			if (value < 0)
+				throw new IllegalArgumentException("invalid geohash character: " + c);
+			hash = hash << 5 | value;
+		}
+		return hash;
+	}
+
+	/**
+	 * @param value
+	 *            lat or lon
+	 * @param min
+	 *            smallest value of the axis
+	 * @param range
+	 *            size of the axis
+	 * @param bits
+	 *            number of bits for the axis
+	 * @return the index of the cell containing value along its axis
+	 * @author ricky barrette
+	 */
+	private static long index(final double value, final double min, final double range, final int bits) {
+		final long cells = 1L << bits;
+		final long index = (long) Math.floor((value - min) / range * cells);
+		if (index < 0)
+			return 0;
+		return index >= cells ? cells - 1 : index;
+	}
+
+	/**
+	 * Interleaves the lon and lat cell indexes, lon first
+	 * 
+	 * @param x
+	 *            lon index
+	 * @param y
+	 *            lat index
+	 * @param bits
+	 *            total number of bits in the hash
+	 * @return the geohash
+	 * @author ricky barrette
+	 */
+	private static long interleave(final long x, final long y, final int bits) {
+		final int latBits = bits / 2;
+		final int lonBits = bits - latBits;
+		long hash = 0;
+		for (int i = 0; i < bits; i++)
+			if ((i & 1) == 0)
+				hash = hash << 1 | (x >>> lonBits - 1 - i / 2) & 1;
+			else
+				hash = hash << 1 | (y >>> latBits - 1 - i / 2) & 1;
+		return hash;
+	}
+
+	/**
+	 * Finds the geohash of a neighbouring cell, wrapping around the
+	 * anti-meridian
+	 * 
+	 * @param hash
+	 * @param precision
+	 *            number of characters
+	 * @param dLat
+	 *            number of cells north (positive) or south (negative)
+	 * @param dLon
+	 *            number of cells east (positive) or west (negative)
+	 * @return the neighbouring geohash, or -1 if it would be past a pole
+	 * @author ricky barrette
+	 */
+	public static long neighbor(final long hash, final int precision, final int dLat, final int dLon) {
+		checkPrecision(precision);
+		final int bits = precision * 5;
+		final int latBits = bits / 2;
+		final int lonBits = bits - latBits;
+		final long lonCells = 1L << lonBits;
+		final long y = deinterleave(hash, bits, false) + dLat;
+		if (y < 0 || y >= 1L << latBits)
+			return -1;
+		long x = (deinterleave(hash, bits, true) + dLon) % lonCells;
+		if (x < 0)
+			x += lonCells;
+		return interleave(x, y, bits);
+	}
+
+	/**
+	 * Finds the 8 geohashes surrounding a cell
+	 * 
+	 * @param hash
+	 * @param precision
+	 *            number of characters
+	 * @param out
+	 *            array of at least 8 to receive the neighbours N, NE, E, SE,
+	 *            S, SW, W, NW. Neighbours past a pole are -1
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static long[] neighbors(final long hash, final int precision, final long[] out) {
+		out[0] = neighbor(hash, precision, 1, 0);
+		out[1] = neighbor(hash, precision, 1, 1);
+		out[2] = neighbor(hash, precision, 0, 1);
+		out[3] = neighbor(hash, precision, -1, 1);
+		out[4] = neighbor(hash, precision, -1, 0);
+		out[5] = neighbor(hash, precision, -1, -1);
+		out[6] = neighbor(hash, precision, 0, -1);
+		out[7] = neighbor(hash, precision, 1, -1);
+		return out;
+	}
+
+	/**
+	 * @param hash
+	 * @param precision
+	 *            number of characters
+	 * @return the geohash as a String, ie "dr5ru"
+	 * @author ricky barrette
+	 */
+	public static String toString(final long hash, final int precision) {
+		return append(hash, precision, new StringBuilder(precision)).toString();
+	}
+}
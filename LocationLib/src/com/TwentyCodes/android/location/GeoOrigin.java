@@ -0,0 +1,229 @@
+/**
+ * GeoOrigin.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import com.google.android.gms.maps.model.LatLng;
+
+/**
+ * This imutable class holds a source point along with the trig terms
+ * GeoUtils would otherwise recompute on every call. Create one per fix and
+ * compare it against as many destinations as needed.
+ * 
+ * @author ricky barrette
+ */
+public final class GeoOrigin {
+
+	private final double mLat;
+	private final double mLon;
+	private final double mSinLat;
+	private final double mCosLat;
+
+	/**
+	 * Creates a new GeoOrigin
+	 * 
+	 * @param lat
+	 *            source lat
+	 * @param lon
+	 *            source lon
+	 * @author ricky barrette
+	 */
+	public GeoOrigin(final double lat, final double lon) {
+		mLat = lat;
+		mLon = lon;
+		final double latRad = Math.toRadians(lat);
+		mSinLat = Math.sin(latRad);
+		mCosLat = Math.cos(latRad);
+	}
+
+	/**
+	 * Creates a new GeoOrigin
+	 * 
+	 * @param point
+	 *            source LatLng
+	 * @author ricky barrette
+	 */
+	public GeoOrigin(final LatLng point) {
+		this(point.latitude, point.longitude);
+	}
+
+	/**
+	 * computes the bearing of lat/lon in relationship from this origin in
+	 * degrees East of true north
+	 * 
+	 * @param lat
+	 *            destination lat
+	 * @param lon
+	 *            destination lon
+	 * @return the bearing of lat/lon in relationship from this origin
+	 * @author ricky barrette
+	 */
+	public double bearing(final double lat, final double lon) {
+		final double lat2Rad = Math.toRadians(lat);
+		final double deltaLonRad = Math.toRadians(lon - mLon);
+		final double cosLat2 = Math.cos(lat2Rad);
+		final double y = Math.sin(deltaLonRad) * cosLat2;
+		final double x = mCosLat * Math.sin(lat2Rad) - mSinLat * cosLat2 * Math.cos(deltaLonRad);
+		return GeoUtils.radToBearing(Math.atan2(y, x));
+	}
+
+	/**
+	 * computes the bearing of point in relationship from this origin in
+	 * degrees East of true north
+	 * 
+	 * @param point
+	 *            destination LatLng
+	 * @return the bearing of point in relationship from this origin
+	 * @author ricky barrette
+	 */
+	public double bearing(final LatLng point) {
+		return bearing(point.latitude, point.longitude);
+	}
+
+	/**
+	 * computes the bearings of each lats[i]/lngs[i] in relationship from this
+	 * origin
+	 * 
+	 * @param lats
+	 *            destination lats
+	 * @param lngs
+	 *            destination lons
+	 * @param out
+	 *            array to receive the bearings
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public double[] bearings(final double[] lats, final double[] lngs, final double[] out) {
+		GeoUtils.checkBatch(lats, lngs, out);
+		for (int i = 0; i < lats.length; i++)
+			out[i] = bearing(lats[i], lngs[i]);
+		return out;
+	}
+
+	/**
+	 * Calculates the bearing from this origin to the destination, or returns
+	 * the bearing for north if there is no destination.
+	 * 
+	 * @see GeoUtils#calculateBearing(LatLng, LatLng, float)
+	 * @param dest
+	 *            location
+	 * @param bearing
+	 *            Degrees East from compass
+	 * @return Degrees East of dest location
+	 * @author ricky barrette
+	 */
+	public float calculateBearing(final LatLng dest, float bearing) {
+		if (dest == null)
+			return bearing;
+
+		final float heading = (float) bearing(dest);
+
+		bearing = 360 - heading + bearing;
+
+		if (bearing > 360)
+			return bearing - 360;
+
+		return bearing;
+	}
+
+	/**
+	 * computes the distance between this origin and lat/lon based on the curve
+	 * of the earth
+	 * 
+	 * @param lat
+	 *            destination lat
+	 * @param lon
+	 *            destination lon
+	 * @return the distance in KM
+	 * @author ricky barrette
+	 */
+	public double distanceKm(final double lat, final double lon) {
+		final double lat2Rad = Math.toRadians(lat);
+		final double deltaLonRad = Math.toRadians(lon - mLon);
+		return Math.acos(mSinLat * Math.sin(lat2Rad) + mCosLat * Math.cos(lat2Rad) * Math.cos(deltaLonRad)) * GeoUtils.EARTH_RADIUS_KM;
+	}
+
+	/**
+	 * computes the distance between this origin and point based on the curve
+	 * of the earth
+	 * 
+	 * @param point
+	 * @return the distance in KM, or -1 if point is null
+	 * @author ricky barrette
+	 */
+	public double distanceKm(final LatLng point) {
+		if (point == null)
+			return -1;
+		return distanceKm(point.latitude, point.longitude);
+	}
+
+	/**
+	 * computes the distances between this origin and each lats[i]/lngs[i]
+	 * 
+	 * @param lats
+	 *            destination lats
+	 * @param lngs
+	 *            destination lons
+	 * @param out
+	 *            array to receive the distances in KM
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public double[] distancesKm(final double[] lats, final double[] lngs, final double[] out) {
+		GeoUtils.checkBatch(lats, lngs, out);
+		for (int i = 0; i < lats.length; i++)
+			out[i] = distanceKm(lats[i], lngs[i]);
+		return out;
+	}
+
+	/**
+	 * @return the latitude of this origin
+	 * @author ricky barrette
+	 */
+	public double getLatitude() {
+		return mLat;
+	}
+
+	/**
+	 * @return the longitude of this origin
+	 * @author ricky barrette
+	 */
+	public double getLongitude() {
+		return mLon;
+	}
+
+	/**
+	 * tests if the accuracy circle around this origin intersects a marked
+	 * location's radius
+	 * 
+	 * @see GeoUtils#isIntersecting(LatLng, float, LatLng, float, float)
+	 * @param accuracyRadius
+	 *            in KM
+	 * @param locationPoint
+	 * @param locationRadius
+	 *            in KM
+	 * @param fudgeFactor
+	 *            how many KM the circles have to intersect
+	 * @return true if the circles intersect
+	 * @author ricky barrette
+	 */
+	public boolean isIntersecting(final float accuracyRadius, final LatLng locationPoint, final float locationRadius, final float fudgeFactor) {
+		return accuracyRadius + locationRadius - fudgeFactor > distanceKm(locationPoint);
+	}
+}
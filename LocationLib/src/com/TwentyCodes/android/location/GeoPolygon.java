@@ -0,0 +1,348 @@
+/**
+ * GeoPolygon.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.util.List;
+
+import com.google.android.gms.maps.model.LatLng;
+
+/**
+ * An immutable polygonal geofence, for zones that a circle and
+ * {@link GeoUtils#isIntersecting(LatLng, float, LatLng, float, float)} can't
+ * describe.
+ * 
+ * contains() casts a ray east from the point and counts the edges it crosses.
+ * Each edge's bounding box is computed up front, so most edges are accepted or
+ * rejected with a couple of compares instead of an intersection. Polygons with
+ * many vertices also get a grid of latitude bands, each listing the edges that
+ * cross it, so a test only looks at the edges in the point's band.
+ * 
+ * Edges are straight lines in lat/lon, which is how maps draw them. The
+ * polygon may cross the anti-meridian, but must not contain a pole or span
+ * 180 degrees or more of longitude. Points exactly on an edge may test either
+ * way.
+ * 
+ * @author ricky barrette
+ */
+public class GeoPolygon {
+
+	/**
+	 * Polygons with at least this many vertices get a band grid by default
+	 */
+	public static final int GRID_THRESHOLD = 32;
+
+	private final int mCount;
+	private final double[] mLats;
+	private final double[] mLngs;
+
+	/*
+	 * edge i runs from vertex i to vertex i + 1
+	 */
+	private final double[] mEdgeMinLat;
+	private final double[] mEdgeMaxLat;
+	private final double[] mEdgeMinLon;
+	private final double[] mEdgeMaxLon;
+
+	private double mSouth;
+	private double mWest;
+	private double mNorth;
+	private double mEast;
+
+	/*
+	 * the band grid, the edges crossing band b are
+	 * mBandEdges[mBandStart[b]] to mBandEdges[mBandStart[b + 1] - 1]
+	 */
+	private final int mBands;
+	private final double mBandHeight;
+	private final int[] mBandStart;
+	private final int[] mBandEdges;
+
+	/**
+	 * Creates a new GeoPolygon, with a band grid if it has at least
+	 * {@link #GRID_THRESHOLD} vertices
+	 * 
+	 * @param lats
+	 * @param lngs
+	 *            must be the same length as lats
+	 * @author ricky barrette
+	 */
+	public GeoPolygon(final double[] lats, final double[] lngs) {
+		this(lats, lngs, lats.length >= GRID_THRESHOLD ? (int) Math.sqrt(lats.length) : 0);
+	}
+
+	/**
+	 * Creates a new GeoPolygon
+	 * 
+	 * @param lats
+	 * @param lngs
+	 *            must be the same length as lats
+	 * @param bands
+	 *            number of latitude bands in the grid, or 0 for no grid. About
+	 *            the square root of the number of vertices works well.
+	 * @author ricky barrette
+	 */
+	public GeoPolygon(final double[] lats, final double[] lngs, final int bands) {
+		if (lats.length != lngs.length)
+			throw new IllegalArgumentException("lats and lngs must be the same length");
+		if (lats.length < 3)
+			throw new IllegalArgumentException("a polygon needs at least 3 vertices");
+		if (bands < 0)
+			throw new IllegalArgumentException("bands must not be negative");
+
+		mCount = lats.length;
+		mLats = lats.clone();
+		mLngs = new double[mCount];
+		mEdgeMinLat = new double[mCount];
+		mEdgeMaxLat = new double[mCount];
+		mEdgeMinLon = new double[mCount];
+		mEdgeMaxLon = new double[mCount];
+
+		/*
+		 * unwrap the longitudes so each vertex is within 180 degrees of the
+		 * last, that way an edge crossing the anti-meridian is still a short
+		 * straight line
+		 */
+		mLngs[0] = lngs[0];
+		mSouth = mNorth = mLats[0];
+		mWest = mEast = mLngs[0];
+		for (int i = 1; i < mCount; i++) {
+			double lon = lngs[i];
+			while (lon - mLngs[i - 1] > 180)
+				lon -= 360;
+			while (lon - mLngs[i - 1] < -180)
+				lon += 360;
+			mLngs[i] = lon;
+			mSouth = Math.min(mSouth, mLats[i]);
+			mNorth = Math.max(mNorth, mLats[i]);
+			mWest = Math.min(mWest, lon);
+			mEast = Math.max(mEast, lon);
+		}
+		if (mWest < -180) {
+			for (int i = 0; i < mCount; i++)
+				mLngs[i] += 360;
+			mWest += 360;
+			mEast += 360;
+		}
+
+		for (int i = 0; i < mCount; i++) {
+			final int j = i + 1 == mCount ? 0 : i + 1;
+			mEdgeMinLat[i] = Math.min(mLats[i], mLats[j]);
+			mEdgeMaxLat[i] = Math.max(mLats[i], mLats[j]);
+			mEdgeMinLon[i] = Math.min(mLngs[i], mLngs[j]);
+			mEdgeMaxLon[i] = Math.max(mLngs[i], mLngs[j]);
+		}
+
+		mBands = bands;
+		if (bands == 0) {
+			mBandHeight = 0;
+			mBandStart = null;
+			mBandEdges = null;
+		} else {
+			mBandHeight = (mNorth - mSouth) / bands;
+			mBandStart = new int[bands + 1];
+
+			// count the edges in each band, then fill them in
+			for (int i = 0; i < mCount; i++)
+				if (mEdgeMinLat[i] != mEdgeMaxLat[i])
+					for (int b = band(mEdgeMinLat[i]), max = band(mEdgeMaxLat[i]); b <= max; b++)
+						mBandStart[b + 1]++;
+			for (int b = 0; b < bands; b++)
+				mBandStart[b + 1] += mBandStart[b];
+			mBandEdges = new int[mBandStart[bands]];
+			final int[] fill = new int[bands];
+			for (int i = 0; i < mCount; i++)
+				if (mEdgeMinLat[i] != mEdgeMaxLat[i])
+					for (int b = band(mEdgeMinLat[i]), max = band(mEdgeMaxLat[i]); b <= max; b++)
+						mBandEdges[mBandStart[b] + fill[b]++] = i;
+		}
+	}
+
+	/**
+	 * Creates a new GeoPolygon, with a band grid if it has at least
+	 * {@link #GRID_THRESHOLD} vertices
+	 * 
+	 * @param points
+	 * @author ricky barrette
+	 */
+	public GeoPolygon(final List<LatLng> points) {
+		this(lats(points), lngs(points));
+	}
+
+	/**
+	 * @param points
+	 * @return the latitudes of points
+	 * @author ricky barrette
+	 */
+	private static double[] lats(final List<LatLng> points) {
+		final double[] lats = new double[points.size()];
+		for (int i = 0; i < lats.length; i++)
+			lats[i] = points.get(i).latitude;
+		return lats;
+	}
+
+	/**
+	 * @param points
+	 * @return the longitudes of points
+	 * @author ricky barrette
+	 */
+	private static double[] lngs(final List<LatLng> points) {
+		final double[] lngs = new double[points.size()];
+		for (int i = 0; i < lngs.length; i++)
+			lngs[i] = points.get(i).longitude;
+		return lngs;
+	}
+
+	/**
+	 * @param lat
+	 *            between south and north
+	 * @return the band containing lat
+	 * @author ricky barrette
+	 */
+	private int band(final double lat) {
+		if (mBandHeight == 0)
+			return 0;
+		return Math.min((int) ((lat - mSouth) / mBandHeight), mBands - 1);
+	}
+
+	/**
+	 * Tests if a point is inside of this polygon
+	 * 
+	 * @param lat
+	 * @param lon
+	 * @return true if lat/lon is inside of this polygon
+	 * @author ricky barrette
+	 */
+	public boolean contains(final double lat, double lon) {
+		if (lat < mSouth || lat > mNorth)
+			return false;
+
+		// move lon into the polygon's unwrapped longitudes
+		lon = mWest + ((lon - mWest) % 360 + 360) % 360;
+		if (lon > mEast)
+			return false;
+
+		boolean inside = false;
+		if (mBandEdges == null) {
+			for (int i = 0; i < mCount; i++)
+				if (crosses(i, lat, lon))
+					inside = !inside;
+		} else {
+			final int band = band(lat);
+			for (int k = mBandStart[band], end = mBandStart[band + 1]; k < end; k++)
+				if (crosses(mBandEdges[k], lat, lon))
+					inside = !inside;
+		}
+		return inside;
+	}
+
+	/**
+	 * Tests if a point is inside of this polygon
+	 * 
+	 * @param point
+	 * @return true if point is inside of this polygon
+	 * @author ricky barrette
+	 */
+	public boolean contains(final LatLng point) {
+		return point != null && contains(point.latitude, point.longitude);
+	}
+
+	/**
+	 * @param edge
+	 * @param lat
+	 * @param lon
+	 * @return true if a ray cast east from lat/lon crosses the edge
+	 * @author ricky barrette
+	 */
+	private boolean crosses(final int edge, final double lat, final double lon) {
+		/*
+		 * the edge's lat range is half open, so a ray through a vertex only
+		 * counts one of the two edges meeting there
+		 */
+		if (lat < mEdgeMinLat[edge] || lat >= mEdgeMaxLat[edge])
+			return false;
+		if (lon > mEdgeMaxLon[edge])
+			return false;
+		if (lon < mEdgeMinLon[edge])
+			return true;
+
+		final int j = edge + 1 == mCount ? 0 : edge + 1;
+		final double crossLon = mLngs[edge] + (lat - mLats[edge]) * (mLngs[j] - mLngs[edge]) / (mLats[j] - mLats[edge]);
+		return lon < crossLon;
+	}
+
+	/**
+	 * @param bounds
+	 *            to receive the bounding box of this polygon
+	 * @return bounds, for convenience
+	 * @author ricky barrette
+	 */
+	public GeoBounds getBounds(final GeoBounds bounds) {
+		return bounds.set(mSouth, mWest, mNorth, mEast);
+	}
+
+	/**
+	 * @return the eastern most longitude, may be greater than 180 if the
+	 *         polygon crosses the anti-meridian
+	 * @author ricky barrette
+	 */
+	public double getEast() {
+		return mEast;
+	}
+
+	/**
+	 * @return the northern most latitude
+	 * @author ricky barrette
+	 */
+	public double getNorth() {
+		return mNorth;
+	}
+
+	/**
+	 * @return the southern most latitude
+	 * @author ricky barrette
+	 */
+	public double getSouth() {
+		return mSouth;
+	}
+
+	/**
+	 * @return the western most longitude
+	 * @author ricky barrette
+	 */
+	public double getWest() {
+		return mWest;
+	}
+
+	/**
+	 * @return true if this polygon has a band grid
+	 * @author ricky barrette
+	 */
+	public boolean isGridded() {
+		return mBandEdges != null;
+	}
+
+	/**
+	 * @return the number of vertices
+	 * @author ricky barrette
+	 */
+	public int size() {
+		return mCount;
+	}
+}
@@ -22,8 +22,8 @@
 package com.TwentyCodes.android.location;
 
 import com.google.android.gms.maps.model.LatLng;
-
-import java.text.DecimalFormat;
+import com.google.android.maps.GeoPoint;
+import com.google.android.maps.MapView;
 
 /**
  * This class contains common tools for computing common geological problems
@@ -36,6 +36,27 @@ public class GeoUtils {
 	public static final int EARTH_RADIUS_KM = 6371;
 	public static final double MILLION = 1000000;
 
+	private static final DistanceFormatter METRIC_FORMATTER = new DistanceFormatter(true);
+	private static final DistanceFormatter US_FORMATTER = new DistanceFormatter(false);
+
+	/**
+	 * Offsets of the point p and the segment ends a and b in VECTORS
+	 */
+	private static final int P = 0, A = 3, B = 6;
+
+	/**
+	 * Scratch space for the unit vectors of the cross track, along track and
+	 * closest point methods, one per thread so they allocate nothing
+	 */
+	private static final ThreadLocal<double[]> VECTORS = new ThreadLocal<double[]>() {
+		@Override
+		protected double[] initialValue() {
+			return new double[9];
+		}
+	};
+
+	private static volatile boolean isFastMathEnabled;
+
 	/**
 	 * computes the bearing of lat2/lon2 in relationship from lat1/lon1 in
 	 * degrees East
@@ -53,6 +74,8 @@ public class GeoUtils {
 	 * @author Google Inc.
 	 */
 	public static double bearing(final double lat1, final double lon1, final double lat2, final double lon2) {
+		if (isFastMathEnabled)
+			return FastMath.bearing(lat1, lon1, lat2, lon2);
 		final double lat1Rad = Math.toRadians(lat1);
 		final double lat2Rad = Math.toRadians(lat2);
 		final double deltaLonRad = Math.toRadians(lon2 - lon1);
@@ -76,6 +99,41 @@ public class GeoUtils {
 		return bearing(p1.latitude, p1.longitude, p2.latitude, p2.longitude);
 	}
 
+	/**
+	 * computes the bearings of each lats[i]/lngs[i] in relationship from
+	 * lat/lon in degrees East of true north. The trig terms of the source are
+	 * only computed once, and nothing is allocated per point.
+	 * 
+	 * @param lat
+	 *            source lat
+	 * @param lon
+	 *            source lon
+	 * @param lats
+	 *            destination lats
+	 * @param lngs
+	 *            destination lons
+	 * @param out
+	 *            array to receive the bearings, must be at least as long as
+	 *            lats
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static double[] bearings(final double lat, final double lon, final double[] lats, final double[] lngs, final double[] out) {
+		checkBatch(lats, lngs, out);
+		final double lat1Rad = Math.toRadians(lat);
+		final double sinLat1 = Math.sin(lat1Rad);
+		final double cosLat1 = Math.cos(lat1Rad);
+		for (int i = 0; i < lats.length; i++) {
+			final double lat2Rad = Math.toRadians(lats[i]);
+			final double deltaLonRad = Math.toRadians(lngs[i] - lon);
+			final double cosLat2 = Math.cos(lat2Rad);
+			final double y = Math.sin(deltaLonRad) * cosLat2;
+			final double x = cosLat1 * Math.sin(lat2Rad) - sinLat1 * cosLat2 * Math.cos(deltaLonRad);
+			out[i] = radToBearing(Math.atan2(y, x));
+		}
+		return out;
+	}
+
 	/**
 	 * Calculates the bearing from the user location to the destination
 	 * location, or returns the bearing for north if there is no destination.
@@ -118,13 +176,34 @@ public class GeoUtils {
 	 * @return LatLng that is x meters away from the LatLng supplied
 	 * @author ricky barrette
 	 */
-	public static LatLng distanceFrom(final LatLng point, double distance) {
+	public static LatLng distanceFrom(final LatLng point, final double distance) {
+		return new LatLng(point.latitude, distanceFrom(point.latitude, point.longitude, distance));
+	}
+
+	/**
+	 * Calculates the longitude of a point x meters away of lat/lon on the same
+	 * latitude arc, without allocating anything.
+	 * 
+	 * @param lat
+	 *            central lat
+	 * @param lon
+	 *            central lon
+	 * @param distance
+	 *            in meters from lat/lon
+	 * @return the longitude of the point that is x meters away, its latitude
+	 *         is lat
+	 * @author ricky barrette
+	 */
+	public static double distanceFrom(final double lat, final double lon, double distance) {
+		if (isFastMathEnabled)
+			return FastMath.distanceFrom(lat, lon, distance);
+
 		// convert meters into kilometers
 		distance = distance / 1000;
 
 		// convert lat and lon of LatLng to radians
-		final double lat1Rad = Math.toRadians(point.latitude);
-		final double lon1Rad = Math.toRadians(point.longitude);
+		final double lat1Rad = Math.toRadians(lat);
+		final double lon1Rad = Math.toRadians(lon);
 
 		/*
 		 * kilometers =
@@ -146,26 +225,132 @@ public class GeoUtils {
 		 * device, and the distanceKm() from google and has been proven to be
 		 * damn close
 		 */
-		final double lon2Rad = lon1Rad + Math.acos(Math.cos(distance / 6371) * sec(lat1Rad) * sec(lat1Rad) - Math.tan(lat1Rad) * Math.tan(lat1Rad));
+		final double sec = sec(lat1Rad);
+		final double tan = Math.tan(lat1Rad);
+		final double lon2Rad = lon1Rad + Math.acos(Math.cos(distance / 6371) * sec * sec - tan * tan);
 
-		// return a LatLng that is x meters away from the LatLng supplied
-		return new LatLng(point.latitude, Math.toDegrees(lon2Rad));
+		return Math.toDegrees(lon2Rad);
 	}
 
+	/**
+	 * Calculates a LatLng x kilometers away of the LatLng supplied along the
+	 * provided bearing
+	 * 
+	 * @param point
+	 *            central LatLng
+	 * @param distance
+	 *            in kilometers from the LatLng
+	 * @param bearing
+	 *            degrees East of true north
+	 * @return LatLng that is x kilometers away from the LatLng supplied
+	 * @author ricky barrette
+	 */
 	public static LatLng distanceFrom(final LatLng point, final double distance, final float bearing) {
+		final double[] out = distanceFrom(point.latitude, point.longitude, distance, bearing, new double[2]);
+		return new LatLng(out[0], out[1]);
+	}
+
+	/**
+	 * Calculates a point x kilometers away of lat/lon along the provided
+	 * bearing, without allocating anything.
+	 * 
+	 * @param lat
+	 *            central lat
+	 * @param lon
+	 *            central lon
+	 * @param distance
+	 *            in kilometers from lat/lon
+	 * @param bearing
+	 *            degrees East of true north
+	 * @param out
+	 *            array of at least 2 to receive {lat, lon}
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static double[] distanceFrom(final double lat, final double lon, final double distance, final float bearing, final double[] out) {
+		if (isFastMathEnabled)
+			return FastMath.distanceFrom(lat, lon, distance, bearing, out);
+
 		final double dist = distance / 6371;
 		final double brng = Math.toRadians(bearing);
 
-		final double lat1 = Math.toRadians(point.latitude);
-		final double lon1 = Math.toRadians(point.longitude);
+		final double lat1 = Math.toRadians(lat);
+		final double lon1 = Math.toRadians(lon);
 
 		final double lat2 = Math.asin(Math.sin(lat1) * Math.cos(dist) + Math.cos(lat1) * Math.sin(dist) * Math.cos(brng));
 
 		final double lon2 = lon1 + Math.atan2(Math.sin(brng) * Math.sin(dist) * Math.cos(lat1), Math.cos(dist) - Math.sin(lat1) * Math.sin(lat2));
 
-//		if (isNaN(lat2) || isNaN(lon2))
-//			return null;
-		return new LatLng(Math.toDegrees(lat2), Math.toDegrees(lon2));
+		out[0] = Math.toDegrees(lat2);
+		out[1] = Math.toDegrees(lon2);
+		return out;
+	}
+
+	/**
+	 * Calculates lats.length points evenly spaced on a circle around lat/lon,
+	 * ie a polygon of a user's accuracy circle. The first point is due north,
+	 * and they go clockwise from there. The trig terms shared by every point
+	 * are only computed once, and nothing is allocated.
+	 * 
+	 * @param lat
+	 *            central lat
+	 * @param lon
+	 *            central lon
+	 * @param radius
+	 *            in kilometers
+	 * @param lats
+	 *            array to receive the lats of the points
+	 * @param lngs
+	 *            array to receive the lons of the points, must be the same
+	 *            length as lats
+	 * @author ricky barrette
+	 */
+	public static void circle(final double lat, final double lon, final double radius, final double[] lats, final double[] lngs) {
+		checkBatch(lats, lngs, lngs);
+		final int n = lats.length;
+		if (n == 0)
+			return;
+
+		final double dist = radius / 6371;
+		final double lat1 = Math.toRadians(lat);
+		final double sinLat1 = Math.sin(lat1);
+		final double cosDist = Math.cos(dist);
+		final double sinLat1CosDist = sinLat1 * cosDist;
+		final double cosLat1SinDist = Math.cos(lat1) * Math.sin(dist);
+
+		/*
+		 * rather than computing sin and cos of every bearing, rotate the unit
+		 * vector (sinBrng, cosBrng) by the step angle each time
+		 */
+		final double step = 2 * Math.PI / n;
+		final double sinStep = Math.sin(step);
+		final double cosStep = Math.cos(step);
+		double sinBrng = 0;
+		double cosBrng = 1;
+		for (int i = 0; i < n; i++) {
+			final double sinLat2 = sinLat1CosDist + cosLat1SinDist * cosBrng;
+			lats[i] = Math.toDegrees(Math.asin(sinLat2));
+			lngs[i] = lon + Math.toDegrees(Math.atan2(sinBrng * cosLat1SinDist, cosDist - sinLat1 * sinLat2));
+
+			final double s = sinBrng * cosStep + cosBrng * sinStep;
+			cosBrng = cosBrng * cosStep - sinBrng * sinStep;
+			sinBrng = s;
+		}
+	}
+
+	/**
+	 * validates the arrays handed to the batch methods
+	 * 
+	 * @param lats
+	 * @param lngs
+	 * @param out
+	 * @author ricky barrette
+	 */
+	static void checkBatch(final double[] lats, final double[] lngs, final double[] out) {
+		if (lats == null || lngs == null || out == null)
+			throw new NullPointerException();
+		if (lngs.length != lats.length || out.length < lats.length)
+			throw new IllegalArgumentException("lats, lngs and out must be the same length");
 	}
 
 	/**
@@ -193,6 +378,8 @@ public class GeoUtils {
 	 * @author Google Inc.
 	 */
 	public static double distanceKm(final double lat1, final double lon1, final double lat2, final double lon2) {
+		if (isFastMathEnabled)
+			return FastMath.distanceKm(lat1, lon1, lat2, lon2);
 		final double lat1Rad = Math.toRadians(lat1);
 		final double lat2Rad = Math.toRadians(lat2);
 		final double deltaLonRad = Math.toRadians(lon2 - lon1);
@@ -216,6 +403,56 @@ public class GeoUtils {
 		return distanceKm(p1.latitude, p1.longitude, p2.latitude, p2.longitude);
 	}
 
+	/**
+	 * computes the distance between to p1 and p2 using the provided method
+	 * 
+	 * @param p1
+	 * @param p2
+	 * @param method
+	 *            the formula to use, trading speed for accuracy
+	 * @return the distance between to p1 and p2
+	 * @author ricky barrette
+	 */
+	public static double distanceKm(final LatLng p1, final LatLng p2, final DistanceMethod method) {
+		// if we are handed a null, return -1 so we don't break
+		if (p1 == null || p2 == null)
+			return -1;
+
+		return method.distanceKm(p1.latitude, p1.longitude, p2.latitude, p2.longitude);
+	}
+
+	/**
+	 * computes the distances between lat/lon and each lats[i]/lngs[i] based on
+	 * the curve of the earth. The trig terms of the source are only computed
+	 * once, and nothing is allocated per point.
+	 * 
+	 * @param lat
+	 *            source lat
+	 * @param lon
+	 *            source lon
+	 * @param lats
+	 *            destination lats
+	 * @param lngs
+	 *            destination lons
+	 * @param out
+	 *            array to receive the distances in KM, must be at least as
+	 *            long as lats
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static double[] distancesKm(final double lat, final double lon, final double[] lats, final double[] lngs, final double[] out) {
+		checkBatch(lats, lngs, out);
+		final double lat1Rad = Math.toRadians(lat);
+		final double sinLat1 = Math.sin(lat1Rad);
+		final double cosLat1 = Math.cos(lat1Rad);
+		for (int i = 0; i < lats.length; i++) {
+			final double lat2Rad = Math.toRadians(lats[i]);
+			final double deltaLonRad = Math.toRadians(lngs[i] - lon);
+			out[i] = Math.acos(sinLat1 * Math.sin(lat2Rad) + cosLat1 * Math.cos(lat2Rad) * Math.cos(deltaLonRad)) * EARTH_RADIUS_KM;
+		}
+		return out;
+	}
+
 	/**
 	 * Converts distance into a human readbale string
 	 * 
@@ -224,25 +461,323 @@ public class GeoUtils {
 	 * @param returnMetric
 	 *            true if metric, false for US
 	 * @return string distance
+	 * @see DistanceFormatter
 	 * @author ricky barrette
 	 */
-	public static String distanceToString(double distance, final boolean returnMetric) {
-		final DecimalFormat threeDForm = new DecimalFormat("#.###");
-		final DecimalFormat twoDForm = new DecimalFormat("#.##");
+	public static String distanceToString(final double distance, final boolean returnMetric) {
+		return (returnMetric ? METRIC_FORMATTER : US_FORMATTER).format(distance);
+	}
 
-		if (returnMetric) {
-			if (distance < 1) {
-				distance = distance * 1000;
-				return twoDForm.format(distance) + " m";
+	/**
+	 * computes how far along the great circle from lat1/lon1 towards lat2/lon2
+	 * the closest point to lat/lon is
+	 * 
+	 * @param lat
+	 *            point lat
+	 * @param lon
+	 *            point lon
+	 * @param lat1
+	 *            path start lat
+	 * @param lon1
+	 *            path start lon
+	 * @param lat2
+	 *            path end lat
+	 * @param lon2
+	 *            path end lon
+	 * @return the distance in KM from lat1/lon1, negative if the point is
+	 *         behind the start
+	 * @author ricky barrette
+	 */
+	public static double alongTrackDistance(final double lat, final double lon, final double lat1, final double lon1, final double lat2, final double lon2) {
+		final double[] v = VECTORS.get();
+		toVector(lat, lon, v, P);
+		toVector(lat1, lon1, v, A);
+		toVector(lat2, lon2, v, B);
+		final double px = v[P], py = v[P + 1], pz = v[P + 2];
+		final double ax = v[A], ay = v[A + 1], az = v[A + 2];
+		final double bx = v[B], by = v[B + 1], bz = v[B + 2];
+
+		// n is the normal of the path's great circle, t the direction of travel at the start
+		final double nx = ay * bz - az * by, ny = az * bx - ax * bz, nz = ax * by - ay * bx;
+		final double tx = ny * az - nz * ay, ty = nz * ax - nx * az, tz = nx * ay - ny * ax;
+		return Math.atan2(px * tx + py * ty + pz * tz, (px * ax + py * ay + pz * az) * Math.sqrt(nx * nx + ny * ny + nz * nz)) * EARTH_RADIUS_KM;
+	}
+
+	/**
+	 * computes the closest point to lat/lon on the segment from lat1/lon1 to
+	 * lat2/lon2, following the great circle between them, without allocating
+	 * anything
+	 * 
+	 * @param lat
+	 *            point lat
+	 * @param lon
+	 *            point lon
+	 * @param lat1
+	 *            segment start lat
+	 * @param lon1
+	 *            segment start lon
+	 * @param lat2
+	 *            segment end lat
+	 * @param lon2
+	 *            segment end lon
+	 * @param out
+	 *            optional array of at least 3 to receive {lat, lon, fraction}
+	 *            of the closest point, fraction being how far along the
+	 *            segment it is from 0 to 1, may be null
+	 * @return the distance from lat/lon to the segment in KM
+	 * @author ricky barrette
+	 */
+	public static double closestPointOnSegment(final double lat, final double lon, final double lat1, final double lon1, final double lat2, final double lon2,
+			final double[] out) {
+		final double[] v = VECTORS.get();
+		toVector(lat, lon, v, P);
+		toVector(lat1, lon1, v, A);
+		toVector(lat2, lon2, v, B);
+		return closestPointOnSegment(v, out) * EARTH_RADIUS_KM;
+	}
+
+	/**
+	 * computes the closest point to p on the segment from a to b, all unit
+	 * vectors
+	 * 
+	 * @param v
+	 *            p, a and b at P, A and B
+	 * @param out
+	 *            optional array of at least 3 to receive {lat, lon, fraction}
+	 *            of the closest point, may be null
+	 * @return the angle between p and the closest point in radians
+	 * @author ricky barrette
+	 */
+	private static double closestPointOnSegment(final double[] v, final double[] out) {
+		final double px = v[P], py = v[P + 1], pz = v[P + 2];
+		final double ax = v[A], ay = v[A + 1], az = v[A + 2];
+		final double bx = v[B], by = v[B + 1], bz = v[B + 2];
+		double nx = ay * bz - az * by, ny = az * bx - ax * bz, nz = ax * by - ay * bx;
+		final double sinLength = Math.sqrt(nx * nx + ny * ny + nz * nz);
+		final double length = Math.atan2(sinLength, ax * bx + ay * by + az * bz);
+
+		if (sinLength > 0) {
+			nx /= sinLength;
+			ny /= sinLength;
+			nz /= sinLength;
+
+			// c is p projected onto the plane of the great circle
+			final double s = px * nx + py * ny + pz * nz;
+			final double cx = px - s * nx, cy = py - s * ny, cz = pz - s * nz;
+			final double tx = ny * az - nz * ay, ty = nz * ax - nx * az, tz = nx * ay - ny * ax;
+			final double along = Math.atan2(cx * tx + cy * ty + cz * tz, cx * ax + cy * ay + cz * az);
+			if (along >= 0 && along <= length) {
+				if (out != null) {
+					out[0] = Math.toDegrees(Math.atan2(cz, Math.sqrt(cx * cx + cy * cy)));
+					out[1] = Math.toDegrees(Math.atan2(cy, cx));
+					out[2] = along / length;
+				}
+				return Math.atan2(Math.abs(s), Math.sqrt(cx * cx + cy * cy + cz * cz));
 			}
-			return threeDForm.format(distance) + " Km";
 		}
-		distance = distance / 1.609344;
-		if (distance < 1) {
-			distance = distance * 5280;
-			return twoDForm.format(distance) + " ft";
+
+		// the closest point is one of the ends
+		final double toA = angle(px, py, pz, ax, ay, az);
+		final double toB = angle(px, py, pz, bx, by, bz);
+		final boolean isA = toA <= toB;
+		if (out != null) {
+			out[0] = Math.toDegrees(Math.atan2(isA ? az : bz, isA ? Math.sqrt(ax * ax + ay * ay) : Math.sqrt(bx * bx + by * by)));
+			out[1] = Math.toDegrees(isA ? Math.atan2(ay, ax) : Math.atan2(by, bx));
+			out[2] = isA ? 0 : 1;
 		}
-		return twoDForm.format(distance) + " mi";
+		return isA ? toA : toB;
+	}
+
+	/**
+	 * @return the angle between the unit vectors u and v in radians
+	 * @author ricky barrette
+	 */
+	private static double angle(final double ux, final double uy, final double uz, final double vx, final double vy, final double vz) {
+		final double x = uy * vz - uz * vy, y = uz * vx - ux * vz, z = ux * vy - uy * vx;
+		return Math.atan2(Math.sqrt(x * x + y * y + z * z), ux * vx + uy * vy + uz * vz);
+	}
+
+	/**
+	 * finds the closest segment of a polyline to lat/lon, without allocating
+	 * anything. Segment i runs from lats[i]/lngs[i] to lats[i + 1]/lngs[i + 1].
+	 * 
+	 * @param lat
+	 *            point lat
+	 * @param lon
+	 *            point lon
+	 * @param lats
+	 *            the polyline's lats
+	 * @param lngs
+	 *            the polyline's lons
+	 * @param first
+	 *            first segment to search
+	 * @param last
+	 *            last segment to search, inclusive
+	 * @param out
+	 *            optional array of at least 4 to receive {lat, lon, fraction,
+	 *            distance} of the closest point, the distance in KM, may be
+	 *            null
+	 * @return the closest segment, or -1 if there were no segments to search
+	 * @author ricky barrette
+	 */
+	public static int closestSegment(final double lat, final double lon, final double[] lats, final double[] lngs, final int first, final int last,
+			final double[] out) {
+		checkBatch(lats, lngs, lngs);
+		if (first < 0 || last > lats.length - 2)
+			throw new IndexOutOfBoundsException("segments " + first + " to " + last + " of " + (lats.length - 1));
+
+		int best = -1;
+		double bestAngle = Double.MAX_VALUE;
+		final double[] v = VECTORS.get();
+		toVector(lat, lon, v, P);
+		toVector(lats[first], lngs[first], v, A);
+		for (int i = first; i <= last; i++) {
+			// each vertex is converted once, as the end of one segment and the start of the next
+			toVector(lats[i + 1], lngs[i + 1], v, B);
+			final double angle = closestPointOnSegment(v, null);
+			if (angle < bestAngle) {
+				bestAngle = angle;
+				best = i;
+			}
+			System.arraycopy(v, B, v, A, 3);
+		}
+
+		if (best >= 0 && out != null)
+			out[3] = closestPointOnSegment(lat, lon, lats[best], lngs[best], lats[best + 1], lngs[best + 1], out);
+		return best;
+	}
+
+	/**
+	 * computes the distance from lat/lon to the great circle through
+	 * lat1/lon1 and lat2/lon2
+	 * 
+	 * @param lat
+	 *            point lat
+	 * @param lon
+	 *            point lon
+	 * @param lat1
+	 *            path start lat
+	 * @param lon1
+	 *            path start lon
+	 * @param lat2
+	 *            path end lat
+	 * @param lon2
+	 *            path end lon
+	 * @return the distance in KM, positive if the point is to the right of
+	 *         the path, negative if it is to the left
+	 * @author ricky barrette
+	 */
+	public static double crossTrackDistance(final double lat, final double lon, final double lat1, final double lon1, final double lat2, final double lon2) {
+		final double[] v = VECTORS.get();
+		toVector(lat, lon, v, P);
+		toVector(lat1, lon1, v, A);
+		toVector(lat2, lon2, v, B);
+		return crossTrack(v) * EARTH_RADIUS_KM;
+	}
+
+	/**
+	 * @param v
+	 *            p, a and b at P, A and B
+	 * @return the signed angle between the unit vector p and the great circle
+	 *         through a and b in radians, positive to the right of a to b
+	 * @author ricky barrette
+	 */
+	private static double crossTrack(final double[] v) {
+		final double px = v[P], py = v[P + 1], pz = v[P + 2];
+		final double ax = v[A], ay = v[A + 1], az = v[A + 2];
+		final double bx = v[B], by = v[B + 1], bz = v[B + 2];
+		final double nx = ay * bz - az * by, ny = az * bx - ax * bz, nz = ax * by - ay * bx;
+		final double sinLength = Math.sqrt(nx * nx + ny * ny + nz * nz);
+		if (sinLength == 0)
+			return 0;
+		final double s = (px * nx + py * ny + pz * nz) / sinLength;
+		// the normal points to the left of the path
+		return -Math.atan2(s, Math.sqrt(Math.max(1 - s * s, 0)));
+	}
+
+	/**
+	 * computes the cross track distance from lat/lon to each segment of a
+	 * polyline, without allocating anything. Segment i runs from
+	 * lats[i]/lngs[i] to lats[i + 1]/lngs[i + 1].
+	 * 
+	 * @param lat
+	 *            point lat
+	 * @param lon
+	 *            point lon
+	 * @param lats
+	 *            the polyline's lats
+	 * @param lngs
+	 *            the polyline's lons
+	 * @param out
+	 *            array of at least lats.length - 1 to receive the signed
+	 *            distances in KM
+	 * @return out, for convenience
+	 * @see #crossTrackDistance(double, double, double, double, double, double)
+	 * @author ricky barrette
+	 */
+	public static double[] crossTrackDistances(final double lat, final double lon, final double[] lats, final double[] lngs, final double[] out) {
+		return segments(lat, lon, lats, lngs, out, true);
+	}
+
+	/**
+	 * computes the distance from lat/lon to each segment of a polyline,
+	 * without allocating anything. Segment i runs from lats[i]/lngs[i] to
+	 * lats[i + 1]/lngs[i + 1].
+	 * 
+	 * @param lat
+	 *            point lat
+	 * @param lon
+	 *            point lon
+	 * @param lats
+	 *            the polyline's lats
+	 * @param lngs
+	 *            the polyline's lons
+	 * @param out
+	 *            array of at least lats.length - 1 to receive the distances in
+	 *            KM
+	 * @return out, for convenience
+	 * @see #closestPointOnSegment(double, double, double, double, double,
+	 *      double, double[])
+	 * @author ricky barrette
+	 */
+	public static double[] distancesToSegments(final double lat, final double lon, final double[] lats, final double[] lngs, final double[] out) {
+		return segments(lat, lon, lats, lngs, out, false);
+	}
+
+	/**
+	 * the shared loop of crossTrackDistances() and distancesToSegments()
+	 * 
+	 * @param crossTrack
+	 *            true for cross track distances, false for distances to the
+	 *            segments
+	 * @author ricky barrette
+	 */
+	private static double[] segments(final double lat, final double lon, final double[] lats, final double[] lngs, final double[] out,
+			final boolean crossTrack) {
+		if (lats == null || lngs == null || out == null)
+			throw new NullPointerException();
+		if (lngs.length != lats.length || out.length < lats.length - 1)
+			throw new IllegalArgumentException("lats and lngs must be the same length, and out one shorter");
+		if (lats.length < 2)
+			return out;
+
+		final double[] v = VECTORS.get();
+		toVector(lat, lon, v, P);
+		toVector(lats[0], lngs[0], v, A);
+		for (int i = 0; i + 1 < lats.length; i++) {
+			toVector(lats[i + 1], lngs[i + 1], v, B);
+			out[i] = (crossTrack ? crossTrack(v) : closestPointOnSegment(v, null)) * EARTH_RADIUS_KM;
+			System.arraycopy(v, B, v, A, 3);
+		}
+		return out;
+	}
+
+	/**
+	 * @return true if GeoUtils is using the table driven trig of FastMath
+	 * @author ricky barrette
+	 */
+	public static boolean isFastMathEnabled() {
+		return isFastMathEnabled;
 	}
 
 	/**
@@ -271,73 +806,51 @@ public class GeoUtils {
 		return false;
 	}
 
-//	/**
-//	 * determines when the specified point is off the map
-//	 *
-//	 * @param point
-//	 * @return true is the point is off the map
-//	 * @author ricky barrette
-//	 */
-//	public static boolean isPointOffMap(final GoogleMap map, final LatLng point) {
-//
-//		VisibleRegion vr = map.getProjection().getVisibleRegion();
-//		double left = vr.latLngBounds.southwest.longitude;
-//		double top = vr.latLngBounds.northeast.latitude;
-//		double right = vr.latLngBounds.northeast.longitude;
-//		double bottom = vr.latLngBounds.southwest.latitude;
-//
-//		if (map == null)
-//			return false;
-//		if (point == null)
-//			return false;
-//		final LatLng center = map.getCameraPosition().target;
-//		final double distance = GeoUtils.distanceKm(center, point);
-//		final double distanceLat = GeoUtils.distanceKm(center, new LatLng(center.latitude + map.getLatitudeSpan() / 2, center.longitude));
-//		final double distanceLon = GeoUtils.distanceKm(center, new LatLng(center.latitude, center.longitude + map.getLongitudeSpan() / 2));
-//		if (distance > distanceLat || distance > distanceLon)
-//			return true;
-//		return false;
-//
-//		return map.getProjection().toScreenLocation()
-//	}
-//
-//	/**
-//	 * computes a LatLng the is the central LatLng between p1 and p1
-//	 *
-//	 * @param p1
-//	 *            first LatLng
-//	 * @param p2
-//	 *            second LatLng
-//	 * @return a MidPoint object
-//	 * @author ricky barrette
-//	 */
-//	public static MidPoint midpoint(final LatLng p1, final LatLng p2) {
-////		double minLatitude = +81 * 1E6;
-////		double maxLatitude = -81 * 1E6;
-////		double minLongitude = +181 * 1E6;
-////		double maxLongitude = -181 * 1E6;
-////		final List<Point> mPoints = new ArrayList<Point>();
-////		if (p1.latitude != 0 && p1.longitude != 0) {
-////			minLatitude = minLatitude > p1.latitude ? p1.latitude : minLatitude;
-////			maxLatitude = maxLatitude < p1.latitude ? p1.latitude : maxLatitude;
-////			minLongitude = minLongitude > p1.longitude ? p1.longitude : minLongitude;
-////			maxLongitude = maxLongitude < p1.longitude ? p1.longitude : maxLongitude;
-////			mPoints.add(new Point(p1.latitude, p1.longitude));
-////		}
-////
-////		if (p2.latitude != 0 && p2.longitude != 0) {
-////			minLatitude = minLatitude > p2.latitude ? p2.latitude : minLatitude;
-////			maxLatitude = maxLatitude < p2.latitude ? p2.latitude : maxLatitude;
-////			minLongitude = minLongitude > p2.longitude ? p2.longitude : minLongitude;
-////			maxLongitude = maxLongitude < p2.longitude ? p2.longitude : maxLongitude;
-////			mPoints.add(new Point(p2.latitude, p2.longitude));
-////		}
-////		return new MidPoint(new LatLng((maxLatitude + minLatitude) / 2, (maxLongitude + minLongitude) / 2), minLatitude, minLongitude, maxLatitude, maxLongitude);
-//		LatLngBounds.Builder latLngBounds = new LatLngBounds.Builder();
-//		latLngBounds.include(p1);
-//		latLngBounds.include(p2);
-//		return new MidPoint(latLngBounds.build().getCenter()
-//	}
+	/**
+	 * Sets the provided GeoBounds to the region of the map that is visible
+	 * 
+	 * @param map
+	 * @param bounds
+	 *            to be set
+	 * @return bounds, for convenience
+	 * @author ricky barrette
+	 */
+	public static GeoBounds getVisibleBounds(final MapView map, final GeoBounds bounds) {
+		final GeoPoint center = map.getMapCenter();
+		return bounds.setCenter(center.getLatitudeE6() / MILLION, center.getLongitudeE6() / MILLION, map.getLatitudeSpan() / MILLION,
+				map.getLongitudeSpan() / MILLION);
+	}
+
+	/**
+	 * determines when the specified point is off the map
+	 * 
+	 * @param map
+	 * @param point
+	 * @return true is the point is off the map
+	 * @author ricky barrette
+	 */
+	public static boolean isPointOffMap(final MapView map, final LatLng point) {
+		if (map == null)
+			return false;
+		if (point == null)
+			return false;
+		return !getVisibleBounds(map, new GeoBounds()).contains(point);
+	}
+
+	/**
+	 * computes a LatLng the is the central LatLng between p1 and p1
+	 * 
+	 * @param p1
+	 *            first LatLng
+	 * @param p2
+	 *            second LatLng
+	 * @return the center of the smallest box containing both points
+	 * @author ricky barrette
+	 */
+	public static LatLng midpoint(final LatLng p1, final LatLng p2) {
+		final GeoBounds bounds = new GeoBounds().include(p1).include(p2);
+		return new LatLng(bounds.getCenterLatitude(), bounds.getCenterLongitude());
+	}
 
 	/**
 	 * converts radians to bearing
@@ -349,4 +862,50 @@ public class GeoUtils {
 	public static double radToBearing(final double rad) {
 		return (Math.toDegrees(rad) + 360) % 360;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Switches the scalar bearing(), distanceKm() and distanceFrom() methods,
+	 * both their double and LatLng versions, over to the table driven trig of
+	 * {@link FastMath} for the whole application. That includes what is built
+	 * on them: calculateBearing(), isIntersecting() and
+	 * {@link DistanceMethod#SPHERICAL_LAW_OF_COSINES}. Call sites that only
+	 * want it in one place should call FastMath directly instead.
+	 * 
+	 * It does not affect the batch methods bearings(), distancesKm() and
+	 * circle(), which already share the trig of the source point across the
+	 * batch, the cross track, along track and closest point methods, or
+	 * {@link GeoOrigin}. These always use Math.
+	 * 
+	 * FastMath clamps acos and asin arguments that rounding pushed past 1 or
+	 * -1, where Math returns NaN. With it enabled, distanceKm() of a point to
+	 * itself is 0 rather than sometimes NaN, and distanceFrom() along a
+	 * latitude arc further than the arc reaches gives the far side of the arc
+	 * rather than NaN.
+	 * 
+	 * @param enabled
+	 * @author ricky barrette
+	 */
+	public static void setFastMathEnabled(final boolean enabled) {
+		isFastMathEnabled = enabled;
+	}
+
+	/**
+	 * converts lat/lon to a unit vector, x toward 0/0, y toward 0/90 and z
+	 * toward the north pole
+	 * 
+	 * @param lat
+	 * @param lon
+	 * @param out
+	 *            array to receive {x, y, z}
+	 * @param offset
+	 *            where in out to put x
+	 * @author ricky barrette
+	 */
+	private static void toVector(final double lat, final double lon, final double[] out, final int offset) {
+		final double latRad = Math.toRadians(lat), lonRad = Math.toRadians(lon);
+		final double cosLat = Math.cos(latRad);
+		out[offset] = cosLat * Math.cos(lonRad);
+		out[offset + 1] = cosLat * Math.sin(lonRad);
+		out[offset + 2] = Math.sin(latRad);
+	}
+}
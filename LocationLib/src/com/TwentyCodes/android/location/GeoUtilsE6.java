@@ -0,0 +1,343 @@
+/**
+ * GeoUtilsE6.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+/**
+ * This class contains integer versions of the common GeoUtils computations
+ * for code that already works in microdegrees (degrees * 1E6), ie GeoPoints,
+ * so it doesn't have to convert every point to doubles.
+ * 
+ * The distances and bearings here are approximations meant for culling,
+ * sorting and bucketing, not display. Distances use a flat earth projection
+ * at the mean latitude, with the cosine taken from a 0.1 degree table.
+ * Below 70 degrees of latitude, compared to
+ * {@link GeoUtils#distanceKm(double, double, double, double)} they are within
+ * a meter for distances under 10 Km, and within a meter or 0.1%, whichever is
+ * more, under 100 Km and a meter or 0.2% under 500 Km. They should not be
+ * used for longer distances. Bearings of points more than 100 m apart are
+ * within 0.2 degrees of
+ * {@link GeoUtils#bearing(double, double, double, double)} under 10 Km and
+ * 1.5 degrees under 100 Km; beyond that the flat earth bearing drifts from
+ * the great circle one. Closer points are only a few hundred microdegrees
+ * apart, which limits the bearing's resolution.
+ * 
+ * @author ricky barrette
+ */
+public class GeoUtilsE6 {
+
+	/**
+	 * meters per microdegree of latitude
+	 */
+	private static final double METERS_PER_E6 = Math.toRadians(1) * GeoUtils.EARTH_RADIUS_KM * 1000 / 1E6;
+
+	private static final int FULL_CIRCLE = 360000000;
+	private static final int HALF_CIRCLE = 180000000;
+
+	/**
+	 * cos of 0 to 90 degrees in 0.1 degree steps, scaled by 2^16
+	 */
+	private static final int[] COS_TABLE = new int[902];
+
+	/**
+	 * atan of 0 to 1 in 1/1024 steps, in hundredths of a degree
+	 */
+	private static final int[] ATAN_TABLE = new int[1026];
+
+	static {
+		for (int i = 0; i < COS_TABLE.length; i++)
+			COS_TABLE[i] = (int) Math.round(Math.cos(Math.toRadians(Math.min(i / 10.0, 90))) * 65536);
+		for (int i = 0; i < ATAN_TABLE.length; i++)
+			ATAN_TABLE[i] = (int) Math.round(Math.toDegrees(Math.atan(Math.min(i / 1024.0, 1))) * 100);
+	}
+
+	/**
+	 * computes the approximate bearing of lat2/lon2 in relationship from
+	 * lat1/lon1
+	 * 
+	 * @param lat1E6
+	 *            source lat
+	 * @param lon1E6
+	 *            source lon
+	 * @param lat2E6
+	 *            destination lat
+	 * @param lon2E6
+	 *            destination lon
+	 * @return the bearing in hundredths of a degree East of true north, 0 to
+	 *         35999
+	 * @author ricky barrette
+	 */
+	public static int bearing(final int lat1E6, final int lon1E6, final int lat2E6, final int lon2E6) {
+		final long x = (long) deltaLon(lon1E6, lon2E6) * cos(meanLat(lat1E6, lat2E6)) >> 16;
+		final long y = (long) lat2E6 - lat1E6;
+		final long ax = Math.abs(x);
+		final long ay = Math.abs(y);
+		if (ax == 0 && ay == 0)
+			return 0;
+
+		// angle from the nearest axis, 0 to 45 degrees
+		final int angle = ax <= ay ? atan(ax, ay) : 9000 - atan(ay, ax);
+
+		// angle is from north towards east, fold it into the right quadrant
+		int bearing;
+		if (x >= 0)
+			bearing = y >= 0 ? angle : 18000 - angle;
+		else
+			bearing = y >= 0 ? 36000 - angle : 18000 + angle;
+		return bearing >= 36000 ? bearing - 36000 : bearing;
+	}
+
+	/**
+	 * computes which of a number of equal sized buckets the bearing of
+	 * lat2/lon2 in relationship from lat1/lon1 falls into. Bucket 0 is
+	 * centered on north, ie with 8 buckets: N, NE, E, SE, S, SW, W, NW
+	 * 
+	 * @param lat1E6
+	 *            source lat
+	 * @param lon1E6
+	 *            source lon
+	 * @param lat2E6
+	 *            destination lat
+	 * @param lon2E6
+	 *            destination lon
+	 * @param buckets
+	 *            number of buckets
+	 * @return the bucket, 0 to buckets - 1
+	 * @author ricky barrette
+	 */
+	public static int bearingBucket(final int lat1E6, final int lon1E6, final int lat2E6, final int lon2E6, final int buckets) {
+		final int bearing = bearing(lat1E6, lon1E6, lat2E6, lon2E6);
+		return (int) (((long) bearing * buckets * 2 + 36000) / 72000 % buckets);
+	}
+
+	/**
+	 * Tests if a point is inside of a bounding box
+	 * 
+	 * @param southE6
+	 * @param westE6
+	 * @param northE6
+	 * @param eastE6
+	 *            if less than west, the box crosses the anti-meridian
+	 * @param latE6
+	 * @param lonE6
+	 * @return true if the point is inside of the box
+	 * @author ricky barrette
+	 */
+	public static boolean contains(final int southE6, final int westE6, final int northE6, final int eastE6, final int latE6, final int lonE6) {
+		if (latE6 < southE6 || latE6 > northE6)
+			return false;
+		return containsLon(westE6, eastE6, lonE6);
+	}
+
+	/**
+	 * @param westE6
+	 * @param eastE6
+	 *            if less than west, the range crosses the anti-meridian
+	 * @param lonE6
+	 * @return true if lon is between west and east
+	 * @author ricky barrette
+	 */
+	private static boolean containsLon(final int westE6, final int eastE6, final int lonE6) {
+		if (westE6 <= eastE6)
+			return lonE6 >= westE6 && lonE6 <= eastE6;
+		return lonE6 >= westE6 || lonE6 <= eastE6;
+	}
+
+	/**
+	 * @param latE6
+	 * @return cos(lat) scaled by 2^16
+	 * @author ricky barrette
+	 */
+	private static int cos(final int latE6) {
+		final int abs = Math.min(Math.abs(latE6), 90000000);
+		final int index = abs / 100000;
+		final int fraction = abs % 100000;
+		return COS_TABLE[index] + (int) ((long) (COS_TABLE[index + 1] - COS_TABLE[index]) * fraction / 100000);
+	}
+
+	/**
+	 * Decodes coordinates encoded by
+	 * {@link #deltaEncode(int[], int, int[])}. in and out may be the same
+	 * array.
+	 * 
+	 * @param in
+	 *            the deltas
+	 * @param count
+	 *            number of ints in in, twice the number of points
+	 * @param out
+	 *            array of at least count to receive interleaved lat/lon
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static int[] deltaDecode(final int[] in, final int count, final int[] out) {
+		int lat = 0, lon = 0;
+		for (int i = 0; i + 1 < count; i += 2) {
+			lat += in[i];
+			lon = wrapLon(lon + in[i + 1]);
+			out[i] = lat;
+			out[i + 1] = lon;
+		}
+		return out;
+	}
+
+	/**
+	 * Delta encodes interleaved lat/lon microdegrees, so each point becomes
+	 * the offset from the previous one. The offsets of a route are small, and
+	 * compress well. Longitude offsets take the short way across the
+	 * anti-meridian. in and out may be the same array.
+	 * 
+	 * @param in
+	 *            interleaved lat/lon
+	 * @param count
+	 *            number of ints in in, twice the number of points
+	 * @param out
+	 *            array of at least count to receive the deltas
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static int[] deltaEncode(final int[] in, final int count, final int[] out) {
+		int lastLat = 0, lastLon = 0;
+		for (int i = 0; i + 1 < count; i += 2) {
+			final int lat = in[i];
+			final int lon = in[i + 1];
+			out[i] = lat - lastLat;
+			out[i + 1] = deltaLon(lastLon, lon);
+			lastLat = lat;
+			lastLon = lon;
+		}
+		return out;
+	}
+
+	/**
+	 * @param lon1E6
+	 * @param lon2E6
+	 * @return lon2 - lon1, taking the short way across the anti-meridian
+	 * @author ricky barrette
+	 */
+	private static int deltaLon(final int lon1E6, final int lon2E6) {
+		return wrapLon(lon2E6 - lon1E6);
+	}
+
+	/**
+	 * computes the approximate distance between lat1/lon1 and lat2/lon2
+	 * 
+	 * @param lat1E6
+	 *            source lat
+	 * @param lon1E6
+	 *            source lon
+	 * @param lat2E6
+	 *            destination lat
+	 * @param lon2E6
+	 *            destination lon
+	 * @return the distance in meters
+	 * @author ricky barrette
+	 */
+	public static int distanceMeters(final int lat1E6, final int lon1E6, final int lat2E6, final int lon2E6) {
+		return (int) (Math.sqrt(distanceSqE6(lat1E6, lon1E6, lat2E6, lon2E6)) * METERS_PER_E6 + 0.5);
+	}
+
+	/**
+	 * computes the square of the approximate distance between lat1/lon1 and
+	 * lat2/lon2 in microdegrees of latitude. This is the cheapest way to
+	 * compare or sort distances, as no square root is needed.
+	 * 
+	 * @param lat1E6
+	 *            source lat
+	 * @param lon1E6
+	 *            source lon
+	 * @param lat2E6
+	 *            destination lat
+	 * @param lon2E6
+	 *            destination lon
+	 * @return the squared distance
+	 * @author ricky barrette
+	 */
+	public static long distanceSqE6(final int lat1E6, final int lon1E6, final int lat2E6, final int lon2E6) {
+		final long x = (long) deltaLon(lon1E6, lon2E6) * cos(meanLat(lat1E6, lat2E6)) >> 16;
+		final long y = (long) lat2E6 - lat1E6;
+		return x * x + y * y;
+	}
+
+	/**
+	 * @param meters
+	 * @return the approximate number of microdegrees of latitude spanning the
+	 *         distance, ie for comparing against distanceSqE6()
+	 * @author ricky barrette
+	 */
+	public static int metersToE6(final double meters) {
+		return (int) (meters / METERS_PER_E6);
+	}
+
+	/**
+	 * Tests if two bounding boxes share any area
+	 * 
+	 * @param south1E6
+	 * @param west1E6
+	 * @param north1E6
+	 * @param east1E6
+	 * @param south2E6
+	 * @param west2E6
+	 * @param north2E6
+	 * @param east2E6
+	 * @return true if the boxes intersect
+	 * @author ricky barrette
+	 */
+	public static boolean intersects(final int south1E6, final int west1E6, final int north1E6, final int east1E6, final int south2E6, final int west2E6,
+			final int north2E6, final int east2E6) {
+		if (north2E6 < south1E6 || south2E6 > north1E6)
+			return false;
+		// two lon ranges overlap if either contains the start of the other
+		return containsLon(west1E6, east1E6, west2E6) || containsLon(west2E6, east2E6, west1E6);
+	}
+
+	/**
+	 * @param y
+	 * @param x
+	 *            must be greater than or equal to y
+	 * @return atan(y / x) in hundredths of a degree, 0 to 4500
+	 * @author ricky barrette
+	 */
+	private static int atan(final long y, final long x) {
+		final long scaled = (y << 20) / x;
+		final int index = (int) (scaled >> 10);
+		final int fraction = (int) (scaled & 1023);
+		return ATAN_TABLE[index] + ((ATAN_TABLE[index + 1] - ATAN_TABLE[index]) * fraction >> 10);
+	}
+
+	/**
+	 * @return the mean of two latitudes
+	 * @author ricky barrette
+	 */
+	private static int meanLat(final int lat1E6, final int lat2E6) {
+		return (int) (((long) lat1E6 + lat2E6) / 2);
+	}
+
+	/**
+	 * @param lonE6
+	 * @return lon wrapped into [-180, 180) degrees
+	 * @author ricky barrette
+	 */
+	private static int wrapLon(final int lonE6) {
+		if (lonE6 >= HALF_CIRCLE)
+			return lonE6 - FULL_CIRCLE;
+		if (lonE6 < -HALF_CIRCLE)
+			return lonE6 + FULL_CIRCLE;
+		return lonE6;
+	}
+}
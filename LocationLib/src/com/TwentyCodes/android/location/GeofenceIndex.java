@@ -0,0 +1,340 @@
+/**
+ * GeofenceIndex.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.google.android.gms.maps.model.LatLng;
+
+/**
+ * An in-memory grid index of circular geofences. Each fence is filed under
+ * every grid cell its bounding box touches, so a query only has to test the
+ * fences filed under the cells the user's accuracy circle touches instead of
+ * every fence. Matches use the same rules as
+ * {@link GeoUtils#isIntersecting(LatLng, float, LatLng, float, float)}.
+ * 
+ * This class is not thread safe.
+ * 
+ * @author ricky barrette
+ */
+public class GeofenceIndex<T> {
+
+	/**
+	 * Holds a fence's center and radius, copied when the fence was added
+	 * 
+	 * @author ricky barrette
+	 */
+	private static final class Entry<T> {
+		final T item;
+		final double lat;
+		final double lon;
+		final float radius;
+		int stamp;
+
+		Entry(final T item, final double lat, final double lon, final float radius) {
+			this.item = item;
+			this.lat = lat;
+			this.lon = lon;
+			this.radius = radius;
+		}
+	}
+
+	/**
+	 * The default cell size in degrees, about 5.5 Km of latitude
+	 */
+	public static final double DEFAULT_CELL_SIZE = 0.05;
+
+	private final double mCellSize;
+	private final int mRows;
+	private final int mCols;
+	private final HashMap<Long, ArrayList<Entry<T>>> mCells = new HashMap<Long, ArrayList<Entry<T>>>();
+	private final HashMap<T, Entry<T>> mEntries = new HashMap<T, Entry<T>>();
+	private int mStamp;
+
+	/**
+	 * Creates a new GeofenceIndex using the default cell size
+	 * 
+	 * @author ricky barrette
+	 */
+	public GeofenceIndex() {
+		this(DEFAULT_CELL_SIZE);
+	}
+
+	/**
+	 * Creates a new GeofenceIndex
+	 * 
+	 * @param cellSize
+	 *            in degrees. Pick something close to the typical fence
+	 *            diameter; much smaller files large fences in many cells, much
+	 *            larger tests more fences per query.
+	 * @author ricky barrette
+	 */
+	public GeofenceIndex(final double cellSize) {
+		if (cellSize <= 0 || cellSize > 180)
+			throw new IllegalArgumentException("cellSize must be in (0, 180]");
+		mCellSize = cellSize;
+		mRows = (int) Math.ceil(180 / cellSize);
+		mCols = (int) Math.ceil(360 / cellSize);
+	}
+
+	/**
+	 * Adds a fence to the index, replacing it if it was already added
+	 * 
+	 * @param item
+	 *            the fence
+	 * @param lat
+	 *            center lat
+	 * @param lon
+	 *            center lon
+	 * @param radius
+	 *            in KM
+	 * @author ricky barrette
+	 */
+	public void add(final T item, final double lat, final double lon, final float radius) {
+		if (item == null)
+			throw new NullPointerException();
+		remove(item);
+		final Entry<T> entry = new Entry<T>(item, lat, lon, radius);
+		mEntries.put(item, entry);
+		file(entry, true);
+	}
+
+	/**
+	 * Adds a fence to the index, replacing it if it was already added
+	 * 
+	 * @param item
+	 *            the fence
+	 * @param center
+	 * @param radius
+	 *            in KM
+	 * @author ricky barrette
+	 */
+	public void add(final T item, final LatLng center, final float radius) {
+		add(item, center.latitude, center.longitude, radius);
+	}
+
+	/**
+	 * Bulk loads fences into the index, item[i] being centered at
+	 * lats[i]/lngs[i] with a radius of radii[i] KM
+	 * 
+	 * @param items
+	 * @param lats
+	 * @param lngs
+	 * @param radii
+	 *            in KM
+	 * @author ricky barrette
+	 */
+	public void addAll(final T[] items, final double[] lats, final double[] lngs, final float[] radii) {
+		if (lats.length != items.length || lngs.length != items.length || radii.length != items.length)
+			throw new IllegalArgumentException("items, lats, lngs and radii must be the same length");
+		for (int i = 0; i < items.length; i++)
+			add(items[i], lats[i], lngs[i], radii[i]);
+	}
+
+	/**
+	 * Removes all fences from the index
+	 * 
+	 * @author ricky barrette
+	 */
+	public void clear() {
+		mCells.clear();
+		mEntries.clear();
+	}
+
+	/**
+	 * @param item
+	 * @return true if the fence is in this index
+	 * @author ricky barrette
+	 */
+	public boolean contains(final T item) {
+		return mEntries.containsKey(item);
+	}
+
+	/**
+	 * Adds or removes an entry from every cell its bounding box touches
+	 * 
+	 * @param entry
+	 * @param add
+	 *            true to add, false to remove
+	 * @author ricky barrette
+	 */
+	private void file(final Entry<T> entry, final boolean add) {
+		final int[] range = cellRange(entry.lat, entry.lon, entry.radius);
+		for (int row = range[0]; row <= range[1]; row++)
+			for (int c = range[2]; c <= range[3]; c++) {
+				final Long key = key(row, c);
+				ArrayList<Entry<T>> cell = mCells.get(key);
+				if (add) {
+					if (cell == null) {
+						cell = new ArrayList<Entry<T>>(4);
+						mCells.put(key, cell);
+					}
+					cell.add(entry);
+				} else if (cell != null) {
+					cell.remove(entry);
+					if (cell.isEmpty())
+						mCells.remove(key);
+				}
+			}
+	}
+
+	/**
+	 * computes the rows and columns covered by the bounding box of a circle.
+	 * Columns are not wrapped, see {@link #key(int, int)}
+	 * 
+	 * @param lat
+	 * @param lon
+	 * @param radius
+	 *            in KM
+	 * @return {minRow, maxRow, minCol, maxCol}
+	 * @author ricky barrette
+	 */
+	private int[] cellRange(final double lat, final double lon, final float radius) {
+		final double dLat = Math.toDegrees(Math.max(radius, 0) / GeoUtils.EARTH_RADIUS_KM);
+		final double minLat = Math.max(lat - dLat, -90);
+		final double maxLat = Math.min(lat + dLat, 90);
+
+		int minCol, maxCol;
+		final double cos = Math.min(Math.cos(Math.toRadians(minLat)), Math.cos(Math.toRadians(maxLat)));
+		final double dLon = cos <= 0 ? 180 : dLat / cos;
+		if (dLon >= 180) {
+			// the circle covers a pole, or wraps all the way around
+			minCol = 0;
+			maxCol = mCols - 1;
+		} else {
+			minCol = (int) Math.floor((lon - dLon + 180) / mCellSize);
+			maxCol = (int) Math.floor((lon + dLon + 180) / mCellSize);
+			if (maxCol - minCol >= mCols) {
+				minCol = 0;
+				maxCol = mCols - 1;
+			}
+		}
+		return new int[] { row(minLat), row(maxLat), minCol, maxCol };
+	}
+
+	/**
+	 * @param row
+	 * @param col
+	 *            may be outside of the grid, it is wrapped around the
+	 *            anti-meridian
+	 * @return the key of the cell
+	 * @author ricky barrette
+	 */
+	private Long key(final int row, int col) {
+		col %= mCols;
+		if (col < 0)
+			col += mCols;
+		return Long.valueOf((long) row * mCols + col);
+	}
+
+	/**
+	 * Finds the fences that the user's accuracy circle intersects
+	 * 
+	 * @param userPoint
+	 * @param accuracyRadius
+	 *            in KM
+	 * @param fudgeFactor
+	 *            how many KM the circles have to intersect
+	 * @return a new list of the intersecting fences
+	 * @author ricky barrette
+	 */
+	public List<T> query(final LatLng userPoint, final float accuracyRadius, final float fudgeFactor) {
+		return query(userPoint.latitude, userPoint.longitude, accuracyRadius, fudgeFactor, new ArrayList<T>());
+	}
+
+	/**
+	 * Finds the fences that the user's accuracy circle intersects
+	 * 
+	 * @param lat
+	 *            user lat
+	 * @param lon
+	 *            user lon
+	 * @param accuracyRadius
+	 *            in KM
+	 * @param fudgeFactor
+	 *            how many KM the circles have to intersect
+	 * @param out
+	 *            list the intersecting fences are added to
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public List<T> query(final double lat, final double lon, final float accuracyRadius, final float fudgeFactor, final List<T> out) {
+		if (mEntries.isEmpty())
+			return out;
+
+		/*
+		 * two circles can only intersect if their bounding boxes overlap, and
+		 * then they share at least one cell. a negative fudge factor lets
+		 * circles that don't quite touch match, so grow the search to cover it
+		 */
+		final int stamp = ++mStamp;
+		final GeoOrigin origin = new GeoOrigin(lat, lon);
+		final int[] range = cellRange(lat, lon, accuracyRadius + Math.max(-fudgeFactor, 0));
+		for (int row = range[0]; row <= range[1]; row++)
+			for (int c = range[2]; c <= range[3]; c++) {
+				final ArrayList<Entry<T>> cell = mCells.get(key(row, c));
+				if (cell == null)
+					continue;
+				for (int i = 0, size = cell.size(); i < size; i++) {
+					final Entry<T> entry = cell.get(i);
+					if (entry.stamp == stamp)
+						continue;
+					entry.stamp = stamp;
+					if (accuracyRadius + entry.radius - fudgeFactor > origin.distanceKm(entry.lat, entry.lon))
+						out.add(entry.item);
+				}
+			}
+		return out;
+	}
+
+	/**
+	 * Removes a fence from the index
+	 * 
+	 * @param item
+	 * @return true if the fence was in the index
+	 * @author ricky barrette
+	 */
+	public boolean remove(final T item) {
+		final Entry<T> entry = mEntries.remove(item);
+		if (entry == null)
+			return false;
+		file(entry, false);
+		return true;
+	}
+
+	/**
+	 * @param lat
+	 * @return the row of the grid containing lat
+	 * @author ricky barrette
+	 */
+	private int row(final double lat) {
+		return Math.min((int) Math.floor((lat + 90) / mCellSize), mRows - 1);
+	}
+
+	/**
+	 * @return the number of fences in the index
+	 * @author ricky barrette
+	 */
+	public int size() {
+		return mEntries.size();
+	}
+}
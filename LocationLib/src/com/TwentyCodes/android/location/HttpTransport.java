@@ -0,0 +1,435 @@
+/**
+ * HttpTransport.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.params.ConnManagerParams;
+import org.apache.http.conn.params.ConnPerRouteBean;
+import org.apache.http.conn.scheme.PlainSocketFactory;
+import org.apache.http.conn.scheme.Scheme;
+import org.apache.http.conn.scheme.SchemeRegistry;
+import org.apache.http.conn.ssl.SSLSocketFactory;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParams;
+import org.apache.http.params.HttpParams;
+import org.apache.http.params.HttpProtocolParams;
+
+import android.util.Log;
+
+import com.TwentyCodes.android.debug.Debug;
+
+/**
+ * This class is the one HTTP client shared by all of the library's calls to
+ * Google's web services, ie directions and geocoding.
+ * 
+ * Creating a DefaultHttpClient per request threw away its connections, so
+ * every call paid for a new TCP, and for https a new TLS, handshake. The
+ * shared client pools its connections and keeps them alive between calls,
+ * asks for gzipped responses, and applies the same timeouts to every call.
+ * 
+ * The time each call takes is recorded by endpoint, so slow services can be
+ * spotted with {@link #getMetrics(String)}.
+ * 
+ * This class is thread safe.
+ * 
+ * @author ricky barrette
+ */
+public class HttpTransport {
+
+	/**
+	 * Latency statistics of one endpoint
+	 * 
+	 * @author ricky barrette
+	 */
+	public static class Metrics {
+		private int mCount;
+		private int mFailures;
+		private long mTotalLatency;
+		private long mMaxLatency;
+		private long mTotalDuration;
+		private long mMaxDuration;
+
+		private Metrics() {
+		}
+
+		private Metrics(final Metrics metrics) {
+			mCount = metrics.mCount;
+			mFailures = metrics.mFailures;
+			mTotalLatency = metrics.mTotalLatency;
+			mMaxLatency = metrics.mMaxLatency;
+			mTotalDuration = metrics.mTotalDuration;
+			mMaxDuration = metrics.mMaxDuration;
+		}
+
+		/**
+		 * @return the number of calls that got a whole response
+		 */
+		public int getCount() {
+			return mCount;
+		}
+
+		/**
+		 * @return the number of calls that failed before getting a response,
+		 *         got an error status, or failed while reading the response
+		 */
+		public int getFailures() {
+			return mFailures;
+		}
+
+		/**
+		 * @return the longest time from sending a request to reading all of
+		 *         its response in milliseconds
+		 */
+		public long getMaxDuration() {
+			return mMaxDuration;
+		}
+
+		/**
+		 * @return the longest time from sending a request to receiving the
+		 *         headers of its response in milliseconds
+		 */
+		public long getMaxLatency() {
+			return mMaxLatency;
+		}
+
+		/**
+		 * @return the average time from sending a request to reading all of
+		 *         its response in milliseconds
+		 */
+		public long getMeanDuration() {
+			return mCount == 0 ? 0 : mTotalDuration / mCount;
+		}
+
+		/**
+		 * @return the average time from sending a request to receiving the
+		 *         headers of its response in milliseconds
+		 */
+		public long getMeanLatency() {
+			return mCount == 0 ? 0 : mTotalLatency / mCount;
+		}
+
+		@Override
+		public String toString() {
+			return "count " + mCount + ", failures " + mFailures + ", latency " + getMeanLatency() + " ms (max " + mMaxLatency + "), duration "
+					+ getMeanDuration() + " ms (max " + mMaxDuration + ")";
+		}
+	}
+
+	/**
+	 * A response body that records its call when closed, as a failure if
+	 * reading or closing it threw
+	 * 
+	 * @author ricky barrette
+	 */
+	private final class ResponseStream extends FilterInputStream {
+		private final String mEndpoint;
+		private final long mStart;
+		private final long mLatency;
+		private boolean isClosed;
+		private boolean isFailed;
+
+		ResponseStream(final InputStream in, final String endpoint, final long start, final long latency) {
+			super(in);
+			mEndpoint = endpoint;
+			mStart = start;
+			mLatency = latency;
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (isClosed)
+				return;
+			isClosed = true;
+			try {
+				// closing the body hands the connection back to the pool
+				super.close();
+			} catch (final IOException e) {
+				isFailed = true;
+				throw e;
+			} finally {
+				record(mEndpoint, mLatency, System.currentTimeMillis() - mStart, isFailed);
+			}
+		}
+
+		@Override
+		public int read() throws IOException {
+			try {
+				return super.read();
+			} catch (final IOException e) {
+				isFailed = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public int read(final byte[] buffer, final int offset, final int count) throws IOException {
+			try {
+				return super.read(buffer, offset, count);
+			} catch (final IOException e) {
+				isFailed = true;
+				throw e;
+			}
+		}
+
+		@Override
+		public long skip(final long count) throws IOException {
+			try {
+				return super.skip(count);
+			} catch (final IOException e) {
+				isFailed = true;
+				throw e;
+			}
+		}
+	}
+
+	private static final String TAG = "HttpTransport";
+
+	/**
+	 * Default time to wait for a connection, from the pool and then from the
+	 * server, and then for data, in milliseconds
+	 */
+	public static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+	public static final int DEFAULT_READ_TIMEOUT = 20000;
+
+	private static final int MAX_CONNECTIONS = 8;
+	private static final int MAX_CONNECTIONS_PER_ROUTE = 4;
+	private static final int BUFFER_SIZE = 8192;
+
+	private static HttpTransport sInstance;
+
+	/**
+	 * Read buffers, one per thread so they are never shared
+	 */
+	private static final ThreadLocal<char[]> sBuffer = new ThreadLocal<char[]>() {
+		@Override
+		protected char[] initialValue() {
+			return new char[BUFFER_SIZE];
+		}
+	};
+
+	private final DefaultHttpClient mClient;
+	private volatile int mConnectTimeout = DEFAULT_CONNECT_TIMEOUT;
+	private volatile int mReadTimeout = DEFAULT_READ_TIMEOUT;
+	private final HashMap<String, Metrics> mMetrics = new HashMap<String, Metrics>();
+
+	/**
+	 * Creates a new HttpTransport
+	 * 
+	 * @author ricky barrette
+	 */
+	private HttpTransport() {
+		/*
+		 * these are shared by every thread, and are never changed after this,
+		 * the timeouts are set on each request instead
+		 */
+		final HttpParams params = new BasicHttpParams();
+		HttpProtocolParams.setVersion(params, HttpVersion.HTTP_1_1);
+		HttpProtocolParams.setContentCharset(params, "UTF-8");
+		HttpConnectionParams.setConnectionTimeout(params, DEFAULT_CONNECT_TIMEOUT);
+		HttpConnectionParams.setSoTimeout(params, DEFAULT_READ_TIMEOUT);
+		HttpConnectionParams.setSocketBufferSize(params, BUFFER_SIZE);
+		HttpConnectionParams.setStaleCheckingEnabled(params, true);
+		ConnManagerParams.setTimeout(params, DEFAULT_CONNECT_TIMEOUT);
+		ConnManagerParams.setMaxTotalConnections(params, MAX_CONNECTIONS);
+		ConnManagerParams.setMaxConnectionsPerRoute(params, new ConnPerRouteBean(MAX_CONNECTIONS_PER_ROUTE));
+
+		final SchemeRegistry schemes = new SchemeRegistry();
+		schemes.register(new Scheme("http", PlainSocketFactory.getSocketFactory(), 80));
+		schemes.register(new Scheme("https", SSLSocketFactory.getSocketFactory(), 443));
+		mClient = new DefaultHttpClient(new ThreadSafeClientConnManager(params, schemes), params);
+	}
+
+	/**
+	 * @return the shared HttpTransport
+	 * @author ricky barrette
+	 */
+	public static synchronized HttpTransport getInstance() {
+		if (sInstance == null)
+			sInstance = new HttpTransport();
+		return sInstance;
+	}
+
+	/**
+	 * @param endpoint
+	 * @return a copy of the statistics of an endpoint, or null if it hasn't
+	 *         been called
+	 * @author ricky barrette
+	 */
+	public Metrics getMetrics(final String endpoint) {
+		synchronized (mMetrics) {
+			final Metrics metrics = mMetrics.get(endpoint);
+			return metrics == null ? null : new Metrics(metrics);
+		}
+	}
+
+	/**
+	 * @return a copy of the statistics of every endpoint that has been called
+	 * @author ricky barrette
+	 */
+	public Map<String, Metrics> getMetrics() {
+		synchronized (mMetrics) {
+			final HashMap<String, Metrics> copy = new HashMap<String, Metrics>();
+			for (final Map.Entry<String, Metrics> entry : mMetrics.entrySet())
+				copy.put(entry.getKey(), new Metrics(entry.getValue()));
+			return copy;
+		}
+	}
+
+	/**
+	 * Sends a request
+	 * 
+	 * @param request
+	 *            which may be aborted from another thread
+	 * @param endpoint
+	 *            name the call's statistics are recorded under
+	 * @return the response body, unzipped, which must be closed to hand the
+	 *         connection back
+	 * @throws IOException
+	 *             if the request failed, or the response has an error status
+	 * @author ricky barrette
+	 */
+	public InputStream open(final HttpGet request, final String endpoint) throws IOException {
+		if (Debug.DEBUG)
+			Log.d(TAG, endpoint + " " + request.getURI());
+		request.addHeader("Accept-Encoding", "gzip");
+		final HttpParams params = request.getParams();
+		ConnManagerParams.setTimeout(params, mConnectTimeout);
+		HttpConnectionParams.setConnectionTimeout(params, mConnectTimeout);
+		HttpConnectionParams.setSoTimeout(params, mReadTimeout);
+
+		final long start = System.currentTimeMillis();
+		final HttpResponse response;
+		try {
+			response = mClient.execute(request);
+		} catch (final IOException e) {
+			record(endpoint, 0, 0, true);
+			throw e;
+		}
+		final long latency = System.currentTimeMillis() - start;
+
+		final HttpEntity entity = response.getEntity();
+		final int status = response.getStatusLine().getStatusCode();
+		if (status >= 400 || entity == null) {
+			if (entity != null)
+				entity.consumeContent();
+			record(endpoint, 0, 0, true);
+			throw new IOException("HTTP " + status + " from " + endpoint);
+		}
+
+		InputStream in;
+		try {
+			in = entity.getContent();
+			final Header encoding = entity.getContentEncoding();
+			// reads the gzip header, so a body that isn't gzip throws here
+			if (encoding != null && "gzip".equalsIgnoreCase(encoding.getValue()))
+				in = new GZIPInputStream(in, BUFFER_SIZE);
+		} catch (final IOException e) {
+			// without this the connection would never go back to the pool
+			request.abort();
+			record(endpoint, 0, 0, true);
+			throw e;
+		}
+		return new ResponseStream(in, endpoint, start, latency);
+	}
+
+	/**
+	 * Sends a request, and reads the whole response as text
+	 * 
+	 * @param request
+	 * @param endpoint
+	 *            name the call's statistics are recorded under
+	 * @return the response body
+	 * @throws IOException
+	 *             if the request failed, or the response has an error status
+	 * @author ricky barrette
+	 */
+	public String read(final HttpGet request, final String endpoint) throws IOException {
+		final InputStream in = open(request, endpoint);
+		try {
+			final Reader reader = new InputStreamReader(in, "UTF-8");
+			final char[] buffer = sBuffer.get();
+			final StringBuilder sb = new StringBuilder(BUFFER_SIZE);
+			int read;
+			while ((read = reader.read(buffer)) != -1)
+				sb.append(buffer, 0, read);
+			return sb.toString();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Records a call
+	 * 
+	 * @param endpoint
+	 * @param latency
+	 * @param duration
+	 * @param isFailure
+	 * @author ricky barrette
+	 */
+	private void record(final String endpoint, final long latency, final long duration, final boolean isFailure) {
+		synchronized (mMetrics) {
+			Metrics metrics = mMetrics.get(endpoint);
+			if (metrics == null) {
+				metrics = new Metrics();
+				mMetrics.put(endpoint, metrics);
+			}
+			if (isFailure) {
+				metrics.mFailures++;
+				return;
+			}
+			metrics.mCount++;
+			metrics.mTotalLatency += latency;
+			metrics.mMaxLatency = Math.max(metrics.mMaxLatency, latency);
+			metrics.mTotalDuration += duration;
+			metrics.mMaxDuration = Math.max(metrics.mMaxDuration, duration);
+		}
+	}
+
+	/**
+	 * Sets the timeouts of every call from now on
+	 * 
+	 * @param connectTimeout
+	 *            time to wait for a connection, from the pool and then from
+	 *            the server, in milliseconds
+	 * @param readTimeout
+	 *            time to wait for data in milliseconds
+	 * @author ricky barrette
+	 */
+	public void setTimeouts(final int connectTimeout, final int readTimeout) {
+		mConnectTimeout = connectTimeout;
+		mReadTimeout = readTimeout;
+	}
+}
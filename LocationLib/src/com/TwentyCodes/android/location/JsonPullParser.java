@@ -0,0 +1,657 @@
+/**
+ * JsonPullParser.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * A small streaming JSON parser. Rather than building a tree of the whole
+ * document, the caller pulls tokens one at a time, and skips the values it
+ * doesn't care about without them ever being turned into objects or strings.
+ * 
+ * Names are returned in a reused buffer, and strings can be appended to a
+ * caller's StringBuilder, so reading a document only allocates for the values
+ * the caller keeps.
+ * 
+ * This class is not thread safe.
+ * 
+ * @author ricky barrette
+ */
+public class JsonPullParser {
+
+	/**
+	 * The kinds of tokens in a JSON document
+	 * 
+	 * @author ricky barrette
+	 */
+	public enum Token {
+		BEGIN_ARRAY, END_ARRAY, BEGIN_OBJECT, END_OBJECT, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT
+	}
+
+	/*
+	 * what the parser expects next in each nested scope
+	 */
+	private static final int EMPTY_DOCUMENT = 0;
+	private static final int NONEMPTY_DOCUMENT = 1;
+	private static final int EMPTY_ARRAY = 2;
+	private static final int NONEMPTY_ARRAY = 3;
+	private static final int EMPTY_OBJECT = 4;
+	private static final int DANGLING_NAME = 5;
+	private static final int NONEMPTY_OBJECT = 6;
+
+	private static final double[] POWERS_OF_TEN = { 1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17,
+			1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	private final Reader mReader;
+	private final char[] mBuffer = new char[8192];
+	private int mPos;
+	private int mLimit;
+	private long mOffset;
+
+	private int[] mStack = new int[32];
+	private int mDepth = 1;
+	private Token mPeeked;
+
+	private final StringBuilder mName = new StringBuilder(32);
+	private final StringBuilder mScratch = new StringBuilder(32);
+
+	/**
+	 * Creates a new JsonPullParser
+	 * 
+	 * @param reader
+	 *            the document, which is read in chunks as it is parsed. It is
+	 *            not closed by the parser.
+	 * @author ricky barrette
+	 */
+	public JsonPullParser(final Reader reader) {
+		if (reader == null)
+			throw new NullPointerException();
+		mReader = reader;
+		mStack[0] = EMPTY_DOCUMENT;
+	}
+
+	/**
+	 * Consumes the start of an array
+	 * 
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public void beginArray() throws IOException {
+		expect(Token.BEGIN_ARRAY);
+		push(EMPTY_ARRAY);
+	}
+
+	/**
+	 * Consumes the start of an object
+	 * 
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public void beginObject() throws IOException {
+		expect(Token.BEGIN_OBJECT);
+		push(EMPTY_OBJECT);
+	}
+
+	/**
+	 * Consumes the end of an array
+	 * 
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public void endArray() throws IOException {
+		expect(Token.END_ARRAY);
+		mDepth--;
+	}
+
+	/**
+	 * Consumes the end of an object
+	 * 
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public void endObject() throws IOException {
+		expect(Token.END_OBJECT);
+		mDepth--;
+	}
+
+	/**
+	 * Consumes the next token, checking that it is the expected one
+	 * 
+	 * @param token
+	 * @throws IOException
+	 *             if the next token is something else
+	 * @author ricky barrette
+	 */
+	private void expect(final Token token) throws IOException {
+		if (peek() != token)
+			throw syntaxError("expected " + token + " but was " + mPeeked);
+		mPeeked = null;
+	}
+
+	/**
+	 * Makes sure there is at least one unread char in the buffer
+	 * 
+	 * @return false if the end of the document has been reached
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private boolean fill() throws IOException {
+		if (mPos < mLimit)
+			return true;
+		mOffset += mLimit;
+		mPos = 0;
+		mLimit = 0;
+		int read;
+		while ((read = mReader.read(mBuffer, 0, mBuffer.length)) == 0)
+			;
+		if (read < 0)
+			return false;
+		mLimit = read;
+		return true;
+	}
+
+	/**
+	 * @return true if the current array or object has another element
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public boolean hasNext() throws IOException {
+		final Token token = peek();
+		return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+	}
+
+	/**
+	 * Consumes the next token, which must be a boolean
+	 * 
+	 * @return the boolean
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public boolean nextBoolean() throws IOException {
+		expect(Token.BOOLEAN);
+		readLiteral(mScratch);
+		if (equals(mScratch, "true"))
+			return true;
+		if (equals(mScratch, "false"))
+			return false;
+		throw syntaxError("expected a boolean but was " + mScratch);
+	}
+
+	/**
+	 * Consumes the next token, which must be a number or a string holding one
+	 * 
+	 * @return the number
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public double nextDouble() throws IOException {
+		readNumber();
+
+		/*
+		 * numbers of up to 15 digits times a power of ten up to 22 are both
+		 * exact doubles, so one multiply or divide rounds correctly. That
+		 * covers coordinates, anything else goes to Double.parseDouble()
+		 */
+		final int length = mScratch.length();
+		int i = 0;
+		boolean isNegative = false;
+		if (length > 0 && mScratch.charAt(0) == '-') {
+			isNegative = true;
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		boolean isFraction = false;
+		boolean isValid = true;
+		boolean hasDigits = false;
+		for (; i < length && isValid; i++) {
+			final char c = mScratch.charAt(i);
+			if (c >= '0' && c <= '9') {
+				hasDigits = true;
+				if (mantissa != 0 || c != '0')
+					digits++;
+				mantissa = mantissa * 10 + c - '0';
+				if (isFraction)
+					exponent--;
+			} else if (c == '.' && !isFraction)
+				isFraction = true;
+			else
+				isValid = false;
+		}
+		if (isValid && hasDigits && digits <= 15 && exponent >= -22) {
+			final double value = mantissa / POWERS_OF_TEN[-exponent];
+			return isNegative ? -value : value;
+		}
+
+		try {
+			return Double.parseDouble(mScratch.toString());
+		} catch (final NumberFormatException e) {
+			throw syntaxError("expected a number but was " + mScratch);
+		}
+	}
+
+	/**
+	 * Consumes the next token, which must be a whole number or a string
+	 * holding one
+	 * 
+	 * @return the number
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public long nextLong() throws IOException {
+		readNumber();
+		final int length = mScratch.length();
+		boolean isNegative = false;
+		int i = 0;
+		if (length > 0 && mScratch.charAt(0) == '-') {
+			isNegative = true;
+			i++;
+		}
+		long value = 0;
+		for (; i < length; i++) {
+			final char c = mScratch.charAt(i);
+			// fall back to a double for fractions, exponents and overflow
+			if (c < '0' || c > '9' || value > (Long.MAX_VALUE - 9) / 10) {
+				final double d;
+				try {
+					d = Double.parseDouble(mScratch.toString());
+				} catch (final NumberFormatException e) {
+					throw syntaxError("expected a number but was " + mScratch);
+				}
+				if (d != (long) d)
+					throw syntaxError("expected a whole number but was " + mScratch);
+				return (long) d;
+			}
+			value = value * 10 + c - '0';
+		}
+		return isNegative ? -value : value;
+	}
+
+	/**
+	 * Consumes the next token, which must be a name
+	 * 
+	 * @return the name, in a buffer that is reused by the next call. Compare
+	 *         it with String.contentEquals()
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public CharSequence nextName() throws IOException {
+		expect(Token.NAME);
+		mName.setLength(0);
+		readString(mName);
+		return mName;
+	}
+
+	/**
+	 * Consumes the next token, which must be null
+	 * 
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public void nextNull() throws IOException {
+		expect(Token.NULL);
+		readLiteral(mScratch);
+		if (!equals(mScratch, "null"))
+			throw syntaxError("expected null but was " + mScratch);
+	}
+
+	/**
+	 * Consumes the next token, which must be a string or number
+	 * 
+	 * @return the string
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public String nextString() throws IOException {
+		mScratch.setLength(0);
+		return nextString(mScratch).toString();
+	}
+
+	/**
+	 * Consumes the next token, which must be a string or number, appending
+	 * it to out
+	 * 
+	 * @param out
+	 * @return out, for convenience
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public StringBuilder nextString(final StringBuilder out) throws IOException {
+		final Token token = peek();
+		mPeeked = null;
+		if (token == Token.STRING)
+			readString(out);
+		else if (token == Token.NUMBER)
+			readLiteral(out);
+		else
+			throw syntaxError("expected a string but was " + token);
+		return out;
+	}
+
+	/**
+	 * @return the next token, without consuming it
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public Token peek() throws IOException {
+		if (mPeeked != null)
+			return mPeeked;
+
+		int c;
+		switch (mStack[mDepth - 1]) {
+		case EMPTY_DOCUMENT:
+			mStack[mDepth - 1] = NONEMPTY_DOCUMENT;
+			return mPeeked = peekValue(nextNonWhitespace());
+
+		case NONEMPTY_DOCUMENT:
+			c = nextNonWhitespace();
+			if (c != -1)
+				throw syntaxError("expected the end of the document");
+			return mPeeked = Token.END_DOCUMENT;
+
+		case EMPTY_ARRAY:
+			c = nextNonWhitespace();
+			if (c == ']')
+				return mPeeked = Token.END_ARRAY;
+			mStack[mDepth - 1] = NONEMPTY_ARRAY;
+			return mPeeked = peekValue(c);
+
+		case NONEMPTY_ARRAY:
+			c = nextNonWhitespace();
+			if (c == ']')
+				return mPeeked = Token.END_ARRAY;
+			if (c != ',')
+				throw syntaxError("expected ',' or ']'");
+			return mPeeked = peekValue(nextNonWhitespace());
+
+		case EMPTY_OBJECT:
+		case NONEMPTY_OBJECT:
+			c = nextNonWhitespace();
+			if (c == '}')
+				return mPeeked = Token.END_OBJECT;
+			if (mStack[mDepth - 1] == NONEMPTY_OBJECT) {
+				if (c != ',')
+					throw syntaxError("expected ',' or '}'");
+				c = nextNonWhitespace();
+			}
+			if (c != '"')
+				throw syntaxError("expected a name");
+			mStack[mDepth - 1] = DANGLING_NAME;
+			return mPeeked = Token.NAME;
+
+		case DANGLING_NAME:
+			if (nextNonWhitespace() != ':')
+				throw syntaxError("expected ':'");
+			mStack[mDepth - 1] = NONEMPTY_OBJECT;
+			return mPeeked = peekValue(nextNonWhitespace());
+
+		default:
+			throw new IllegalStateException();
+		}
+	}
+
+	/**
+	 * Works out the type of the value starting with c. The opening quote of a
+	 * string is consumed, the first char of anything else is put back.
+	 * 
+	 * @param c
+	 * @return the type of the value
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private Token peekValue(final int c) throws IOException {
+		switch (c) {
+		case '{':
+			return Token.BEGIN_OBJECT;
+		case '[':
+			return Token.BEGIN_ARRAY;
+		case '"':
+			return Token.STRING;
+		case 't':
+		case 'f':
+			mPos--;
+			return Token.BOOLEAN;
+		case 'n':
+			mPos--;
+			return Token.NULL;
+		case -1:
+			throw syntaxError("unexpected end of the document");
+		default:
+			if (c == '-' || c >= '0' && c <= '9') {
+				mPos--;
+				return Token.NUMBER;
+			}
+			throw syntaxError("unexpected character '" + (char) c + "'");
+		}
+	}
+
+	/**
+	 * @return the next char that isn't whitespace, or -1 at the end of the
+	 *         document
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private int nextNonWhitespace() throws IOException {
+		while (fill()) {
+			final char c = mBuffer[mPos++];
+			if (c != ' ' && c != '\n' && c != '\r' && c != '\t')
+				return c;
+		}
+		return -1;
+	}
+
+	/**
+	 * Pushes a new scope
+	 * 
+	 * @param scope
+	 * @author ricky barrette
+	 */
+	private void push(final int scope) {
+		if (mDepth == mStack.length) {
+			final int[] stack = new int[mDepth * 2];
+			System.arraycopy(mStack, 0, stack, 0, mDepth);
+			mStack = stack;
+		}
+		mStack[mDepth++] = scope;
+	}
+
+	/**
+	 * Reads an unquoted value, ie a number or literal
+	 * 
+	 * @param out
+	 *            to append the value to, it is cleared first if it is the
+	 *            scratch buffer. May be null to skip the value.
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private void readLiteral(final StringBuilder out) throws IOException {
+		if (out == mScratch)
+			mScratch.setLength(0);
+		while (fill()) {
+			final int start = mPos;
+			while (mPos < mLimit) {
+				final char c = mBuffer[mPos];
+				if (c == ',' || c == '}' || c == ']' || c == ':' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+					if (out != null)
+						out.append(mBuffer, start, mPos - start);
+					return;
+				}
+				mPos++;
+			}
+			if (out != null)
+				out.append(mBuffer, start, mPos - start);
+		}
+	}
+
+	/**
+	 * Reads the next number, or string holding one, into the scratch buffer
+	 * 
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private void readNumber() throws IOException {
+		final Token token = peek();
+		mPeeked = null;
+		mScratch.setLength(0);
+		if (token == Token.NUMBER)
+			readLiteral(mScratch);
+		else if (token == Token.STRING)
+			readString(mScratch);
+		else
+			throw syntaxError("expected a number but was " + token);
+	}
+
+	/**
+	 * Reads the rest of a string whose opening quote has been consumed,
+	 * decoding escapes
+	 * 
+	 * @param out
+	 *            to append the string to, may be null to skip it
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private void readString(final StringBuilder out) throws IOException {
+		while (fill()) {
+			final int start = mPos;
+			boolean isEscape = false;
+			while (mPos < mLimit) {
+				final char c = mBuffer[mPos++];
+				if (c == '"') {
+					if (out != null)
+						out.append(mBuffer, start, mPos - start - 1);
+					return;
+				}
+				if (c == '\\') {
+					if (out != null)
+						out.append(mBuffer, start, mPos - start - 1);
+					// reading the escape may refill the buffer, so start over
+					final char escaped = readEscape();
+					if (out != null)
+						out.append(escaped);
+					isEscape = true;
+					break;
+				}
+			}
+			if (!isEscape && out != null)
+				out.append(mBuffer, start, mPos - start);
+		}
+		throw syntaxError("unterminated string");
+	}
+
+	/**
+	 * Reads the rest of an escape sequence whose backslash has been consumed
+	 * 
+	 * @return the escaped char
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	private char readEscape() throws IOException {
+		if (!fill())
+			throw syntaxError("unterminated escape sequence");
+		final char c = mBuffer[mPos++];
+		switch (c) {
+		case 'u':
+			int value = 0;
+			for (int i = 0; i < 4; i++) {
+				if (!fill())
+					throw syntaxError("unterminated escape sequence");
+				final int digit = Character.digit(mBuffer[mPos++], 16);
+				if (digit < 0)
+					throw syntaxError("malformed unicode escape");
+				value = value << 4 | digit;
+			}
+			return (char) value;
+		case 't':
+			return '\t';
+		case 'b':
+			return '\b';
+		case 'n':
+			return '\n';
+		case 'r':
+			return '\r';
+		case 'f':
+			return '\f';
+		default:
+			// \" \\ \/ and anything else stand for themselves
+			return c;
+		}
+	}
+
+	/**
+	 * Skips the next value, and everything nested in it, without decoding it
+	 * 
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public void skipValue() throws IOException {
+		int depth = 0;
+		do {
+			final Token token = peek();
+			mPeeked = null;
+			switch (token) {
+			case BEGIN_ARRAY:
+				push(EMPTY_ARRAY);
+				depth++;
+				break;
+			case BEGIN_OBJECT:
+				push(EMPTY_OBJECT);
+				depth++;
+				break;
+			case END_ARRAY:
+			case END_OBJECT:
+				mDepth--;
+				depth--;
+				break;
+			case NAME:
+			case STRING:
+				readString(null);
+				break;
+			case NUMBER:
+			case BOOLEAN:
+			case NULL:
+				readLiteral(null);
+				break;
+			case END_DOCUMENT:
+				throw syntaxError("unexpected end of the document");
+			}
+		} while (depth > 0);
+	}
+
+	/**
+	 * @param message
+	 * @return an exception describing a problem at the current position
+	 * @author ricky barrette
+	 */
+	private IOException syntaxError(final String message) {
+		return new IOException(message + " at offset " + (mOffset + mPos));
+	}
+
+	/**
+	 * @param a
+	 * @param b
+	 * @return true if a holds the same chars as b
+	 * @author ricky barrette
+	 */
+	private static boolean equals(final CharSequence a, final String b) {
+		return b.contentEquals(a);
+	}
+}
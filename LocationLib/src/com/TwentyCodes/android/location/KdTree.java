@@ -0,0 +1,483 @@
+/**
+ * KdTree.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.android.gms.maps.model.LatLng;
+
+/**
+ * An immutable k-d tree of points, ie saved places, for finding the k nearest
+ * ones to the user without computing the distance to every place and sorting.
+ * 
+ * Points are stored as vectors on the unit sphere, so straight line (chord)
+ * distance orders them exactly like great circle distance, with no trouble
+ * at the anti-meridian or the poles. The tree is built once in O(n log n),
+ * and a query visits O(log n + k) nodes for well spread out points.
+ * 
+ * Reported distances are great circle distances on the same sphere as
+ * {@link GeoUtils#distanceKm(double, double, double, double)}.
+ * 
+ * Queries don't modify the tree, so it can be shared between threads.
+ * 
+ * @author ricky barrette
+ */
+public class KdTree<T> {
+
+	/**
+	 * The state of a nearest() query, the query point and a max heap of the
+	 * best points found so far
+	 * 
+	 * @author ricky barrette
+	 */
+	private static final class Query {
+		final double x;
+		final double y;
+		final double z;
+		final double maxSq;
+		final int[] heapIndex;
+		final double[] heapDist;
+		int size;
+
+		Query(final double lat, final double lon, final int k, final double maxSq) {
+			final double latRad = Math.toRadians(lat);
+			final double lonRad = Math.toRadians(lon);
+			final double cosLat = Math.cos(latRad);
+			x = cosLat * Math.cos(lonRad);
+			y = cosLat * Math.sin(lonRad);
+			z = Math.sin(latRad);
+			this.maxSq = maxSq;
+			heapIndex = new int[k];
+			heapDist = new double[k];
+		}
+
+		/**
+		 * @return the squared chord distance a point has to beat to be
+		 *         kept
+		 */
+		double bound() {
+			return size == heapDist.length ? heapDist[0] : maxSq;
+		}
+
+		double coordinate(final int axis) {
+			return axis == 0 ? x : axis == 1 ? y : z;
+		}
+
+		/**
+		 * Keeps a point if it is one of the k nearest so far
+		 */
+		void offer(final int index, final double distSq) {
+			if (distSq > maxSq)
+				return;
+			if (size < heapDist.length) {
+				// sift up
+				int i = size++;
+				while (i > 0) {
+					final int parent = i - 1 >>> 1;
+					if (heapDist[parent] >= distSq)
+						break;
+					heapDist[i] = heapDist[parent];
+					heapIndex[i] = heapIndex[parent];
+					i = parent;
+				}
+				heapDist[i] = distSq;
+				heapIndex[i] = index;
+			} else if (distSq < heapDist[0])
+				siftDown(index, distSq, size);
+		}
+
+		/**
+		 * Removes the farthest point
+		 */
+		void pop() {
+			size--;
+			if (size > 0)
+				siftDown(heapIndex[size], heapDist[size], size);
+		}
+
+		/**
+		 * Replaces the root of the heap, and moves it down into place
+		 */
+		private void siftDown(final int index, final double distSq, final int n) {
+			int i = 0;
+			while (true) {
+				int child = 2 * i + 1;
+				if (child >= n)
+					break;
+				if (child + 1 < n && heapDist[child + 1] > heapDist[child])
+					child++;
+				if (heapDist[child] <= distSq)
+					break;
+				heapDist[i] = heapDist[child];
+				heapIndex[i] = heapIndex[child];
+				i = child;
+			}
+			heapDist[i] = distSq;
+			heapIndex[i] = index;
+		}
+	}
+
+	private final Object[] mItems;
+	private final double[] mX;
+	private final double[] mY;
+	private final double[] mZ;
+
+	/*
+	 * the tree is implicit, the node of the range lo to hi is at
+	 * (lo + hi) / 2, and mAxis holds the axis it splits on
+	 */
+	private final byte[] mAxis;
+
+	/**
+	 * Builds a new KdTree, item[i] being at lats[i]/lngs[i]
+	 * 
+	 * @param items
+	 * @param lats
+	 * @param lngs
+	 * @author ricky barrette
+	 */
+	public KdTree(final T[] items, final double[] lats, final double[] lngs) {
+		if (lats.length != items.length || lngs.length != items.length)
+			throw new IllegalArgumentException("items, lats and lngs must be the same length");
+
+		final int n = items.length;
+		mItems = new Object[n];
+		mX = new double[n];
+		mY = new double[n];
+		mZ = new double[n];
+		mAxis = new byte[n];
+		for (int i = 0; i < n; i++) {
+			mItems[i] = items[i];
+			final double lat = Math.toRadians(lats[i]);
+			final double lon = Math.toRadians(lngs[i]);
+			final double cosLat = Math.cos(lat);
+			mX[i] = cosLat * Math.cos(lon);
+			mY[i] = cosLat * Math.sin(lon);
+			mZ[i] = Math.sin(lat);
+		}
+		build(0, n);
+	}
+
+	/**
+	 * Builds a new KdTree
+	 * 
+	 * @param items
+	 * @param points
+	 *            points.get(i) is the location of items.get(i)
+	 * @author ricky barrette
+	 */
+	@SuppressWarnings("unchecked")
+	public KdTree(final List<T> items, final List<LatLng> points) {
+		this((T[]) items.toArray(), lats(points), lngs(points));
+	}
+
+	/**
+	 * @param points
+	 * @return the latitudes of points
+	 * @author ricky barrette
+	 */
+	private static double[] lats(final List<LatLng> points) {
+		final double[] lats = new double[points.size()];
+		for (int i = 0; i < lats.length; i++)
+			lats[i] = points.get(i).latitude;
+		return lats;
+	}
+
+	/**
+	 * @param points
+	 * @return the longitudes of points
+	 * @author ricky barrette
+	 */
+	private static double[] lngs(final List<LatLng> points) {
+		final double[] lngs = new double[points.size()];
+		for (int i = 0; i < lngs.length; i++)
+			lngs[i] = points.get(i).longitude;
+		return lngs;
+	}
+
+	/**
+	 * Recursively arranges the points from lo to hi into a subtree, splitting
+	 * on the axis with the largest spread
+	 * 
+	 * @param lo
+	 * @param hi
+	 *            exclusive
+	 * @author ricky barrette
+	 */
+	private void build(final int lo, final int hi) {
+		if (hi - lo < 2)
+			return;
+
+		double minX = 1, maxX = -1, minY = 1, maxY = -1, minZ = 1, maxZ = -1;
+		for (int i = lo; i < hi; i++) {
+			minX = Math.min(minX, mX[i]);
+			maxX = Math.max(maxX, mX[i]);
+			minY = Math.min(minY, mY[i]);
+			maxY = Math.max(maxY, mY[i]);
+			minZ = Math.min(minZ, mZ[i]);
+			maxZ = Math.max(maxZ, mZ[i]);
+		}
+		final double spreadX = maxX - minX, spreadY = maxY - minY, spreadZ = maxZ - minZ;
+		final byte axis = spreadX >= spreadY && spreadX >= spreadZ ? 0 : spreadY >= spreadZ ? (byte) 1 : (byte) 2;
+
+		final int mid = lo + hi >>> 1;
+		select(lo, hi - 1, mid, axis);
+		mAxis[mid] = axis;
+		build(lo, mid);
+		build(mid + 1, hi);
+	}
+
+	/**
+	 * @param i
+	 * @param axis
+	 * @return point i's coordinate on the axis
+	 * @author ricky barrette
+	 */
+	private double coordinate(final int i, final int axis) {
+		return axis == 0 ? mX[i] : axis == 1 ? mY[i] : mZ[i];
+	}
+
+	/**
+	 * @param chordSq
+	 *            squared chord distance on the unit sphere
+	 * @return great circle distance in KM
+	 * @author ricky barrette
+	 */
+	private static double chordSqToKm(final double chordSq) {
+		return 2 * Math.asin(Math.min(Math.sqrt(chordSq) / 2, 1)) * GeoUtils.EARTH_RADIUS_KM;
+	}
+
+	/**
+	 * @param km
+	 *            great circle distance
+	 * @return squared chord distance on the unit sphere
+	 * @author ricky barrette
+	 */
+	private static double kmToChordSq(final double km) {
+		final double angle = km / GeoUtils.EARTH_RADIUS_KM;
+		if (angle >= Math.PI)
+			return Double.POSITIVE_INFINITY;
+		final double chord = 2 * Math.sin(angle / 2);
+		return chord * chord;
+	}
+
+	/**
+	 * Finds the k nearest points to lat/lon that are within maxDistance of it
+	 * 
+	 * @param lat
+	 * @param lon
+	 * @param k
+	 *            max number of points to find
+	 * @param maxDistance
+	 *            in KM, or Double.POSITIVE_INFINITY for no limit
+	 * @param out
+	 *            list the items are added to, nearest first
+	 * @param distances
+	 *            optional array of at least k to receive the distances of the
+	 *            items in KM, may be null
+	 * @return the number of items found
+	 * @author ricky barrette
+	 */
+	@SuppressWarnings("unchecked")
+	public int nearest(final double lat, final double lon, final int k, final double maxDistance, final List<T> out, final double[] distances) {
+		if (k <= 0 || mItems.length == 0)
+			return 0;
+
+		final Query query = new Query(lat, lon, Math.min(k, mItems.length), kmToChordSq(maxDistance));
+		search(query, 0, mItems.length);
+
+		// the heap pops farthest first
+		final int count = query.size;
+		final int start = out.size();
+		for (int i = 0; i < count; i++)
+			out.add(null);
+		for (int i = count - 1; i >= 0; i--) {
+			final double chordSq = query.heapDist[0];
+			out.set(start + i, (T) mItems[query.heapIndex[0]]);
+			if (distances != null)
+				distances[i] = chordSqToKm(chordSq);
+			query.pop();
+		}
+		return count;
+	}
+
+	/**
+	 * Finds the k nearest points to point
+	 * 
+	 * @param point
+	 * @param k
+	 * @return a new list of the k nearest items, nearest first
+	 * @author ricky barrette
+	 */
+	public List<T> nearest(final LatLng point, final int k) {
+		final List<T> out = new ArrayList<T>(Math.max(Math.min(k, mItems.length), 0));
+		nearest(point.latitude, point.longitude, k, Double.POSITIVE_INFINITY, out, null);
+		return out;
+	}
+
+	/**
+	 * Recursively searches the subtree of lo to hi for the query's nearest
+	 * points
+	 * 
+	 * @param query
+	 * @param lo
+	 * @param hi
+	 *            exclusive
+	 * @author ricky barrette
+	 */
+	private void search(final Query query, final int lo, final int hi) {
+		if (lo >= hi)
+			return;
+		final int mid = lo + hi >>> 1;
+
+		final double dx = mX[mid] - query.x, dy = mY[mid] - query.y, dz = mZ[mid] - query.z;
+		query.offer(mid, dx * dx + dy * dy + dz * dz);
+
+		if (hi - lo == 1)
+			return;
+		final int axis = mAxis[mid];
+		final double diff = query.coordinate(axis) - coordinate(mid, axis);
+		// search the side of the split the query is on first, then the other
+		// side only if it could hold something closer
+		if (diff < 0) {
+			search(query, lo, mid);
+			if (diff * diff <= query.bound())
+				search(query, mid + 1, hi);
+		} else {
+			search(query, mid + 1, hi);
+			if (diff * diff <= query.bound())
+				search(query, lo, mid);
+		}
+	}
+
+	/**
+	 * Partially sorts the points from lo to hi on an axis, so the point at k
+	 * is in its sorted place, those before it are no greater and those after
+	 * it are no less
+	 * 
+	 * @param lo
+	 * @param hi
+	 *            inclusive
+	 * @param k
+	 * @param axis
+	 * @author ricky barrette
+	 */
+	private void select(int lo, int hi, final int k, final int axis) {
+		while (hi > lo) {
+			final double pivot = coordinate(lo + hi >>> 1, axis);
+			int i = lo, j = hi;
+			while (i <= j) {
+				while (coordinate(i, axis) < pivot)
+					i++;
+				while (coordinate(j, axis) > pivot)
+					j--;
+				if (i <= j)
+					swap(i++, j--);
+			}
+			if (k <= j)
+				hi = j;
+			else if (k >= i)
+				lo = i;
+			else
+				return;
+		}
+	}
+
+	/**
+	 * @return the number of points in the tree
+	 * @author ricky barrette
+	 */
+	public int size() {
+		return mItems.length;
+	}
+
+	/**
+	 * Swaps points i and j
+	 * 
+	 * @author ricky barrette
+	 */
+	private void swap(final int i, final int j) {
+		final Object item = mItems[i];
+		mItems[i] = mItems[j];
+		mItems[j] = item;
+		double t = mX[i];
+		mX[i] = mX[j];
+		mX[j] = t;
+		t = mY[i];
+		mY[i] = mY[j];
+		mY[j] = t;
+		t = mZ[i];
+		mZ[i] = mZ[j];
+		mZ[j] = t;
+	}
+
+	/**
+	 * Finds all of the points within radius of lat/lon, in no particular
+	 * order. Use nearest() with a max distance if the closest ones matter.
+	 * 
+	 * @param lat
+	 * @param lon
+	 * @param radius
+	 *            in KM
+	 * @param out
+	 *            list the items are added to
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> within(final double lat, final double lon, final double radius, final List<T> out) {
+		final double latRad = Math.toRadians(lat);
+		final double lonRad = Math.toRadians(lon);
+		final double cosLat = Math.cos(latRad);
+		final double[] q = { cosLat * Math.cos(lonRad), cosLat * Math.sin(lonRad), Math.sin(latRad) };
+		final double boundSq = kmToChordSq(radius);
+
+		// walk the tree with an explicit stack of lo/hi ranges
+		final int[] stack = new int[2 * 64];
+		int top = 0;
+		stack[top++] = 0;
+		stack[top++] = mItems.length;
+		while (top > 0) {
+			final int hi = stack[--top];
+			final int lo = stack[--top];
+			if (lo >= hi)
+				continue;
+			final int mid = lo + hi >>> 1;
+			final double dx = mX[mid] - q[0], dy = mY[mid] - q[1], dz = mZ[mid] - q[2];
+			if (dx * dx + dy * dy + dz * dz <= boundSq)
+				out.add((T) mItems[mid]);
+			if (hi - lo == 1)
+				continue;
+
+			final int axis = mAxis[mid];
+			final double diff = q[axis] - coordinate(mid, axis);
+			if (diff <= 0 || diff * diff <= boundSq) {
+				stack[top++] = lo;
+				stack[top++] = mid;
+			}
+			if (diff >= 0 || diff * diff <= boundSq) {
+				stack[top++] = mid + 1;
+				stack[top++] = hi;
+			}
+		}
+		return out;
+	}
+}
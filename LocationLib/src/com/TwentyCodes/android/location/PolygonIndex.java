@@ -0,0 +1,218 @@
+/**
+ * PolygonIndex.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.google.android.gms.maps.model.LatLng;
+
+/**
+ * A collection of polygonal geofences that tests a fix against all of them at
+ * once. The bounding boxes of the polygons are kept in flat arrays, so most
+ * polygons are rejected with a few compares without touching the polygon
+ * itself, and only the polygons whose box contains the fix are ray cast.
+ * 
+ * This class is not thread safe.
+ * 
+ * @author ricky barrette
+ */
+public class PolygonIndex<T> {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private final HashMap<T, Integer> mIndexes = new HashMap<T, Integer>();
+	private Object[] mItems = new Object[INITIAL_CAPACITY];
+	private GeoPolygon[] mPolygons = new GeoPolygon[INITIAL_CAPACITY];
+	private double[] mSouth = new double[INITIAL_CAPACITY];
+	private double[] mNorth = new double[INITIAL_CAPACITY];
+	private double[] mWest = new double[INITIAL_CAPACITY];
+	private double[] mWidth = new double[INITIAL_CAPACITY];
+	private int mSize;
+
+	/**
+	 * Adds a fence to the index, replacing it if it was already added
+	 * 
+	 * @param item
+	 *            the fence
+	 * @param polygon
+	 *            its zone
+	 * @author ricky barrette
+	 */
+	public void add(final T item, final GeoPolygon polygon) {
+		if (item == null || polygon == null)
+			throw new NullPointerException();
+		remove(item);
+		if (mSize == mItems.length)
+			grow();
+		mItems[mSize] = item;
+		set(mSize, polygon);
+		mIndexes.put(item, mSize);
+		mSize++;
+	}
+
+	/**
+	 * Removes all fences from the index
+	 * 
+	 * @author ricky barrette
+	 */
+	public void clear() {
+		for (int i = 0; i < mSize; i++) {
+			mItems[i] = null;
+			mPolygons[i] = null;
+		}
+		mIndexes.clear();
+		mSize = 0;
+	}
+
+	/**
+	 * @param item
+	 * @return true if the fence is in this index
+	 * @author ricky barrette
+	 */
+	public boolean contains(final T item) {
+		return mIndexes.containsKey(item);
+	}
+
+	/**
+	 * @param item
+	 * @return the fence's polygon, or null if it is not in this index
+	 * @author ricky barrette
+	 */
+	public GeoPolygon get(final T item) {
+		final Integer index = mIndexes.get(item);
+		return index == null ? null : mPolygons[index];
+	}
+
+	/**
+	 * Doubles the capacity of the index
+	 * 
+	 * @author ricky barrette
+	 */
+	private void grow() {
+		final int capacity = mItems.length * 2;
+		final Object[] items = new Object[capacity];
+		final GeoPolygon[] polygons = new GeoPolygon[capacity];
+		final double[] south = new double[capacity];
+		final double[] north = new double[capacity];
+		final double[] west = new double[capacity];
+		final double[] width = new double[capacity];
+		System.arraycopy(mItems, 0, items, 0, mSize);
+		System.arraycopy(mPolygons, 0, polygons, 0, mSize);
+		System.arraycopy(mSouth, 0, south, 0, mSize);
+		System.arraycopy(mNorth, 0, north, 0, mSize);
+		System.arraycopy(mWest, 0, west, 0, mSize);
+		System.arraycopy(mWidth, 0, width, 0, mSize);
+		mItems = items;
+		mPolygons = polygons;
+		mSouth = south;
+		mNorth = north;
+		mWest = west;
+		mWidth = width;
+	}
+
+	/**
+	 * Finds the fences that contain a point
+	 * 
+	 * @param lat
+	 * @param lon
+	 *            -180 to 180
+	 * @param out
+	 *            list the containing fences are added to
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	@SuppressWarnings("unchecked")
+	public List<T> query(final double lat, final double lon, final List<T> out) {
+		for (int i = 0; i < mSize; i++) {
+			if (lat < mSouth[i] || lat > mNorth[i])
+				continue;
+			// distance east of the box's west edge, 0 to 360
+			double east = lon - mWest[i];
+			if (east < 0)
+				east += 360;
+			if (east > mWidth[i])
+				continue;
+			if (mPolygons[i].contains(lat, lon))
+				out.add((T) mItems[i]);
+		}
+		return out;
+	}
+
+	/**
+	 * Finds the fences that contain a point
+	 * 
+	 * @param point
+	 * @return a new list of the containing fences
+	 * @author ricky barrette
+	 */
+	public List<T> query(final LatLng point) {
+		return query(point.latitude, point.longitude, new ArrayList<T>());
+	}
+
+	/**
+	 * Removes a fence from the index
+	 * 
+	 * @param item
+	 * @return true if the fence was in the index
+	 * @author ricky barrette
+	 */
+	@SuppressWarnings("unchecked")
+	public boolean remove(final T item) {
+		final Integer index = mIndexes.remove(item);
+		if (index == null)
+			return false;
+
+		// move the last fence into the hole
+		final int last = --mSize;
+		if (index != last) {
+			mItems[index] = mItems[last];
+			set(index, mPolygons[last]);
+			mIndexes.put((T) mItems[index], index);
+		}
+		mItems[last] = null;
+		mPolygons[last] = null;
+		return true;
+	}
+
+	/**
+	 * Stores a polygon and its bounding box at an index
+	 * 
+	 * @param index
+	 * @param polygon
+	 * @author ricky barrette
+	 */
+	private void set(final int index, final GeoPolygon polygon) {
+		mPolygons[index] = polygon;
+		mSouth[index] = polygon.getSouth();
+		mNorth[index] = polygon.getNorth();
+		mWest[index] = polygon.getWest();
+		mWidth[index] = polygon.getEast() - polygon.getWest();
+	}
+
+	/**
+	 * @return the number of fences in the index
+	 * @author ricky barrette
+	 */
+	public int size() {
+		return mSize;
+	}
+}
@@ -0,0 +1,313 @@
+/**
+ * Polyline.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+/**
+ * A growable polyline of microdegree coordinates, kept as interleaved lat/lon
+ * ints in a single array, like {@link GeoUtilsE6#deltaEncode(int[], int, int[])}
+ * . A route of thousands of vertices is one object and one array, instead of
+ * an object per vertex.
+ * 
+ * It also decodes Google's encoded polyline format, straight from a range of
+ * chars or bytes, so the polylines of a Directions response never have to be
+ * copied into Strings.
+ * 
+ * This class is not thread safe.
+ * 
+ * @author ricky barrette
+ */
+public class Polyline {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private int[] mPoints;
+	private int mSize;
+
+	/**
+	 * Creates a new empty Polyline
+	 * 
+	 * @author ricky barrette
+	 */
+	public Polyline() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Creates a new empty Polyline
+	 * 
+	 * @param capacity
+	 *            number of points to make room for
+	 * @author ricky barrette
+	 */
+	public Polyline(final int capacity) {
+		mPoints = new int[Math.max(capacity, 1) * 2];
+	}
+
+	/**
+	 * Decodes an encoded polyline
+	 * 
+	 * @param encoded
+	 * @return a new Polyline
+	 * @throws IllegalArgumentException
+	 *             if the polyline is truncated or malformed
+	 * @author ricky barrette
+	 */
+	public static Polyline decode(final CharSequence encoded) {
+		final Polyline polyline = new Polyline(encoded.length() / 4);
+		polyline.append(encoded, 0, encoded.length(), false);
+		return polyline;
+	}
+
+	/**
+	 * Adds a point to the end of the polyline
+	 * 
+	 * @param latE6
+	 * @param lonE6
+	 * @author ricky barrette
+	 */
+	public void add(final int latE6, final int lonE6) {
+		ensureCapacity(mSize + 1);
+		mPoints[mSize * 2] = latE6;
+		mPoints[mSize * 2 + 1] = lonE6;
+		mSize++;
+	}
+
+	/**
+	 * Decodes an encoded polyline from bytes, ie straight out of a response
+	 * buffer, and adds its points to the end of this polyline
+	 * 
+	 * @param encoded
+	 *            US-ASCII encoded polyline
+	 * @param offset
+	 *            of the first byte
+	 * @param length
+	 *            number of bytes
+	 * @param isJoined
+	 *            if true, the first decoded point is skipped when it is the
+	 *            same as the last point of this polyline, so the steps of a
+	 *            route can be appended one after another
+	 * @return this, for convenience
+	 * @throws IllegalArgumentException
+	 *             if the polyline is truncated or malformed
+	 * @author ricky barrette
+	 */
+	public Polyline append(final byte[] encoded, final int offset, final int length, final boolean isJoined) {
+		final int end = offset + length;
+		if (offset < 0 || length < 0 || end > encoded.length)
+			throw new IndexOutOfBoundsException();
+		ensureCapacity(mSize + length / 4);
+
+		boolean isFirst = isJoined;
+		int index = offset;
+		int lat = 0, lng = 0;
+		while (index < end) {
+			int b, shift = 0, result = 0;
+			do {
+				if (index == end)
+					throw new IllegalArgumentException("truncated polyline");
+				b = encoded[index++] - 63;
+				if (b < 0 || b > 63)
+					throw new IllegalArgumentException("malformed polyline");
+				result |= (b & 0x1f) << shift;
+				shift += 5;
+			} while (b >= 0x20);
+			lat += (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+
+			shift = 0;
+			result = 0;
+			do {
+				if (index == end)
+					throw new IllegalArgumentException("truncated polyline");
+				b = encoded[index++] - 63;
+				if (b < 0 || b > 63)
+					throw new IllegalArgumentException("malformed polyline");
+				result |= (b & 0x1f) << shift;
+				shift += 5;
+			} while (b >= 0x20);
+			lng += (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+
+			addDecoded(lat, lng, isFirst);
+			isFirst = false;
+		}
+		return this;
+	}
+
+	/**
+	 * Decodes an encoded polyline from a range of chars, and adds its points
+	 * to the end of this polyline
+	 * 
+	 * @param encoded
+	 * @param start
+	 *            index of the first char
+	 * @param end
+	 *            index after the last char
+	 * @param isJoined
+	 *            if true, the first decoded point is skipped when it is the
+	 *            same as the last point of this polyline, so the steps of a
+	 *            route can be appended one after another
+	 * @return this, for convenience
+	 * @throws IllegalArgumentException
+	 *             if the polyline is truncated or malformed
+	 * @author ricky barrette
+	 */
+	public Polyline append(final CharSequence encoded, final int start, final int end, final boolean isJoined) {
+		if (start < 0 || start > end || end > encoded.length())
+			throw new IndexOutOfBoundsException();
+		ensureCapacity(mSize + (end - start) / 4);
+
+		boolean isFirst = isJoined;
+		int index = start;
+		int lat = 0, lng = 0;
+		while (index < end) {
+			int b, shift = 0, result = 0;
+			do {
+				if (index == end)
+					throw new IllegalArgumentException("truncated polyline");
+				b = encoded.charAt(index++) - 63;
+				if (b < 0 || b > 63)
+					throw new IllegalArgumentException("malformed polyline");
+				result |= (b & 0x1f) << shift;
+				shift += 5;
+			} while (b >= 0x20);
+			lat += (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+
+			shift = 0;
+			result = 0;
+			do {
+				if (index == end)
+					throw new IllegalArgumentException("truncated polyline");
+				b = encoded.charAt(index++) - 63;
+				if (b < 0 || b > 63)
+					throw new IllegalArgumentException("malformed polyline");
+				result |= (b & 0x1f) << shift;
+				shift += 5;
+			} while (b >= 0x20);
+			lng += (result & 1) != 0 ? ~(result >> 1) : result >> 1;
+
+			addDecoded(lat, lng, isFirst);
+			isFirst = false;
+		}
+		return this;
+	}
+
+	/**
+	 * Adds a decoded point, converting it from 1e5 to 1e6 degrees
+	 * 
+	 * @param latE5
+	 * @param lngE5
+	 * @param isJoined
+	 *            true if the point is the first of a joined decode, and is
+	 *            skipped when it is the same as the last point
+	 * @author ricky barrette
+	 */
+	private void addDecoded(final int latE5, final int lngE5, final boolean isJoined) {
+		final int latE6 = latE5 * 10;
+		final int lonE6 = lngE5 * 10;
+		if (isJoined && mSize > 0 && mPoints[mSize * 2 - 2] == latE6 && mPoints[mSize * 2 - 1] == lonE6)
+			return;
+		add(latE6, lonE6);
+	}
+
+	/**
+	 * Removes all points, keeping the capacity
+	 * 
+	 * @author ricky barrette
+	 */
+	public void clear() {
+		mSize = 0;
+	}
+
+	/**
+	 * Makes sure there is room for a number of points
+	 * 
+	 * @param capacity
+	 *            in points
+	 * @author ricky barrette
+	 */
+	public void ensureCapacity(final int capacity) {
+		if (capacity * 2 <= mPoints.length)
+			return;
+		final int[] points = new int[Math.max(capacity * 2, mPoints.length * 2)];
+		System.arraycopy(mPoints, 0, points, 0, mSize * 2);
+		mPoints = points;
+	}
+
+	/**
+	 * @param index
+	 * @return the latitude of a point in microdegrees
+	 * @author ricky barrette
+	 */
+	public int getLatitudeE6(final int index) {
+		if (index >= mSize)
+			throw new IndexOutOfBoundsException();
+		return mPoints[index * 2];
+	}
+
+	/**
+	 * @param index
+	 * @return the longitude of a point in microdegrees
+	 * @author ricky barrette
+	 */
+	public int getLongitudeE6(final int index) {
+		if (index >= mSize)
+			throw new IndexOutOfBoundsException();
+		return mPoints[index * 2 + 1];
+	}
+
+	/**
+	 * @return the backing array of interleaved lat/lon microdegrees. Only the
+	 *         first size() * 2 ints are points, and the array is replaced when
+	 *         the polyline grows.
+	 * @author ricky barrette
+	 */
+	public int[] getPoints() {
+		return mPoints;
+	}
+
+	/**
+	 * @return the number of points
+	 * @author ricky barrette
+	 */
+	public int size() {
+		return mSize;
+	}
+
+	/**
+	 * @return the latitudes of the points in degrees
+	 * @author ricky barrette
+	 */
+	public double[] toLatitudes() {
+		final double[] lats = new double[mSize];
+		for (int i = 0; i < mSize; i++)
+			lats[i] = mPoints[i * 2] / 1E6;
+		return lats;
+	}
+
+	/**
+	 * @return the longitudes of the points in degrees
+	 * @author ricky barrette
+	 */
+	public double[] toLongitudes() {
+		final double[] lngs = new double[mSize];
+		for (int i = 0; i < mSize; i++)
+			lngs[i] = mPoints[i * 2 + 1] / 1E6;
+		return lngs;
+	}
+}
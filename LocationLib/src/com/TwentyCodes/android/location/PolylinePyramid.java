@@ -0,0 +1,150 @@
+/**
+ * PolylinePyramid.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+/**
+ * A polyline simplified for every zoom level of the map, so a zoomed out
+ * route is drawn with only the handful of vertices that can be told apart at
+ * that scale, rather than all of them.
+ * 
+ * The Douglas-Peucker significance of each vertex is computed once, see
+ * {@link PolylineSimplifier}, and each zoom level keeps the vertices that
+ * stray from the simplified line by more than a pixel tolerance at that zoom.
+ * The levels are nested, so a level that keeps no more vertices than the one
+ * below it is shared with it, and the levels from the first one that keeps
+ * more than half of the vertices up are the polyline itself, so the levels
+ * together take no more memory than the polyline.
+ * 
+ * This class is not thread safe, but may be handed from the thread that
+ * built it to another.
+ * 
+ * @author ricky barrette
+ */
+public class PolylinePyramid {
+
+	/**
+	 * Deepest zoom level of google maps
+	 */
+	public static final int MAX_ZOOM = 21;
+
+	/**
+	 * Default number of pixels a simplified line may stray from the route
+	 */
+	public static final double DEFAULT_TOLERANCE = 1;
+
+	private final Polyline mPolyline;
+	private final Polyline[] mLevels = new Polyline[MAX_ZOOM + 1];
+	private final int mSize;
+	private final double mTolerance;
+
+	/**
+	 * Creates a new PolylinePyramid with the default tolerance
+	 * 
+	 * @param polyline
+	 * @author ricky barrette
+	 */
+	public PolylinePyramid(final Polyline polyline) {
+		this(polyline, DEFAULT_TOLERANCE);
+	}
+
+	/**
+	 * Creates a new PolylinePyramid
+	 * 
+	 * @param polyline
+	 *            which must not be changed afterwards, see {@link #isStale()}
+	 * @param tolerance
+	 *            number of pixels a simplified line may stray from the route
+	 * @author ricky barrette
+	 */
+	public PolylinePyramid(final Polyline polyline, final double tolerance) {
+		if (polyline == null)
+			throw new NullPointerException();
+		mPolyline = polyline;
+		mSize = polyline.size();
+		mTolerance = tolerance;
+		if (mSize < 3) {
+			for (int zoom = 0; zoom <= MAX_ZOOM; zoom++)
+				mLevels[zoom] = polyline;
+			return;
+		}
+
+		final double[] lats = polyline.toLatitudes();
+		final double[] significance = PolylineSimplifier.douglasPeucker(lats, polyline.toLongitudes());
+		double meanLat = 0;
+		for (final double lat : lats)
+			meanLat += lat;
+		meanLat /= mSize;
+
+		final int[] points = polyline.getPoints();
+		final int[] kept = new int[mSize];
+		Polyline level = null;
+		int zoom = 0;
+		for (; zoom <= MAX_ZOOM; zoom++) {
+			final int count = PolylineSimplifier.select(significance, mSize, tolerance * PolylineSimplifier.metersPerPixel(meanLat, zoom), kept);
+			// a copy of most of the polyline saves little drawing for its memory
+			if (count * 2 > mSize)
+				break;
+			if (level == null || count > level.size()) {
+				level = new Polyline(count);
+				for (int i = 0; i < count; i++)
+					level.add(points[kept[i] * 2], points[kept[i] * 2 + 1]);
+			}
+			mLevels[zoom] = level;
+		}
+		for (; zoom <= MAX_ZOOM; zoom++)
+			mLevels[zoom] = polyline;
+	}
+
+	/**
+	 * @param zoom
+	 *            google maps zoom level, clamped to 0 - MAX_ZOOM
+	 * @return the polyline simplified for the zoom level, which may be the
+	 *         polyline itself or shared with other levels
+	 * @author ricky barrette
+	 */
+	public Polyline getLevel(final int zoom) {
+		return mLevels[Math.max(0, Math.min(MAX_ZOOM, zoom))];
+	}
+
+	/**
+	 * @return the full polyline
+	 * @author ricky barrette
+	 */
+	public Polyline getPolyline() {
+		return mPolyline;
+	}
+
+	/**
+	 * @return the number of pixels a simplified line may stray from the route
+	 * @author ricky barrette
+	 */
+	public double getTolerance() {
+		return mTolerance;
+	}
+
+	/**
+	 * @return true if points have been added to the polyline since the
+	 *         pyramid was built, so it should be built again
+	 * @author ricky barrette
+	 */
+	public boolean isStale() {
+		return mPolyline.size() != mSize;
+	}
+}
@@ -0,0 +1,396 @@
+/**
+ * PolylineSimplifier.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+/**
+ * This class contains tools for simplifying polylines, ie routes and tracks,
+ * so fewer vertices have to be projected and drawn when zoomed out.
+ * 
+ * Rather than simplifying for a single tolerance, each algorithm computes the
+ * significance of every vertex once: the largest tolerance at which that
+ * vertex is still kept. Any tolerance can then be served with
+ * {@link #select(double[], int, double, int[])} in O(n) without re-running
+ * the algorithm. The first and last vertices always have a significance of
+ * Double.POSITIVE_INFINITY.
+ * 
+ * Distances are measured on a flat projection centered on the polyline's mean
+ * latitude, which is plenty accurate for the lengths of routes this is used
+ * for.
+ * 
+ * @author ricky barrette
+ */
+public class PolylineSimplifier {
+
+	/**
+	 * Web mercator ground resolution at the equator for zoom level 0, in meters
+	 * per pixel
+	 */
+	private static final double METERS_PER_PIXEL_ZOOM_0 = 156543.03392;
+
+	/**
+	 * Computes the Douglas-Peucker significance of each vertex: the distance in
+	 * meters from the vertex to the chord it was split from. Selecting with a
+	 * tolerance gives the same vertices as running Douglas-Peucker with that
+	 * tolerance in meters.
+	 * 
+	 * @param lats
+	 * @param lngs
+	 * @param count
+	 *            number of vertices to use from lats/lngs
+	 * @param out
+	 *            array of at least count to receive the significances
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static double[] douglasPeucker(final double[] lats, final double[] lngs, final int count, final double[] out) {
+		if (count <= 0)
+			return out;
+		final double[] x = new double[count];
+		final double[] y = new double[count];
+		project(lats, lngs, count, x, y);
+
+		for (int i = 0; i < count; i++)
+			out[i] = 0;
+		out[0] = Double.POSITIVE_INFINITY;
+		out[count - 1] = Double.POSITIVE_INFINITY;
+		if (count < 3)
+			return out;
+
+		/*
+		 * use an explicit stack of {first, last} ranges rather than recursion
+		 * so long tracks can't overflow the call stack. since the smaller half
+		 * of each split is processed first, the stack never holds more than
+		 * log2(count) + 1 ranges
+		 */
+		final int[] stack = new int[2 * 64];
+		final double[] limits = new double[64];
+		stack[0] = 0;
+		stack[1] = count - 1;
+		limits[0] = Double.POSITIVE_INFINITY;
+		int top = 1;
+		while (top > 0) {
+			top--;
+			final int first = stack[top * 2];
+			final int last = stack[top * 2 + 1];
+			final double limit = limits[top];
+
+			int index = -1;
+			double max = -1;
+			for (int i = first + 1; i < last; i++) {
+				final double d = segmentDistanceSq(x[i], y[i], x[first], y[first], x[last], y[last]);
+				if (d > max) {
+					max = d;
+					index = i;
+				}
+			}
+			if (index < 0)
+				continue;
+
+			/*
+			 * a vertex is only kept if the vertex that split its range was kept,
+			 * so it can never be more significant than that vertex
+			 */
+			final double significance = Math.min(Math.sqrt(max), limit);
+			out[index] = significance;
+
+			// push the larger range first so the smaller is processed first
+			if (index - first > last - index) {
+				top = push(stack, limits, top, first, index, significance);
+				top = push(stack, limits, top, index, last, significance);
+			} else {
+				top = push(stack, limits, top, index, last, significance);
+				top = push(stack, limits, top, first, index, significance);
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Computes the Douglas-Peucker significances of each vertex
+	 * 
+	 * @see #douglasPeucker(double[], double[], int, double[])
+	 * @param lats
+	 * @param lngs
+	 * @return a new array of significances in meters
+	 * @author ricky barrette
+	 */
+	public static double[] douglasPeucker(final double[] lats, final double[] lngs) {
+		return douglasPeucker(lats, lngs, lats.length, new double[lats.length]);
+	}
+
+	/**
+	 * @param lat
+	 *            latitude being viewed
+	 * @param zoom
+	 *            google maps zoom level
+	 * @return the number of meters a pixel covers
+	 * @author ricky barrette
+	 */
+	public static double metersPerPixel(final double lat, final int zoom) {
+		return METERS_PER_PIXEL_ZOOM_0 * Math.cos(Math.toRadians(lat)) / (1L << zoom);
+	}
+
+	/**
+	 * Projects lat/lon onto a flat plane in meters, centered on the mean
+	 * latitude
+	 * 
+	 * @param lats
+	 * @param lngs
+	 * @param count
+	 * @param x
+	 * @param y
+	 * @author ricky barrette
+	 */
+	private static void project(final double[] lats, final double[] lngs, final int count, final double[] x, final double[] y) {
+		double mean = 0;
+		for (int i = 0; i < count; i++)
+			mean += lats[i];
+		final double scale = Math.toRadians(1) * GeoUtils.EARTH_RADIUS_KM * 1000;
+		final double lonScale = scale * Math.cos(Math.toRadians(mean / count));
+		final double lon0 = lngs[0];
+		for (int i = 0; i < count; i++) {
+			double dLon = lngs[i] - lon0;
+			// keep tracks that cross the anti-meridian continuous
+			if (dLon > 180)
+				dLon -= 360;
+			else if (dLon < -180)
+				dLon += 360;
+			x[i] = dLon * lonScale;
+			y[i] = lats[i] * scale;
+		}
+	}
+
+	/**
+	 * Pushes a range onto the Douglas-Peucker stack if it has interior
+	 * vertices
+	 * 
+	 * @return the new top of the stack
+	 * @author ricky barrette
+	 */
+	private static int push(final int[] stack, final double[] limits, final int top, final int first, final int last, final double limit) {
+		if (last - first < 2)
+			return top;
+		stack[top * 2] = first;
+		stack[top * 2 + 1] = last;
+		limits[top] = limit;
+		return top + 1;
+	}
+
+	/**
+	 * @return the squared distance from p to the segment a-b
+	 * @author ricky barrette
+	 */
+	private static double segmentDistanceSq(final double px, final double py, final double ax, final double ay, final double bx, final double by) {
+		final double dx = bx - ax;
+		final double dy = by - ay;
+		final double lengthSq = dx * dx + dy * dy;
+		double t = 0;
+		if (lengthSq > 0) {
+			t = ((px - ax) * dx + (py - ay) * dy) / lengthSq;
+			if (t < 0)
+				t = 0;
+			else if (t > 1)
+				t = 1;
+		}
+		final double ex = ax + t * dx - px;
+		final double ey = ay + t * dy - py;
+		return ex * ex + ey * ey;
+	}
+
+	/**
+	 * Selects the vertices that are kept at a tolerance
+	 * 
+	 * @param significance
+	 *            as computed by douglasPeucker() or visvalingam()
+	 * @param count
+	 *            number of vertices
+	 * @param tolerance
+	 *            in the units of significance, meters for douglasPeucker()
+	 *            and square meters for visvalingam()
+	 * @param out
+	 *            array of at least count to receive the indexes of the kept
+	 *            vertices, in order
+	 * @return the number of vertices kept
+	 * @author ricky barrette
+	 */
+	public static int select(final double[] significance, final int count, final double tolerance, final int[] out) {
+		int kept = 0;
+		for (int i = 0; i < count; i++)
+			if (significance[i] > tolerance)
+				out[kept++] = i;
+		return kept;
+	}
+
+	/**
+	 * Computes the Visvalingam-Whyatt significance of each vertex: the area in
+	 * square meters of the triangle it formed with its neighbours when it was
+	 * eliminated. Areas are never allowed to be smaller than that of a
+	 * previously eliminated vertex, so selecting with a tolerance gives the
+	 * same vertices as running Visvalingam-Whyatt to that area.
+	 * 
+	 * @param lats
+	 * @param lngs
+	 * @param count
+	 *            number of vertices to use from lats/lngs
+	 * @param out
+	 *            array of at least count to receive the significances
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static double[] visvalingam(final double[] lats, final double[] lngs, final int count, final double[] out) {
+		if (count <= 0)
+			return out;
+		final double[] x = new double[count];
+		final double[] y = new double[count];
+		project(lats, lngs, count, x, y);
+
+		out[0] = Double.POSITIVE_INFINITY;
+		out[count - 1] = Double.POSITIVE_INFINITY;
+		if (count < 3)
+			return out;
+
+		/*
+		 * the interior vertices are kept in a binary min heap ordered by
+		 * area, with a doubly linked list of the remaining vertices so
+		 * neighbours can be found as vertices are removed
+		 */
+		final int[] prev = new int[count];
+		final int[] next = new int[count];
+		final int[] heap = new int[count - 2];
+		final int[] position = new int[count];
+		for (int i = 0; i < count; i++) {
+			prev[i] = i - 1;
+			next[i] = i + 1;
+		}
+		for (int i = 1; i < count - 1; i++) {
+			out[i] = triangleArea(x, y, i - 1, i, i + 1);
+			heap[i - 1] = i;
+			position[i] = i - 1;
+		}
+		int size = count - 2;
+		for (int i = size / 2 - 1; i >= 0; i--)
+			siftDown(heap, position, out, size, i);
+
+		double max = 0;
+		while (size > 0) {
+			final int vertex = heap[0];
+			size--;
+			if (size > 0) {
+				heap[0] = heap[size];
+				position[heap[0]] = 0;
+				siftDown(heap, position, out, size, 0);
+			}
+
+			if (out[vertex] < max)
+				out[vertex] = max;
+			else
+				max = out[vertex];
+
+			final int p = prev[vertex];
+			final int n = next[vertex];
+			next[p] = n;
+			prev[n] = p;
+
+			// the neighbours' triangles changed, update them in the heap
+			if (p > 0)
+				update(heap, position, out, size, p, triangleArea(x, y, prev[p], p, n));
+			if (n < count - 1)
+				update(heap, position, out, size, n, triangleArea(x, y, p, n, next[n]));
+		}
+		return out;
+	}
+
+	/**
+	 * Computes the Visvalingam-Whyatt significances of each vertex
+	 * 
+	 * @see #visvalingam(double[], double[], int, double[])
+	 * @param lats
+	 * @param lngs
+	 * @return a new array of significances in square meters
+	 * @author ricky barrette
+	 */
+	public static double[] visvalingam(final double[] lats, final double[] lngs) {
+		return visvalingam(lats, lngs, lats.length, new double[lats.length]);
+	}
+
+	/**
+	 * @return the area of the triangle formed by vertices a, b and c
+	 * @author ricky barrette
+	 */
+	private static double triangleArea(final double[] x, final double[] y, final int a, final int b, final int c) {
+		return Math.abs((x[a] - x[c]) * (y[b] - y[a]) - (x[a] - x[b]) * (y[c] - y[a])) / 2;
+	}
+
+	/**
+	 * Moves the heap entry at index down until the heap is ordered
+	 * 
+	 * @author ricky barrette
+	 */
+	private static void siftDown(final int[] heap, final int[] position, final double[] area, final int size, int index) {
+		final int vertex = heap[index];
+		while (true) {
+			int child = index * 2 + 1;
+			if (child >= size)
+				break;
+			if (child + 1 < size && area[heap[child + 1]] < area[heap[child]])
+				child++;
+			if (area[heap[child]] >= area[vertex])
+				break;
+			heap[index] = heap[child];
+			position[heap[index]] = index;
+			index = child;
+		}
+		heap[index] = vertex;
+		position[vertex] = index;
+	}
+
+	/**
+	 * Moves the heap entry at index up until the heap is ordered
+	 * 
+	 * @author ricky barrette
+	 */
+	private static void siftUp(final int[] heap, final int[] position, final double[] area, int index) {
+		final int vertex = heap[index];
+		while (index > 0) {
+			final int parent = (index - 1) / 2;
+			if (area[heap[parent]] <= area[vertex])
+				break;
+			heap[index] = heap[parent];
+			position[heap[index]] = index;
+			index = parent;
+		}
+		heap[index] = vertex;
+		position[vertex] = index;
+	}
+
+	/**
+	 * Changes the area of a vertex still in the heap
+	 * 
+	 * @author ricky barrette
+	 */
+	private static void update(final int[] heap, final int[] position, final double[] area, final int size, final int vertex, final double value) {
+		final double old = area[vertex];
+		area[vertex] = value;
+		if (value < old)
+			siftUp(heap, position, area, position[vertex]);
+		else
+			siftDown(heap, position, area, size, position[vertex]);
+	}
+}
@@ -0,0 +1,319 @@
+/**
+ * QuadKey.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+/**
+ * This class contains tools for encoding points as quadkeys, the web mercator
+ * map tile keys used by most tile servers. A quadkey is kept as a long
+ * holding 2 bits per zoom level, so keys can be used as map keys, sorted, and
+ * compared without building Strings. A key's parent tile is key >>> 2.
+ * 
+ * @author ricky barrette
+ */
+public class QuadKey {
+
+	/**
+	 * The deepest level a quadkey held in a long can have
+	 */
+	public static final int MAX_LEVEL = 31;
+
+	/**
+	 * The most northern and southern latitude web mercator tiles cover
+	 */
+	public static final double MAX_LATITUDE = 85.05112878;
+
+	/**
+	 * Appends the digits of a quadkey to the provided StringBuilder
+	 * 
+	 * @param key
+	 * @param level
+	 * @param sb
+	 * @return sb, for convenience
+	 * @author ricky barrette
+	 */
+	public static StringBuilder append(final long key, final int level, final StringBuilder sb) {
+		checkLevel(level);
+		for (int i = level - 1; i >= 0; i--)
+			sb.append((char) ('0' + ((int) (key >>> i * 2) & 3)));
+		return sb;
+	}
+
+	/**
+	 * @param level
+	 * @throws IllegalArgumentException
+	 *             if level is not between 1 and MAX_LEVEL
+	 * @author ricky barrette
+	 */
+	private static void checkLevel(final int level) {
+		if (level < 1 || level > MAX_LEVEL)
+			throw new IllegalArgumentException("level must be between 1 and " + MAX_LEVEL);
+	}
+
+	/**
+	 * Computes the quadkeys of a given level that cover a bounding box. If
+	 * minLon is greater than maxLon, the box is taken to cross the
+	 * anti-meridian.
+	 * 
+	 * @param minLat
+	 * @param minLon
+	 * @param maxLat
+	 * @param maxLon
+	 * @param level
+	 * @return the keys covering the box, ordered north to south then west to
+	 *         east
+	 * @author ricky barrette
+	 */
+	public static long[] cover(final double minLat, final double minLon, final double maxLat, final double maxLon, final int level) {
+		checkLevel(level);
+		final long tiles = 1L << level;
+		final long y0 = tileY(maxLat, level);
+		final long y1 = tileY(minLat, level);
+		final long x0 = tileX(minLon, level);
+		long x1 = tileX(maxLon, level);
+		if (minLon > maxLon)
+			x1 += tiles;
+
+		final long count = (y1 - y0 + 1) * (x1 - x0 + 1);
+		if (count > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("too many tiles, use a lower level");
+
+		final long[] out = new long[(int) count];
+		int i = 0;
+		for (long y = y0; y <= y1; y++)
+			for (long x = x0; x <= x1; x++)
+				out[i++] = fromTile(x % tiles, y, level);
+		return out;
+	}
+
+	/**
+	 * Decodes a quadkey into the bounding box of its tile
+	 * 
+	 * @param key
+	 * @param level
+	 * @param out
+	 *            array of at least 4 to receive {minLat, minLon, maxLat,
+	 *            maxLon}
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static double[] decode(final long key, final int level, final double[] out) {
+		checkLevel(level);
+		final long x = keyToTileX(key, level);
+		final long y = keyToTileY(key, level);
+		out[0] = tileToLat(y + 1, level);
+		out[1] = tileToLon(x, level);
+		out[2] = tileToLat(y, level);
+		out[3] = tileToLon(x + 1, level);
+		return out;
+	}
+
+	/**
+	 * Encodes a point as a quadkey
+	 * 
+	 * @param lat
+	 * @param lon
+	 * @param level
+	 *            1 to MAX_LEVEL
+	 * @return the quadkey
+	 * @author ricky barrette
+	 */
+	public static long encode(final double lat, final double lon, final int level) {
+		checkLevel(level);
+		return fromTile(tileX(lon, level), tileY(lat, level), level);
+	}
+
+	/**
+	 * Parses a quadkey String, ie "0231"
+	 * 
+	 * @param quadkey
+	 * @return the quadkey, its level is quadkey.length()
+	 * @throws IllegalArgumentException
+	 *             if quadkey contains an invalid digit or is too long
+	 * @author ricky barrette
+	 */
+	public static long fromString(final CharSequence quadkey) {
+		checkLevel(quadkey.length());
+		long key = 0;
+		for (int i = 0; i < quadkey.length(); i++) {
+			final int digit = quadkey.charAt(i) - '0';
+			if (digit < 0 || digit > 3)
+				throw new IllegalArgumentException("invalid quadkey digit: " + quadkey.charAt(i));
+			key = key << 2 | digit;
+		}
+		return key;
+	}
+
+	/**
+	 * Builds a quadkey from tile coordinates
+	 * 
+	 * @param x
+	 *            tile column, 0 being the anti-meridian
+	 * @param y
+	 *            tile row, 0 being the north
+	 * @param level
+	 * @return the quadkey
+	 * @author ricky barrette
+	 */
+	public static long fromTile(final long x, final long y, final int level) {
+		long key = 0;
+		for (int i = level - 1; i >= 0; i--)
+			key = key << 2 | (x >>> i & 1) | (y >>> i & 1) << 1;
+		return key;
+	}
+
+	/**
+	 * Finds the quadkey of a neighbouring tile, wrapping around the
+	 * anti-meridian
+	 * 
+	 * @param key
+	 * @param level
+	 * @param dLat
+	 *            number of tiles north (positive) or south (negative)
+	 * @param dLon
+	 *            number of tiles east (positive) or west (negative)
+	 * @return the neighbouring quadkey, or -1 if it would be past the edge of
+	 *         the map
+	 * @author ricky barrette
+	 */
+	public static long neighbor(final long key, final int level, final int dLat, final int dLon) {
+		checkLevel(level);
+		final long tiles = 1L << level;
+		final long y = keyToTileY(key, level) - dLat;
+		if (y < 0 || y >= tiles)
+			return -1;
+		long x = (keyToTileX(key, level) + dLon) % tiles;
+		if (x < 0)
+			x += tiles;
+		return fromTile(x, y, level);
+	}
+
+	/**
+	 * Finds the 8 quadkeys surrounding a tile
+	 * 
+	 * @param key
+	 * @param level
+	 * @param out
+	 *            array of at least 8 to receive the neighbours N, NE, E, SE,
+	 *            S, SW, W, NW. Neighbours past the edge of the map are -1
+	 * @return out, for convenience
+	 * @author ricky barrette
+	 */
+	public static long[] neighbors(final long key, final int level, final long[] out) {
+		out[0] = neighbor(key, level, 1, 0);
+		out[1] = neighbor(key, level, 1, 1);
+		out[2] = neighbor(key, level, 0, 1);
+		out[3] = neighbor(key, level, -1, 1);
+		out[4] = neighbor(key, level, -1, 0);
+		out[5] = neighbor(key, level, -1, -1);
+		out[6] = neighbor(key, level, 0, -1);
+		out[7] = neighbor(key, level, 1, -1);
+		return out;
+	}
+
+	/**
+	 * @param y
+	 *            tile row, may be 2^level for the southern edge
+	 * @param level
+	 * @return the latitude of the northern edge of the tile row
+	 * @author ricky barrette
+	 */
+	private static double tileToLat(final long y, final int level) {
+		final double n = Math.PI - 2 * Math.PI * y / (1L << level);
+		return Math.toDegrees(Math.atan(Math.sinh(n)));
+	}
+
+	/**
+	 * @param x
+	 *            tile column, may be 2^level for the eastern edge
+	 * @param level
+	 * @return the longitude of the western edge of the tile column
+	 * @author ricky barrette
+	 */
+	private static double tileToLon(final long x, final int level) {
+		return (double) x / (1L << level) * 360 - 180;
+	}
+
+	/**
+	 * @param lon
+	 * @param level
+	 * @return the tile column containing lon
+	 * @author ricky barrette
+	 */
+	public static long tileX(final double lon, final int level) {
+		final long tiles = 1L << level;
+		final long x = (long) Math.floor((lon + 180) / 360 * tiles);
+		if (x < 0)
+			return 0;
+		return x >= tiles ? tiles - 1 : x;
+	}
+
+	/**
+	 * @param key
+	 * @param level
+	 * @return the tile column of a quadkey
+	 * @author ricky barrette
+	 */
+	private static long keyToTileX(final long key, final int level) {
+		long x = 0;
+		for (int i = level - 1; i >= 0; i--)
+			x = x << 1 | (key >>> i * 2) & 1;
+		return x;
+	}
+
+	/**
+	 * @param lat
+	 *            clamped to MAX_LATITUDE
+	 * @param level
+	 * @return the tile row containing lat
+	 * @author ricky barrette
+	 */
+	public static long tileY(final double lat, final int level) {
+		final long tiles = 1L << level;
+		final double sinLat = Math.sin(Math.toRadians(Math.max(Math.min(lat, MAX_LATITUDE), -MAX_LATITUDE)));
+		final double y = 0.5 - Math.log((1 + sinLat) / (1 - sinLat)) / (4 * Math.PI);
+		final long row = (long) Math.floor(y * tiles);
+		if (row < 0)
+			return 0;
+		return row >= tiles ? tiles - 1 : row;
+	}
+
+	/**
+	 * @param key
+	 * @param level
+	 * @return the tile row of a quadkey
+	 * @author ricky barrette
+	 */
+	private static long keyToTileY(final long key, final int level) {
+		long y = 0;
+		for (int i = level - 1; i >= 0; i--)
+			y = y << 1 | (key >>> i * 2 + 1) & 1;
+		return y;
+	}
+
+	/**
+	 * @param key
+	 * @param level
+	 * @return the quadkey as a String, ie "0231"
+	 * @author ricky barrette
+	 */
+	public static String toString(final long key, final int level) {
+		return append(key, level, new StringBuilder(level)).toString();
+	}
+}
@@ -20,15 +20,9 @@
 
 package com.TwentyCodes.android.location;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 
-import org.apache.http.HttpEntity;
-import org.apache.http.HttpResponse;
-import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.DefaultHttpClient;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -49,6 +43,12 @@ public class ReverseGeocoder {
 
 	private static final String TAG = "ReverseGeocoder";
 
+	/**
+	 * The names the HttpTransport records geocoding requests under
+	 */
+	public static final String ENDPOINT_GEOCODE = "geocode";
+	public static final String ENDPOINT_REVERSE_GEOCODE = "reverse geocode";
+
 	/**
 	 * Performs a google maps search for the address
 	 * 
@@ -62,24 +62,12 @@ public class ReverseGeocoder {
 	public static JSONArray addressSearch(final String address) throws IOException, JSONException {
 		String urlStr = "https://maps.googleapis.com/maps/api/geocode/json?address=" + address;
 		urlStr = urlStr.replace(' ', '+');
-		final StringBuffer response = new StringBuffer();
-		final HttpClient client = new DefaultHttpClient();
-
-		if (Debug.DEBUG)
-			Log.d(TAG, urlStr);
-		final HttpResponse hr = client.execute(new HttpGet(urlStr));
-		final HttpEntity entity = hr.getEntity();
-
-		final BufferedReader br = new BufferedReader(new InputStreamReader(entity.getContent()));
-
-		String buff = null;
-		while ((buff = br.readLine()) != null)
-			response.append(buff);
+		final String response = HttpTransport.getInstance().read(new HttpGet(urlStr), ENDPOINT_GEOCODE);
 
 		if (Debug.DEBUG)
-			Log.d(TAG, response.toString());
+			Log.d(TAG, response);
 
-		return new JSONObject(response.toString()).getJSONArray("results");
+		return new JSONObject(response).getJSONArray("results");
 	}
 
 	/**
@@ -92,30 +80,19 @@ public class ReverseGeocoder {
 	 */
 	public static String getAddressFromLocation(final Location location) {
 		final String urlStr = "http://maps.google.com/maps/geo?q=" + location.getLatitude() + "," + location.getLongitude() + "&output=json&sensor=false";
-		final StringBuffer response = new StringBuffer();
-		final HttpClient client = new DefaultHttpClient();
-
-		if (Debug.DEBUG)
-			Log.d(TAG, urlStr);
+		String response = "";
 		try {
-			final HttpResponse hr = client.execute(new HttpGet(urlStr));
-			final HttpEntity entity = hr.getEntity();
-
-			final BufferedReader br = new BufferedReader(new InputStreamReader(entity.getContent()));
-
-			String buff = null;
-			while ((buff = br.readLine()) != null)
-				response.append(buff);
+			response = HttpTransport.getInstance().read(new HttpGet(urlStr), ENDPOINT_REVERSE_GEOCODE);
 		} catch (final IOException e) {
 			e.printStackTrace();
 		}
 
 		if (Debug.DEBUG)
-			Log.d(TAG, response.toString());
+			Log.d(TAG, response);
 
 		JSONArray responseArray = null;
 		try {
-			responseArray = new JSONObject(response.toString()).getJSONArray("results");
+			responseArray = new JSONObject(response).getJSONArray("results");
 		} catch (final JSONException e) {
 			return location.getLatitude() + ", " + location.getLongitude() + " +/- " + location.getAccuracy() + "m";
 		}
@@ -144,23 +121,11 @@ public class ReverseGeocoder {
 	 */
 	public static JSONArray getFromLocation(final Location location) throws IOException, JSONException {
 		final String urlStr = "http://maps.google.com/maps/geo?q=" + location.getLatitude() + "," + location.getLongitude() + "&output=json&sensor=false";
-		final StringBuffer response = new StringBuffer();
-		final HttpClient client = new DefaultHttpClient();
-
-		if (Debug.DEBUG)
-			Log.d(TAG, urlStr);
-		final HttpResponse hr = client.execute(new HttpGet(urlStr));
-		final HttpEntity entity = hr.getEntity();
-
-		final BufferedReader br = new BufferedReader(new InputStreamReader(entity.getContent()));
-
-		String buff = null;
-		while ((buff = br.readLine()) != null)
-			response.append(buff);
+		final String response = HttpTransport.getInstance().read(new HttpGet(urlStr), ENDPOINT_REVERSE_GEOCODE);
 
 		if (Debug.DEBUG)
-			Log.d(TAG, response.toString());
+			Log.d(TAG, response);
 
-		return new JSONObject(response.toString()).getJSONArray("Placemark");
+		return new JSONObject(response).getJSONArray("Placemark");
 	}
 }
\ No newline at end of file
@@ -0,0 +1,352 @@
+/**
+ * RouteTracker.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.android.gms.maps.model.LatLng;
+
+/**
+ * This class follows a user's progress along a route, ie the path of a
+ * DirectionsOverlay, by snapping each fix onto the closest segment of the
+ * route.
+ * 
+ * Since a user moves a little at a time, each fix is first matched against a
+ * small window of segments around the last match, which is a constant amount
+ * of work no matter how long the route is. Only when nothing in the window is
+ * close enough, ie on the first fix or when the user wanders off, does it
+ * look the fix up in a grid index of every segment.
+ * 
+ * Fixes are matched with
+ * {@link GeoUtils#closestPointOnSegment(double, double, double, double, double, double, double[])}
+ * , so segments follow great circles.
+ * 
+ * This class is not thread safe.
+ * 
+ * @author ricky barrette
+ */
+public class RouteTracker {
+
+	/**
+	 * The default distance from the route, in KM, beyond which the user is
+	 * considered off route
+	 */
+	public static final double DEFAULT_OFF_ROUTE_DISTANCE = 0.05;
+
+	/**
+	 * Segments to search before and after the last match
+	 */
+	private static final int WINDOW_BEHIND = 2;
+	private static final int WINDOW_AHEAD = 8;
+
+	private final double[] mLats;
+	private final double[] mLngs;
+
+	/**
+	 * mCumulative[i] is the distance along the route to vertex i in KM
+	 */
+	private final double[] mCumulative;
+	private final double mOffRouteDistance;
+	private GeofenceIndex<Integer> mIndex;
+
+	private int mSegment = -1;
+	private double mSnappedLat;
+	private double mSnappedLon;
+	private double mAlongRoute;
+	private double mFromRoute;
+	private boolean isOffRoute = true;
+
+	/*
+	 * {lat, lon, fraction} of the last call to project()
+	 */
+	private final double[] mProjected = new double[3];
+
+	/**
+	 * Creates a new RouteTracker, using the default off route distance
+	 * 
+	 * @param lats
+	 *            the route's vertices
+	 * @param lngs
+	 *            must be the same length as lats
+	 * @author ricky barrette
+	 */
+	public RouteTracker(final double[] lats, final double[] lngs) {
+		this(lats, lngs, DEFAULT_OFF_ROUTE_DISTANCE);
+	}
+
+	/**
+	 * Creates a new RouteTracker
+	 * 
+	 * @param lats
+	 *            the route's vertices
+	 * @param lngs
+	 *            must be the same length as lats
+	 * @param offRouteDistance
+	 *            in KM, how far from the route a fix may be and still be on
+	 *            it
+	 * @author ricky barrette
+	 */
+	public RouteTracker(final double[] lats, final double[] lngs, final double offRouteDistance) {
+		if (lats.length != lngs.length)
+			throw new IllegalArgumentException("lats and lngs must be the same length");
+		if (lats.length < 2)
+			throw new IllegalArgumentException("a route needs at least 2 vertices");
+		mLats = lats.clone();
+		mLngs = lngs.clone();
+		mOffRouteDistance = offRouteDistance;
+		mCumulative = new double[mLats.length];
+		for (int i = 1; i < mLats.length; i++)
+			mCumulative[i] = mCumulative[i - 1] + DistanceMethod.HAVERSINE.distanceKm(mLats[i - 1], mLngs[i - 1], mLats[i], mLngs[i]);
+	}
+
+	/**
+	 * Creates a new RouteTracker, using the default off route distance
+	 * 
+	 * @param points
+	 *            the route's vertices
+	 * @author ricky barrette
+	 */
+	public RouteTracker(final List<LatLng> points) {
+		this(lats(points), lngs(points));
+	}
+
+	/**
+	 * @param points
+	 * @return the latitudes of points
+	 * @author ricky barrette
+	 */
+	private static double[] lats(final List<LatLng> points) {
+		final double[] lats = new double[points.size()];
+		for (int i = 0; i < lats.length; i++)
+			lats[i] = points.get(i).latitude;
+		return lats;
+	}
+
+	/**
+	 * @param points
+	 * @return the longitudes of points
+	 * @author ricky barrette
+	 */
+	private static double[] lngs(final List<LatLng> points) {
+		final double[] lngs = new double[points.size()];
+		for (int i = 0; i < lngs.length; i++)
+			lngs[i] = points.get(i).longitude;
+		return lngs;
+	}
+
+	/**
+	 * Finds the closest segment to lat/lon out of every segment near it,
+	 * widening the search until something is found
+	 * 
+	 * @param lat
+	 * @param lon
+	 * @return the closest segment
+	 * @author ricky barrette
+	 */
+	private int findSegment(final double lat, final double lon) {
+		if (mIndex == null) {
+			/*
+			 * file each segment as a circle around its middle that it fits
+			 * in, so every segment within a radius of a fix is found by a
+			 * circle query of that radius
+			 */
+			mIndex = new GeofenceIndex<Integer>();
+			for (int i = 0; i + 1 < mLats.length; i++) {
+				final double half = (mCumulative[i + 1] - mCumulative[i]) / 2;
+				final double midLat = (mLats[i] + mLats[i + 1]) / 2;
+				final double midLon = mLngs[i] + wrap(mLngs[i + 1] - mLngs[i]) / 2;
+				mIndex.add(i, midLat, midLon, (float) (half * 1.01 + 0.001));
+			}
+		}
+
+		final List<Integer> candidates = new ArrayList<Integer>();
+		for (double radius = Math.max(mOffRouteDistance, 0.01); radius < GeoUtils.EARTH_RADIUS_KM * Math.PI; radius *= 4) {
+			candidates.clear();
+			mIndex.query(lat, lon, (float) radius, 0, candidates);
+			int best = -1;
+			double bestDistance = Double.MAX_VALUE;
+			for (int i = 0, size = candidates.size(); i < size; i++) {
+				final int segment = candidates.get(i);
+				final double distance = project(segment, lat, lon);
+				if (distance < bestDistance || distance == bestDistance && segment < best) {
+					bestDistance = distance;
+					best = segment;
+				}
+			}
+			// anything within radius is the closest, nothing outside can beat it
+			if (best >= 0 && bestDistance <= radius)
+				return best;
+		}
+		return GeoUtils.closestSegment(lat, lon, mLats, mLngs, 0, mLats.length - 2, null);
+	}
+
+	/**
+	 * @return the distance along the route to the snapped point in KM
+	 * @author ricky barrette
+	 */
+	public double getDistanceAlongRoute() {
+		return mAlongRoute;
+	}
+
+	/**
+	 * @return the distance from the last fix to the snapped point in KM
+	 * @author ricky barrette
+	 */
+	public double getDistanceFromRoute() {
+		return mFromRoute;
+	}
+
+	/**
+	 * @return the distance from the snapped point to the end of the route in
+	 *         KM
+	 * @author ricky barrette
+	 */
+	public double getDistanceRemaining() {
+		return getLength() - mAlongRoute;
+	}
+
+	/**
+	 * @return the length of the route in KM
+	 * @author ricky barrette
+	 */
+	public double getLength() {
+		return mCumulative[mCumulative.length - 1];
+	}
+
+	/**
+	 * @return the segment the last fix was snapped to, segment i runs from
+	 *         vertex i to vertex i + 1, or -1 if there hasn't been a fix
+	 * @author ricky barrette
+	 */
+	public int getSegment() {
+		return mSegment;
+	}
+
+	/**
+	 * @return the latitude of the last fix snapped onto the route
+	 * @author ricky barrette
+	 */
+	public double getSnappedLatitude() {
+		return mSnappedLat;
+	}
+
+	/**
+	 * @return the longitude of the last fix snapped onto the route
+	 * @author ricky barrette
+	 */
+	public double getSnappedLongitude() {
+		return mSnappedLon;
+	}
+
+	/**
+	 * @return the last fix snapped onto the route, or null if there hasn't
+	 *         been a fix
+	 * @author ricky barrette
+	 */
+	public LatLng getSnappedPoint() {
+		return mSegment < 0 ? null : new LatLng(mSnappedLat, mSnappedLon);
+	}
+
+	/**
+	 * @return true if the last fix was farther from the route than the off
+	 *         route distance, or there hasn't been a fix
+	 * @author ricky barrette
+	 */
+	public boolean isOffRoute() {
+		return isOffRoute;
+	}
+
+	/**
+	 * Projects lat/lon onto a segment, leaving the closest point in
+	 * mProjected
+	 * 
+	 * @param segment
+	 * @param lat
+	 * @param lon
+	 * @return the distance from lat/lon to the closest point of the segment in
+	 *         KM
+	 * @author ricky barrette
+	 */
+	private double project(final int segment, final double lat, final double lon) {
+		return GeoUtils.closestPointOnSegment(lat, lon, mLats[segment], mLngs[segment], mLats[segment + 1], mLngs[segment + 1], mProjected);
+	}
+
+	/**
+	 * Forgets the last match, so the next fix is looked up along the whole
+	 * route
+	 * 
+	 * @author ricky barrette
+	 */
+	public void reset() {
+		mSegment = -1;
+		isOffRoute = true;
+	}
+
+	/**
+	 * Snaps a new fix onto the route
+	 * 
+	 * @param lat
+	 * @param lon
+	 * @return true if the fix is on the route
+	 * @author ricky barrette
+	 */
+	public boolean update(final double lat, final double lon) {
+		int segment = -1;
+		if (mSegment >= 0) {
+			segment = GeoUtils.closestSegment(lat, lon, mLats, mLngs, Math.max(mSegment - WINDOW_BEHIND, 0), Math.min(mSegment + WINDOW_AHEAD, mLats.length - 2),
+					null);
+			if (project(segment, lat, lon) > mOffRouteDistance)
+				segment = -1;
+		}
+		if (segment < 0)
+			segment = findSegment(lat, lon);
+
+		mFromRoute = project(segment, lat, lon);
+		mSegment = segment;
+		mSnappedLat = mProjected[0];
+		mSnappedLon = mProjected[1];
+		mAlongRoute = mCumulative[segment] + mProjected[2] * (mCumulative[segment + 1] - mCumulative[segment]);
+		isOffRoute = mFromRoute > mOffRouteDistance;
+		return !isOffRoute;
+	}
+
+	/**
+	 * Snaps a new fix onto the route
+	 * 
+	 * @param point
+	 * @return true if the fix is on the route
+	 * @author ricky barrette
+	 */
+	public boolean update(final LatLng point) {
+		return update(point.latitude, point.longitude);
+	}
+
+	/**
+	 * @param lon
+	 * @return lon wrapped into [-180, 180)
+	 * @author ricky barrette
+	 */
+	private static double wrap(final double lon) {
+		if (lon >= -180 && lon < 180)
+			return lon;
+		return ((lon + 180) % 360 + 360) % 360 - 180;
+	}
+}
@@ -25,6 +25,8 @@ import android.graphics.Paint.Style;
 import android.util.Log;
 import com.TwentyCodes.android.debug.Debug;
 import com.TwentyCodes.android.location.CompassSensor.CompassListener;
+import com.TwentyCodes.android.location.GeoBounds;
+import com.TwentyCodes.android.location.GeoUtils;
 import com.TwentyCodes.android.location.LatLngListener;
 import com.TwentyCodes.android.location.R;
 import com.google.android.gms.maps.model.LatLng;
@@ -124,6 +126,7 @@ public abstract class BaseUserOverlay extends Overlay implements LatLngListener,
 	private boolean isCompassEnabled;
 
 	private CompassListener mCompassListener;
+	private final GeoBounds mVisibleBounds = new GeoBounds();
 
 	/**
 	 * Construct a new UserOverlay
@@ -420,21 +423,19 @@ public abstract class BaseUserOverlay extends Overlay implements LatLngListener,
 	 * 
 	 * @author ricky barrette
 	 */
-	private void panToUserIfOffMap(final GeoPoint user) {
-		final GeoPoint center = mMapView.getMapCenter();
-//		final double distance = GeoUtils.distanceKm(center, user);
-//		final double distanceLat = GeoUtils.distanceKm(center, new GeoPoint(center.getLatitudeE6() + mMapView.getLatitudeSpan() / 2, center.getLongitudeE6()));
-//		final double distanceLon = GeoUtils.distanceKm(center, new GeoPoint(center.getLatitudeE6(), center.getLongitudeE6() + mMapView.getLongitudeSpan() / 2));
-//
-//		final double whichIsGreater = distanceLat > distanceLon ? distanceLat : distanceLon;
-//
-//		/**
-//		 * if the user is one the map, keep them their else don't pan to user
-//		 * unless they pan pack to them
-//		 */
-//		if (!(distance > whichIsGreater))
-//			if (distance > distanceLat || distance > distanceLon)
-//				mMapView.getController().animateTo(user);
+	private void panToUserIfOffMap(final LatLng user) {
+		if (user == null)
+			return;
+		GeoUtils.getVisibleBounds(mMapView, mVisibleBounds);
+		if (mVisibleBounds.contains(user))
+			return;
+
+		/**
+		 * if the user is one the map, keep them their else don't pan to user
+		 * unless they pan pack to them
+		 */
+		if (mVisibleBounds.expand(Math.max(mVisibleBounds.getLatitudeSpan(), mVisibleBounds.getLongitudeSpan()) / 2).contains(user))
+			mMapView.getController().animateTo(new GeoPoint((int) (user.latitude * GeoUtils.MILLION), (int) (user.longitude * GeoUtils.MILLION)));
 	}
 
 	/**
@@ -0,0 +1,365 @@
+/**
+ * DirectionsCache.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.overlays;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import android.util.Log;
+
+import com.TwentyCodes.android.debug.Debug;
+import com.TwentyCodes.android.location.Directions;
+import com.TwentyCodes.android.location.GeoHash;
+import com.google.android.maps.GeoPoint;
+
+/**
+ * This class keeps parsed directions on disk, so asking for the same
+ * directions again, from about the same place, skips both the download and
+ * the parsing.
+ * 
+ * Directions are keyed by the travel mode and the geohash cells of their
+ * origin and destination, so any two requests whose ends fall in the same
+ * cells share an entry. Each entry is a small binary file holding every route
+ * of the parsed directions, written by {@link Directions#write(java.io.DataOutput)}
+ * with their polylines still encoded.
+ * 
+ * Entries expire after a time to live, and once the cache grows past its size
+ * limit the least recently used entries are deleted.
+ * 
+ * This class is thread safe.
+ * 
+ * @author ricky barrette
+ */
+public class DirectionsCache {
+
+	/**
+	 * An entry of the index. Writing an entry again indexes a new Entry, so
+	 * a reader can tell whether the entry it read is still the indexed one.
+	 * 
+	 * @author ricky barrette
+	 */
+	private static final class Entry {
+		private final long mSize;
+
+		Entry(final long size) {
+			mSize = size;
+		}
+	}
+
+	private static final String TAG = "DirectionsCache";
+
+	/**
+	 * Geohash precision of the default cells, about 150 m on a side
+	 */
+	public static final int DEFAULT_PRECISION = 7;
+
+	/**
+	 * Default size limit of the cache in bytes
+	 */
+	public static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+
+	/**
+	 * Default time to live of an entry in milliseconds, a day
+	 */
+	public static final long DEFAULT_TTL = 24 * 60 * 60 * 1000L;
+
+	private static final String SUFFIX = ".dir";
+	private static final String TEMP_SUFFIX = ".tmp";
+	private static final int MAGIC = 0x44495232;
+
+	private final File mDirectory;
+	private final long mMaxBytes;
+	private final long mTtl;
+	private final int mPrecision;
+
+	/**
+	 * file name to entry, least recently used first
+	 */
+	private LinkedHashMap<String, Entry> mEntries;
+	private long mBytes;
+
+	/**
+	 * Creates a new DirectionsCache with the default settings
+	 * 
+	 * @param directory
+	 *            to keep the cache in, ie Context.getCacheDir()
+	 * @author ricky barrette
+	 */
+	public DirectionsCache(final File directory) {
+		this(directory, DEFAULT_PRECISION, DEFAULT_MAX_BYTES, DEFAULT_TTL);
+	}
+
+	/**
+	 * Creates a new DirectionsCache
+	 * 
+	 * @param directory
+	 *            to keep the cache in, which is used only by this cache
+	 * @param precision
+	 *            geohash precision of the cells origins and destinations are
+	 *            snapped to, 1 to GeoHash.MAX_PRECISION
+	 * @param maxBytes
+	 *            size limit of the cache
+	 * @param ttl
+	 *            time to live of an entry in milliseconds
+	 * @author ricky barrette
+	 */
+	public DirectionsCache(final File directory, final int precision, final long maxBytes, final long ttl) {
+		if (directory == null)
+			throw new NullPointerException();
+		if (precision < 1 || precision > GeoHash.MAX_PRECISION)
+			throw new IllegalArgumentException("precision must be 1 to " + GeoHash.MAX_PRECISION);
+		mDirectory = directory;
+		mPrecision = precision;
+		mMaxBytes = maxBytes;
+		mTtl = ttl;
+	}
+
+	/**
+	 * Deletes every entry
+	 * 
+	 * @author ricky barrette
+	 */
+	public synchronized void clear() {
+		for (final String name : getEntries().keySet())
+			new File(mDirectory, name).delete();
+		mEntries.clear();
+		mBytes = 0;
+	}
+
+	/**
+	 * Deletes least recently used entries until the cache fits its limit
+	 * 
+	 * @author ricky barrette
+	 */
+	private void evict() {
+		final Iterator<Map.Entry<String, Entry>> entries = mEntries.entrySet().iterator();
+		while (mBytes > mMaxBytes && entries.hasNext()) {
+			final Map.Entry<String, Entry> entry = entries.next();
+			new File(mDirectory, entry.getKey()).delete();
+			mBytes -= entry.getValue().mSize;
+			entries.remove();
+		}
+	}
+
+	/**
+	 * Looks directions up in the cache. The cache is locked only to look the
+	 * entry up and to mark it used, not while it is read and parsed.
+	 * 
+	 * @param origin
+	 * @param destination
+	 * @param mode
+	 *            travel mode
+	 * @param out
+	 *            overlay to restore the directions into
+	 * @return true if the directions were found
+	 * @author ricky barrette
+	 */
+	boolean get(final GeoPoint origin, final GeoPoint destination, final String mode, final DirectionsOverlay out) {
+		final String name = getName(origin, destination, mode);
+		final Entry entry;
+		synchronized (this) {
+			entry = getEntries().get(name);
+			if (entry == null)
+				return false;
+		}
+
+		/*
+		 * put() renames a whole new file over the entry, so this reads either
+		 * the old entry or the new one
+		 */
+		final File file = new File(mDirectory, name);
+		try {
+			final DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+			try {
+				if (in.readInt() != MAGIC)
+					throw new IOException("not a directions cache entry");
+				if (System.currentTimeMillis() - in.readLong() > mTtl) {
+					remove(name, entry);
+					return false;
+				}
+				out.restore(Directions.read(in));
+			} finally {
+				in.close();
+			}
+		} catch (final FileNotFoundException e) {
+			// removed since it was looked up
+			return false;
+		} catch (final IOException e) {
+			if (Debug.DEBUG)
+				Log.d(TAG, "dropping " + name, e);
+			remove(name, entry);
+			return false;
+		}
+
+		// most recently used, here and on disk for next time
+		synchronized (this) {
+			if (mEntries.get(name) != entry)
+				return true;
+			mEntries.put(name, mEntries.remove(name));
+		}
+		file.setLastModified(System.currentTimeMillis());
+		return true;
+	}
+
+	/**
+	 * @return the index of the entries on disk, least recently used first,
+	 *         read from the directory on first use, when the temp files of
+	 *         writes that never finished are deleted
+	 * @author ricky barrette
+	 */
+	private LinkedHashMap<String, Entry> getEntries() {
+		if (mEntries == null) {
+			mEntries = new LinkedHashMap<String, Entry>();
+			mBytes = 0;
+			final File[] files = mDirectory.listFiles();
+			if (files != null) {
+				Arrays.sort(files, new Comparator<File>() {
+					@Override
+					public int compare(final File a, final File b) {
+						final long lhs = a.lastModified();
+						final long rhs = b.lastModified();
+						return lhs < rhs ? -1 : lhs == rhs ? 0 : 1;
+					}
+				});
+				for (final File file : files)
+					if (file.getName().endsWith(SUFFIX)) {
+						mEntries.put(file.getName(), new Entry(file.length()));
+						mBytes += file.length();
+					} else if (file.getName().endsWith(TEMP_SUFFIX))
+						file.delete();
+			}
+		}
+		return mEntries;
+	}
+
+	/**
+	 * @param origin
+	 * @param destination
+	 * @param mode
+	 * @return the file name of the entry for the directions
+	 * @author ricky barrette
+	 */
+	private String getName(final GeoPoint origin, final GeoPoint destination, final String mode) {
+		final StringBuilder sb = new StringBuilder(mode.length() + mPrecision * 2 + 6);
+		for (int i = 0; i < mode.length(); i++) {
+			final char c = mode.charAt(i);
+			sb.append(c >= 'a' && c <= 'z' ? c : '_');
+		}
+		sb.append('-');
+		GeoHash.append(GeoHash.encode(origin.getLatitudeE6() / 1E6, origin.getLongitudeE6() / 1E6, mPrecision), mPrecision, sb);
+		sb.append('-');
+		GeoHash.append(GeoHash.encode(destination.getLatitudeE6() / 1E6, destination.getLongitudeE6() / 1E6, mPrecision), mPrecision, sb);
+		return sb.append(SUFFIX).toString();
+	}
+
+	/**
+	 * Adds directions to the cache, replacing any for the same cells. The
+	 * cache is locked only to add the entry, not while it is written.
+	 * 
+	 * @param origin
+	 * @param destination
+	 * @param mode
+	 *            travel mode
+	 * @param directions
+	 *            parsed directions
+	 * @author ricky barrette
+	 */
+	void put(final GeoPoint origin, final GeoPoint destination, final String mode, final DirectionsOverlay directions) {
+		final String name = getName(origin, destination, mode);
+		// the first look at the directory deletes temp files, so it must come before ours
+		synchronized (this) {
+			getEntries();
+		}
+		mDirectory.mkdirs();
+
+		// write a temp file and rename it, so a reader never sees half an entry
+		File temp = null;
+		try {
+			temp = File.createTempFile(name, TEMP_SUFFIX, mDirectory);
+			final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeLong(System.currentTimeMillis());
+				directions.getResponse().write(out);
+			} finally {
+				out.close();
+			}
+		} catch (final IOException e) {
+			if (Debug.DEBUG)
+				Log.d(TAG, "could not write " + name, e);
+			if (temp != null)
+				temp.delete();
+			return;
+		}
+
+		final long size = temp.length();
+		synchronized (this) {
+			// replaces the old file, which a reader may still have open
+			if (!temp.renameTo(new File(mDirectory, name))) {
+				if (Debug.DEBUG)
+					Log.d(TAG, "could not rename " + temp);
+				temp.delete();
+				return;
+			}
+			final Entry old = mEntries.put(name, new Entry(size));
+			if (old != null)
+				mBytes -= old.mSize;
+			mBytes += size;
+			evict();
+		}
+	}
+
+	/**
+	 * Removes an entry, unless it has been written again or removed since it
+	 * was looked up
+	 * 
+	 * @param name
+	 * @param entry
+	 *            the entry that was looked up
+	 * @author ricky barrette
+	 */
+	private synchronized void remove(final String name, final Entry entry) {
+		if (mEntries.get(name) != entry)
+			return;
+		mEntries.remove(name);
+		new File(mDirectory, name).delete();
+		mBytes -= entry.mSize;
+	}
+
+	/**
+	 * @return the number of entries in the cache
+	 * @author ricky barrette
+	 */
+	public synchronized int size() {
+		return getEntries().size();
+	}
+}
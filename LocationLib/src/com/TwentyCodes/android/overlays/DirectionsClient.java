@@ -0,0 +1,247 @@
+/**
+ * DirectionsClient.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.overlays;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.client.methods.HttpGet;
+
+import android.util.Log;
+
+import com.TwentyCodes.android.debug.Debug;
+import com.TwentyCodes.android.location.MapView;
+import com.TwentyCodes.android.overlays.DirectionsOverlay.OnDirectionsCompleteListener;
+import com.google.android.maps.GeoPoint;
+
+/**
+ * This class loads directions for a map in the background.
+ * 
+ * Downloading and parsing, or reading them from a {@link DirectionsCache} if
+ * one is set, happen on a small shared pool of threads, and only
+ * the finished DirectionsOverlay is posted back to the UI thread, where its
+ * path is added to the map and the listener is notified, just like the
+ * blocking DirectionsOverlay constructor does.
+ * 
+ * A map only ever wants the directions it asked for last, so each new request
+ * cancels the one before it. A cancelled request's download is aborted, and
+ * its results are never shown.
+ * 
+ * The methods of this class must be called on the UI thread.
+ * 
+ * @author ricky barrette
+ */
+public class DirectionsClient {
+
+	/**
+	 * @author ricky barrette
+	 */
+	public interface OnDirectionsErrorListener {
+		public void onDirectionsError(Exception e);
+	}
+
+	/**
+	 * A request that aborts its download when cancelled, and delivers its
+	 * result to the UI thread when done
+	 * 
+	 * @author ricky barrette
+	 */
+	private final class Request extends FutureTask<DirectionsOverlay> {
+
+		private final HttpGet mHttpGet;
+		private final OnDirectionsErrorListener mErrorListener;
+		private volatile boolean isCancelled;
+
+		Request(final GeoPoint origin, final GeoPoint destination, final DirectionsOverlay overlay, final HttpGet httpGet, final DirectionsCache cache,
+				final OnDirectionsErrorListener errorListener) {
+			super(new Callable<DirectionsOverlay>() {
+				@Override
+				public DirectionsOverlay call() throws Exception {
+					if (cache != null && cache.get(origin, destination, DirectionsOverlay.MODE, overlay))
+						return overlay;
+					overlay.load(httpGet);
+					if (cache != null)
+						cache.put(origin, destination, DirectionsOverlay.MODE, overlay);
+					return overlay;
+				}
+			});
+			mHttpGet = httpGet;
+			mErrorListener = errorListener;
+		}
+
+		@Override
+		public boolean cancel(final boolean mayInterruptIfRunning) {
+			/*
+			 * a request can finish before the UI thread gets to it, so the
+			 * flag is what keeps a superseded result off the map
+			 */
+			isCancelled = true;
+			sExecutor.remove(this);
+			mHttpGet.abort();
+			return super.cancel(mayInterruptIfRunning);
+		}
+
+		@Override
+		protected void done() {
+			if (isCancelled)
+				return;
+			mMapView.post(new Runnable() {
+				@Override
+				public void run() {
+					deliver(Request.this);
+				}
+			});
+		}
+	}
+
+	private static final String TAG = "DirectionsClient";
+
+	/**
+	 * Threads that may load directions at once, across all maps
+	 */
+	private static final int MAX_THREADS = 2;
+
+	/**
+	 * Requests that may wait for a thread, across all maps
+	 */
+	private static final int MAX_QUEUED = 8;
+
+	private static final ThreadPoolExecutor sExecutor;
+
+	static {
+		sExecutor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(MAX_QUEUED), new ThreadFactory() {
+			@Override
+			public Thread newThread(final Runnable r) {
+				final Thread thread = new Thread(r, TAG);
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		sExecutor.allowCoreThreadTimeOut(true);
+	}
+
+	private final MapView mMapView;
+	private Request mRequest;
+	private DirectionsCache mCache;
+
+	/**
+	 * Creates a new DirectionsClient
+	 * 
+	 * @param map
+	 *            to show the directions on
+	 * @author ricky barrette
+	 */
+	public DirectionsClient(final MapView map) {
+		if (map == null)
+			throw new NullPointerException();
+		mMapView = map;
+	}
+
+	/**
+	 * Cancels the current request, if any
+	 * 
+	 * @author ricky barrette
+	 */
+	public void cancel() {
+		if (mRequest != null) {
+			mRequest.cancel(true);
+			mRequest = null;
+		}
+	}
+
+	/**
+	 * @return the cache requests are looked up in, or null
+	 * @author ricky barrette
+	 */
+	public DirectionsCache getCache() {
+		return mCache;
+	}
+
+	/**
+	 * Shows the results of a finished request, unless it has been superseded
+	 * 
+	 * @param request
+	 * @author ricky barrette
+	 */
+	private void deliver(final Request request) {
+		if (request.isCancelled)
+			return;
+		if (mRequest == request)
+			mRequest = null;
+		try {
+			request.get().show();
+		} catch (final ExecutionException e) {
+			if (Debug.DEBUG)
+				Log.d(TAG, "request failed", e.getCause());
+			if (request.mErrorListener != null)
+				request.mErrorListener.onDirectionsError(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+		} catch (final InterruptedException e) {
+			// the request is done, so get() can't block
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Loads the directions between two points in the background, cancelling
+	 * the current request
+	 * 
+	 * @param origin
+	 * @param destination
+	 * @param listener
+	 *            notified on the UI thread once the path has been added to the
+	 *            map, may be null
+	 * @param errorListener
+	 *            notified on the UI thread if the directions could not be
+	 *            loaded, may be null
+	 * @return the request, which can be used to cancel it
+	 * @throws java.util.concurrent.RejectedExecutionException
+	 *             if too many requests are already waiting
+	 * @author ricky barrette
+	 */
+	public Future<DirectionsOverlay> request(final GeoPoint origin, final GeoPoint destination, final OnDirectionsCompleteListener listener,
+			final OnDirectionsErrorListener errorListener) {
+		if (origin == null || destination == null)
+			throw new NullPointerException();
+		cancel();
+		final Request request = new Request(origin, destination, new DirectionsOverlay(mMapView, listener), DirectionsOverlay.createRequest(origin, destination),
+				mCache, errorListener);
+		sExecutor.execute(request);
+		mRequest = request;
+		return request;
+	}
+
+	/**
+	 * Sets a cache to look requests up in before downloading them, and to
+	 * keep downloaded directions in
+	 * 
+	 * @param cache
+	 *            may be null for none
+	 * @author ricky barrette
+	 */
+	public void setCache(final DirectionsCache cache) {
+		mCache = cache;
+	}
+}
@@ -19,29 +19,40 @@
  */
 package com.TwentyCodes.android.overlays;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.ArrayList;
 
 import org.apache.http.client.ClientProtocolException;
 import org.apache.http.client.methods.HttpGet;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.json.JSONArray;
 import org.json.JSONException;
-import org.json.JSONObject;
 
 import android.graphics.Color;
 import android.util.Log;
 
 import com.TwentyCodes.android.debug.Debug;
+import com.TwentyCodes.android.location.Directions;
+import com.TwentyCodes.android.location.Directions.Leg;
+import com.TwentyCodes.android.location.Directions.Route;
+import com.TwentyCodes.android.location.Directions.Step;
+import com.TwentyCodes.android.location.HttpTransport;
 import com.TwentyCodes.android.location.MapView;
+import com.TwentyCodes.android.location.Polyline;
+import com.TwentyCodes.android.location.RouteTracker;
 import com.google.android.maps.GeoPoint;
 
 /**
  * This Overlay class will be used to display provided by the Google Directions
  * API on a map
  * 
+ * All of the routes of a response are kept, see {@link #getResponse()}, and
+ * one of them is drawn, the first unless another is picked with
+ * {@link #setRoute(int)}. Only the drawn route's path is decoded, and the
+ * lists of its steps are only built when they are asked for.
+ * 
  * @author ricky barrette
  */
 public class DirectionsOverlay {
@@ -54,11 +65,24 @@ public class DirectionsOverlay {
 	}
 
 	private static final String TAG = "DirectionsOverlay";
-	private ArrayList<PathOverlay> mPath;
+
+	/**
+	 * The travel mode directions are requested for
+	 */
+	static final String MODE = "walking";
+
+	/**
+	 * The name the HttpTransport records directions requests under
+	 */
+	public static final String ENDPOINT = "directions";
+
+	private Directions mResponse;
+	private int mRoute;
+	private RouteOverlay mPath;
+	private ArrayList<PathOverlay> mPathOverlays;
 	private ArrayList<String> mDirections;
 	private final MapView mMapView;
 	private final OnDirectionsCompleteListener mListener;
-	private String mCopyRights;
 	private ArrayList<GeoPoint> mPoints;
 	private ArrayList<String> mDistance;
 	private ArrayList<String> mDuration;
@@ -79,10 +103,21 @@ public class DirectionsOverlay {
 	 */
 	public DirectionsOverlay(final MapView map, final GeoPoint origin, final GeoPoint destination, final OnDirectionsCompleteListener listener)
 			throws IllegalStateException, ClientProtocolException, IOException, JSONException {
+		this(map, listener);
+		load(createRequest(origin, destination));
+		show();
+	}
+
+	/**
+	 * Creates a new empty DirectionsOverlay, for DirectionsClient to load
+	 * 
+	 * @param map
+	 * @param listener
+	 * @author ricky barrette
+	 */
+	DirectionsOverlay(final MapView map, final OnDirectionsCompleteListener listener) {
 		mMapView = map;
 		mListener = listener;
-		final String json = downloadJSON(generateUrl(origin, destination));
-		drawPath(json);
 	}
 
 	/**
@@ -99,174 +134,65 @@ public class DirectionsOverlay {
 	}
 
 	/**
-	 * Deocodes googles polyline
-	 * 
-	 * @param encoded
-	 * @return a list of geopoints representing the path
-	 * @author Mark McClure
-	 *         http://facstaff.unca.edu/mcmcclur/googlemaps/encodepolyline/
+	 * @param origin
+	 * @param destination
+	 * @return a request for the directions between the points, which can be
+	 *         aborted from another thread while it is loading
 	 * @author ricky barrette
-	 * @throws JSONException
 	 */
-	private void decodePoly(final JSONObject step) throws JSONException {
+	static HttpGet createRequest(final GeoPoint origin, final GeoPoint destination) {
+		final String url = generateUrl(origin, destination);
 		if (Debug.DEBUG)
-			Log.d(TAG, "decodePoly");
-
-		final String encoded = step.getJSONObject("polyline").getString("points");
-		int index = 0;
-		final int len = encoded.length();
-		int lat = 0, lng = 0;
-
-		GeoPoint last = null;
-		while (index < len) {
-			int b, shift = 0, result = 0;
-			do {
-				b = encoded.charAt(index++) - 63;
-				result |= (b & 0x1f) << shift;
-				shift += 5;
-			} while (b >= 0x20);
-			final int dlat = (result & 1) != 0 ? ~(result >> 1) : result >> 1;
-			lat += dlat;
-
-			shift = 0;
-			result = 0;
-			do {
-				b = encoded.charAt(index++) - 63;
-				result |= (b & 0x1f) << shift;
-				shift += 5;
-			} while (b >= 0x20);
-			final int dlng = (result & 1) != 0 ? ~(result >> 1) : result >> 1;
-			lng += dlng;
-
-			final GeoPoint p = new GeoPoint((int) (lat / 1E5 * 1E6), (int) (lng / 1E5 * 1E6));
-
-			if (Debug.DEBUG) {
-				Log.d(TAG, "current = " + p.toString());
-				if (last != null)
-					Log.d(TAG, "last = " + last.toString());
-			}
-
-			if (last != null)
-				mPath.add(new PathOverlay(last, p, Color.RED));
-			// else
-			// mPath.add(new PathOverlay(p, 5, Color.GREEN));
-
-			last = p;
-		}
+			Log.d(TAG, url);
+		return new HttpGet(url);
+	}
 
+	/**
+	 * Creates a RouteTracker following the path of these directions
+	 * 
+	 * @return a new RouteTracker, or null if there is no path
+	 * @author ricky barrette
+	 */
+	public RouteTracker createRouteTracker() {
+		final Polyline polyline = getPolyline();
+		if (polyline == null || polyline.size() < 2)
+			return null;
+		return new RouteTracker(polyline.toLatitudes(), polyline.toLongitudes());
 	}
 
 	/**
-	 * Downloads Google Directions JSON from the Internet
+	 * Parses the directions from the json provided, and draws the first route
 	 * 
-	 * @param url
-	 * @return
-	 * @throws IllegalStateException
-	 * @throws ClientProtocolException
+	 * @param json
+	 *            a Google Directions API response, which is parsed as it is
+	 *            read
 	 * @throws IOException
+	 *             if the json could not be read, or is malformed
+	 * @throws JSONException
+	 *             if the json has no routes
 	 * @author ricky barrette
 	 */
-	private String downloadJSON(final String url) throws IllegalStateException, ClientProtocolException, IOException {
-		if (Debug.DEBUG)
-			Log.d(TAG, url);
-		if (url == null)
-			throw new NullPointerException();
-		final StringBuffer response = new StringBuffer();
-		final BufferedReader br = new BufferedReader(new InputStreamReader(new DefaultHttpClient().execute(new HttpGet(url)).getEntity().getContent()));
-		String buff = null;
-		while ((buff = br.readLine()) != null)
-			response.append(buff);
-		return response.toString();
+	public void drawPath(final Reader json) throws IOException, JSONException {
+		parse(json);
+		show();
 	}
 
 	/**
-	 * Creates a new DirectionsOverlay from the json provided
+	 * Parses the directions from the json provided, and draws the first route
 	 * 
 	 * @param json
-	 *            of Google Directions API
-	 * @author ricky barrette
-	 * @return
+	 *            a Google Directions API response
 	 * @throws JSONException
+	 *             if the json is malformed or has no routes
+	 * @author ricky barrette
 	 */
 	public void drawPath(final String json) throws JSONException {
-		if (Debug.DEBUG) {
-			Log.d(TAG, "drawPath");
-			Log.d(TAG, json);
+		try {
+			drawPath(new StringReader(json));
+		} catch (final IOException e) {
+			// a string can't fail to be read, so the json is malformed
+			throw new JSONException(e.getMessage());
 		}
-		mPath = new ArrayList<PathOverlay>();
-		mDirections = new ArrayList<String>();
-		mPoints = new ArrayList<GeoPoint>();
-		mDistance = new ArrayList<String>();
-		mDuration = new ArrayList<String>();
-
-		// get first route
-		final JSONObject route = new JSONObject(json).getJSONArray("routes").getJSONObject(0);
-
-		mCopyRights = route.getString("copyrights");
-		// route.getString("status");
-
-		final JSONObject leg = route.getJSONArray("legs").getJSONObject(0);
-		getDistance(leg);
-		getDuration(leg);
-		// mMapView.getOverlays().add(new
-		// PathOverlay(getGeoPoint(leg.getJSONObject("start_location")), 12,
-		// Color.GREEN));
-		// mMapView.getOverlays().add(new
-		// PathOverlay(getGeoPoint(leg.getJSONObject("end_location")), 12,
-		// Color.RED));
-
-		leg.getString("start_address");
-		leg.getString("end_address");
-
-		// JSONArray warnings = leg.getJSONArray("warnings");
-		// for(int i = 0; i < warnings.length(); i++){
-		// mWarnings.add(warnings.get)w
-		// }w
-
-		/*
-		 * here we will parse the steps of the directions
-		 */
-		if (Debug.DEBUG)
-			Log.d(TAG, "processing steps");
-		final JSONArray steps = leg.getJSONArray("steps");
-		JSONObject step = null;
-		for (int i = 0; i < steps.length(); i++) {
-			if (Debug.DEBUG)
-				Log.d(TAG, "step " + i);
-
-			step = steps.getJSONObject(i);
-
-			if (Debug.DEBUG) {
-				Log.d(TAG, "start " + getGeoPoint(step.getJSONObject("start_location")).toString());
-				Log.d(TAG, "end " + getGeoPoint(step.getJSONObject("end_location")).toString());
-			}
-
-			// if(Debug.DEBUG)
-			// mMapView.getOverlays().add(new
-			// PathOverlay(getGeoPoint(step.getJSONObject("start_location")),
-			// getGeoPoint(step.getJSONObject("end_location")), Color.MAGENTA));
-
-			decodePoly(step);
-
-			mDuration.add(getDuration(step));
-
-			mDistance.add(getDistance(step));
-
-			mDirections.add(step.getString("html_instructions"));
-			// Log.d("TEST", step.getString("html_instructions"));
-			mPoints.add(getGeoPoint(step.getJSONObject("start_location")));
-
-		}
-		if (Debug.DEBUG)
-			Log.d(TAG, "finished parsing");
-
-		if (mMapView != null) {
-			mMapView.getOverlays().addAll(mPath);
-			mMapView.postInvalidate();
-		}
-
-		if (mListener != null)
-			mListener.onDirectionsComplete(DirectionsOverlay.this);
 	}
 
 	/**
@@ -275,10 +201,32 @@ public class DirectionsOverlay {
 	 * @return The Google API url for our directions
 	 * @author ricky barrette
 	 */
-	private String generateUrl(final GeoPoint origin, final GeoPoint destination) {
+	private static String generateUrl(final GeoPoint origin, final GeoPoint destination) {
 		return "http://maps.googleapis.com/maps/api/directions/json?&origin=" + Double.toString(origin.getLatitudeE6() / 1.0E6) + ","
 				+ Double.toString(origin.getLongitudeE6() / 1.0E6) + "&destination=" + Double.toString(destination.getLatitudeE6() / 1.0E6) + ","
-				+ Double.toString(destination.getLongitudeE6() / 1.0E6) + "&sensor=true&mode=walking";
+				+ Double.toString(destination.getLongitudeE6() / 1.0E6) + "&sensor=true&mode=" + MODE;
+	}
+
+	/**
+	 * Builds the lists of the drawn route's steps, across all of its legs
+	 * 
+	 * @author ricky barrette
+	 */
+	private void flatten() {
+		mDirections = new ArrayList<String>();
+		mDistance = new ArrayList<String>();
+		mDuration = new ArrayList<String>();
+		mPoints = new ArrayList<GeoPoint>();
+		final Route route = getRoute();
+		if (route == null)
+			return;
+		for (final Leg leg : route.getLegs())
+			for (final Step step : leg.getSteps()) {
+				mDirections.add(step.getHtmlInstructions());
+				mDistance.add(step.getDistanceText());
+				mDuration.add(step.getDurationText());
+				mPoints.add(new GeoPoint(step.getStartLatitudeE6(), step.getStartLongitudeE6()));
+			}
 	}
 
 	/**
@@ -286,79 +234,119 @@ public class DirectionsOverlay {
 	 * @author ricky barrette
 	 */
 	public String getCopyrights() {
-		return mCopyRights;
+		final Route route = getRoute();
+		return route == null ? null : route.getCopyrights();
 	}
 
 	/**
-	 * @return
+	 * @return the html instructions of each step of the drawn route
 	 * @author ricky barrette
 	 */
 	public ArrayList<String> getDirections() {
+		if (mDirections == null)
+			flatten();
 		return mDirections;
 	}
 
 	/**
-	 * @param step
-	 * @return the distance of a step
-	 * @throws JSONException
+	 * @return
 	 * @author ricky barrette
 	 */
-	private String getDistance(final JSONObject step) throws JSONException {
-		return step.getJSONObject("distance").getString("text");
+	public ArrayList<String> getDistances() {
+		if (mDistance == null)
+			flatten();
+		return mDistance;
 	}
 
 	/**
 	 * @return
 	 * @author ricky barrette
 	 */
-	public ArrayList<String> getDistances() {
-		return mDistance;
+	public ArrayList<String> getDurations() {
+		if (mDuration == null)
+			flatten();
+		return mDuration;
 	}
 
 	/**
-	 * @param step
-	 * @return the duration of a step
-	 * @throws JSONException
+	 * @return a PathOverlay for each segment of the drawn route's path, or
+	 *         null if nothing has been parsed. These are built on the first
+	 *         call for each route, and are not the overlay that draws the
+	 *         path.
+	 * @deprecated the path is drawn by a single overlay now, use
+	 *             {@link #getRouteOverlay()}
 	 * @author ricky barrette
 	 */
-	private String getDuration(final JSONObject step) throws JSONException {
-		return step.getJSONObject("duration").getString("text");
+	@Deprecated
+	public ArrayList<PathOverlay> getPath() {
+		if (mPath == null)
+			return null;
+		if (mPathOverlays == null) {
+			final Polyline polyline = mPath.getPolyline();
+			final ArrayList<PathOverlay> path = new ArrayList<PathOverlay>(Math.max(0, polyline.size() - 1));
+			GeoPoint last = null;
+			for (int i = 0; i < polyline.size(); i++) {
+				final GeoPoint p = new GeoPoint(polyline.getLatitudeE6(i), polyline.getLongitudeE6(i));
+				if (last != null)
+					path.add(new PathOverlay(last, p, mPath.getColor()));
+				last = p;
+			}
+			mPathOverlays = path;
+		}
+		return mPathOverlays;
 	}
 
 	/**
 	 * @return
 	 * @author ricky barrette
 	 */
-	public ArrayList<String> getDurations() {
-		return mDuration;
+	public ArrayList<GeoPoint> getPoints() {
+		if (mPoints == null)
+			flatten();
+		return mPoints;
 	}
 
 	/**
-	 * Converts a JSON location object into a GeoPoint
-	 * 
-	 * @param point
-	 * @return Geopoint parsed from the provided JSON Object
-	 * @throws JSONException
+	 * @return the decoded path of the drawn route, or null if nothing has
+	 *         been parsed
 	 * @author ricky barrette
 	 */
-	private GeoPoint getGeoPoint(final JSONObject point) throws JSONException {
-		return new GeoPoint((int) (point.getDouble("lat") * 1E6), (int) (point.getDouble("lng") * 1E6));
+	public Polyline getPolyline() {
+		return mPath == null ? null : mPath.getPolyline();
 	}
 
 	/**
-	 * @return the array of PathOverlays
+	 * @return every route and leg of the directions, or null if nothing has
+	 *         been parsed
 	 * @author ricky barrette
 	 */
-	public ArrayList<PathOverlay> getPath() {
-		return mPath;
+	public Directions getResponse() {
+		return mResponse;
 	}
 
 	/**
-	 * @return
+	 * @return the drawn route, or null if nothing has been parsed
 	 * @author ricky barrette
 	 */
-	public ArrayList<GeoPoint> getPoints() {
-		return mPoints;
+	public Route getRoute() {
+		return mResponse == null ? null : mResponse.getRoutes().get(mRoute);
+	}
+
+	/**
+	 * @return the index of the drawn route in the response
+	 * @author ricky barrette
+	 */
+	public int getRouteIndex() {
+		return mRoute;
+	}
+
+	/**
+	 * @return the overlay that draws the path, or null if nothing has been
+	 *         parsed
+	 * @author ricky barrette
+	 */
+	public RouteOverlay getRouteOverlay() {
+		return mPath;
 	}
 
 	/**
@@ -366,16 +354,133 @@ public class DirectionsOverlay {
 	 * @author ricky barrette
 	 */
 	public ArrayList<String> getWarnings() {
+		if (mWarnings == null) {
+			final Route route = getRoute();
+			mWarnings = route == null ? new ArrayList<String>() : new ArrayList<String>(route.getWarnings());
+		}
 		return mWarnings;
 	}
 
+	/**
+	 * Downloads and parses directions, without touching the map
+	 * 
+	 * @param request
+	 *            from {@link #createRequest(GeoPoint, GeoPoint)}
+	 * @throws IOException
+	 *             if the download failed or was aborted, or the response is
+	 *             malformed
+	 * @throws JSONException
+	 *             if the response has no routes
+	 * @author ricky barrette
+	 */
+	void load(final HttpGet request) throws IOException, JSONException {
+		final InputStream in = HttpTransport.getInstance().open(request, ENDPOINT);
+		try {
+			parse(new InputStreamReader(in, "UTF-8"));
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Parses a response, and gets the path of its first route ready to draw
+	 * 
+	 * @param json
+	 *            a Google Directions API response, which is parsed as it is
+	 *            read
+	 * @throws IOException
+	 *             if the json could not be read, or is malformed
+	 * @throws JSONException
+	 *             if the json has no routes
+	 * @author ricky barrette
+	 */
+	private void parse(final Reader json) throws IOException, JSONException {
+		if (Debug.DEBUG)
+			Log.d(TAG, "parse");
+		final Directions response = Directions.parse(json);
+		if (response.getRoutes().isEmpty())
+			throw new JSONException("No routes, status " + response.getStatus());
+		restore(response);
+		if (Debug.DEBUG)
+			Log.d(TAG, "finished parsing " + response.getRoutes().size() + " route(s)");
+	}
+
 	/**
 	 * Removes the directions overlay from the map view
 	 * 
 	 * @author ricky barrette
 	 */
 	public void removePath() {
-		if (mMapView.getOverlays().removeAll(mPath))
-			;
+		mMapView.getOverlays().remove(mPath);
+	}
+
+	/**
+	 * Sets the directions to ones that were parsed before, ie by
+	 * DirectionsCache, and gets the path of the first route ready to draw
+	 * 
+	 * @param response
+	 *            with at least one route
+	 * @author ricky barrette
+	 */
+	void restore(final Directions response) {
+		mResponse = response;
+		selectRoute(0);
+	}
+
+	/**
+	 * Selects the route to draw, decoding its path and simplifying it for
+	 * each zoom level
+	 * 
+	 * @param index
+	 * @author ricky barrette
+	 */
+	private void selectRoute(final int index) {
+		mRoute = index;
+		mPath = new RouteOverlay(getRoute().getPyramid(), Color.RED);
+		mPathOverlays = null;
+		mDirections = null;
+		mDistance = null;
+		mDuration = null;
+		mPoints = null;
+		mWarnings = null;
+	}
+
+	/**
+	 * Draws one of the alternative routes instead of the current one. This
+	 * must be called on the UI thread.
+	 * 
+	 * @param index
+	 *            of the route in {@link #getResponse()}
+	 * @throws IndexOutOfBoundsException
+	 *             if there is no such route
+	 * @author ricky barrette
+	 */
+	public void setRoute(final int index) {
+		if (mResponse == null || index < 0 || index >= mResponse.getRoutes().size())
+			throw new IndexOutOfBoundsException();
+		if (index == mRoute)
+			return;
+		final boolean isShown = mMapView != null && mMapView.getOverlays().remove(mPath);
+		selectRoute(index);
+		if (isShown) {
+			mMapView.getOverlays().add(mPath);
+			mMapView.postInvalidate();
+		}
+	}
+
+	/**
+	 * Adds the path to the map, and notifies the listener. This must be called
+	 * on the UI thread.
+	 * 
+	 * @author ricky barrette
+	 */
+	void show() {
+		if (mMapView != null) {
+			mMapView.getOverlays().add(mPath);
+			mMapView.postInvalidate();
+		}
+
+		if (mListener != null)
+			mListener.onDirectionsComplete(DirectionsOverlay.this);
 	}
 }
\ No newline at end of file
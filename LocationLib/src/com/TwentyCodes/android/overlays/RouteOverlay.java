@@ -0,0 +1,258 @@
+/**
+ * RouteOverlay.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.overlays;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+import com.TwentyCodes.android.location.Polyline;
+import com.TwentyCodes.android.location.PolylinePyramid;
+import com.google.android.maps.GeoPoint;
+import com.google.android.maps.MapView;
+import com.google.android.maps.Overlay;
+
+/**
+ * This overlay draws a whole route, ie the path of a DirectionsOverlay, as a
+ * single overlay.
+ * 
+ * Rather than asking the map's Projection for every vertex, each frame the
+ * map's center and longitude span pin down its mercator scale and offset.
+ * Every vertex is then projected with a multiply and an add, the segments
+ * that cross the screen are written into a reused buffer, and they are all
+ * drawn with one call to Canvas.drawLines(). Nothing is allocated while
+ * drawing, other than the GeoPoint the map returns for its center.
+ * 
+ * The route is drawn from a {@link PolylinePyramid}, at the level of the
+ * map's current zoom, so a zoomed out map only projects and draws the few
+ * vertices that matter at its scale.
+ * 
+ * @author ricky barrette
+ */
+public final class RouteOverlay extends Overlay {
+
+	/**
+	 * Pixels past the edge of the screen a segment may reach and still be
+	 * culled, so thick lines don't pop in at the edges
+	 */
+	private static final int MARGIN = 16;
+
+	/**
+	 * Web mercator stops at about 85 degrees
+	 */
+	private static final double MAX_LATITUDE = 85.05112878;
+
+	private static final double LN2 = Math.log(2);
+
+	/**
+	 * Microdegrees in a radian, the unit of mercator y
+	 */
+	private static final double MICRODEGREES_PER_RADIAN = 180E6 / Math.PI;
+
+	private PolylinePyramid mPyramid;
+	private final Paint mPaint;
+	private final int mColor;
+
+	/**
+	 * the mercator y of every vertex of each zoom's level, shared by zooms with
+	 * the same level
+	 */
+	private final double[][] mMercators = new double[PolylinePyramid.MAX_ZOOM + 1][];
+	private final Polyline[] mMercatorLevels = new Polyline[PolylinePyramid.MAX_ZOOM + 1];
+	private float[] mLines;
+
+	/**
+	 * Creates a new RouteOverlay, drawn like a PathOverlay
+	 * 
+	 * @param polyline
+	 *            the route. Points may be added to it later, but not changed.
+	 * @param color
+	 * @author ricky barrette
+	 */
+	public RouteOverlay(final Polyline polyline, final int color) {
+		this(new PolylinePyramid(polyline), color);
+	}
+
+	/**
+	 * Creates a new RouteOverlay, drawn like a PathOverlay
+	 * 
+	 * @param pyramid
+	 *            of the route, which is built again if points are added to
+	 *            its polyline
+	 * @param color
+	 * @author ricky barrette
+	 */
+	public RouteOverlay(final PolylinePyramid pyramid, final int color) {
+		if (pyramid == null)
+			throw new NullPointerException();
+		mPyramid = pyramid;
+		mColor = color;
+		mPaint = new Paint();
+		mPaint.setColor(color);
+		mPaint.setAntiAlias(true);
+		mPaint.setStrokeWidth(5);
+		mPaint.setAlpha(120);
+	}
+
+	/**
+	 * @param canvas
+	 *            canvas to be drawn on
+	 * @param mapView
+	 * @param shadow
+	 */
+	@Override
+	public void draw(final Canvas canvas, final MapView mapView, final boolean shadow) {
+		super.draw(canvas, mapView, shadow);
+		if (shadow || mPyramid.getPolyline().size() < 2)
+			return;
+		final int width = canvas.getWidth();
+		final int height = canvas.getHeight();
+
+		final int lonSpan = mapView.getLongitudeSpan();
+		if (lonSpan <= 0)
+			return;
+		final GeoPoint center = mapView.getMapCenter();
+		final int centerLon = center.getLongitudeE6();
+		final double centerMercator = mercator(center.getLatitudeE6());
+		final float centerX = width / 2f;
+		final float centerY = height / 2f;
+
+		/*
+		 * pixels = center + scale * (lon - center lon) and likewise for y,
+		 * where a radian of mercator y is as many pixels as a radian of
+		 * longitude
+		 */
+		final double scaleX = (double) width / lonSpan;
+		final double scaleY = -scaleX * MICRODEGREES_PER_RADIAN;
+
+		// the world is 256 * 2^zoom pixels wide, round up to the finer level
+		final int zoom = (int) Math.ceil(Math.log(scaleX * 360000000 / 256) / LN2 - 0.01);
+		final Polyline polyline = getLevel(zoom);
+		final int size = polyline.size();
+		final double[] mercators = getMercators(zoom, polyline);
+		final int[] points = polyline.getPoints();
+		if (mLines == null || mLines.length < (size - 1) * 4)
+			mLines = new float[(size - 1) * 4];
+		final float[] lines = mLines;
+
+		int count = 0;
+		float lastX = 0, lastY = 0;
+		for (int i = 0; i < size; i++) {
+			int lon = points[i * 2 + 1] - centerLon;
+			// take the short way around to the center of the screen
+			if (lon < -180000000)
+				lon += 360000000;
+			else if (lon >= 180000000)
+				lon -= 360000000;
+			final float x = (float) (centerX + scaleX * lon);
+			final float y = (float) (centerY + scaleY * (mercators[i] - centerMercator));
+
+			if (i > 0 && !(lastX < -MARGIN && x < -MARGIN || lastX > width + MARGIN && x > width + MARGIN || lastY < -MARGIN && y < -MARGIN || lastY > height + MARGIN
+					&& y > height + MARGIN)) {
+				lines[count++] = lastX;
+				lines[count++] = lastY;
+				lines[count++] = x;
+				lines[count++] = y;
+			}
+			lastX = x;
+			lastY = y;
+		}
+		if (count > 0)
+			canvas.drawLines(lines, 0, count, mPaint);
+	}
+
+	/**
+	 * @param zoom
+	 * @return the level of the pyramid for a zoom, building the pyramid again
+	 *         if the polyline has grown
+	 * @author ricky barrette
+	 */
+	private Polyline getLevel(final int zoom) {
+		if (mPyramid.isStale()) {
+			mPyramid = new PolylinePyramid(mPyramid.getPolyline(), mPyramid.getTolerance());
+			for (int i = 0; i < mMercators.length; i++) {
+				mMercators[i] = null;
+				mMercatorLevels[i] = null;
+			}
+		}
+		return mPyramid.getLevel(zoom);
+	}
+
+	/**
+	 * @param zoom
+	 * @param level
+	 *            the pyramid's level for the zoom
+	 * @return the mercator y of every vertex of the level, which is only
+	 *         worked out once per level
+	 * @author ricky barrette
+	 */
+	private double[] getMercators(final int zoom, final Polyline level) {
+		final int index = Math.max(0, Math.min(PolylinePyramid.MAX_ZOOM, zoom));
+		if (mMercatorLevels[index] != level) {
+			double[] mercators = null;
+			for (int i = 0; i < mMercatorLevels.length && mercators == null; i++)
+				if (mMercatorLevels[i] == level)
+					mercators = mMercators[i];
+			if (mercators == null) {
+				final int size = level.size();
+				mercators = new double[size];
+				final int[] points = level.getPoints();
+				for (int i = 0; i < size; i++)
+					mercators[i] = mercator(points[i * 2]);
+			}
+			mMercators[index] = mercators;
+			mMercatorLevels[index] = level;
+		}
+		return mMercators[index];
+	}
+
+	/**
+	 * @return the color the route is drawn in
+	 * @author ricky barrette
+	 */
+	public int getColor() {
+		return mColor;
+	}
+
+	/**
+	 * @return the route drawn by this overlay
+	 * @author ricky barrette
+	 */
+	public Polyline getPolyline() {
+		return mPyramid.getPolyline();
+	}
+
+	/**
+	 * @return the pyramid the route is drawn from
+	 * @author ricky barrette
+	 */
+	public PolylinePyramid getPyramid() {
+		return mPyramid;
+	}
+
+	/**
+	 * @param latE6
+	 * @return the mercator y of a latitude, growing to the north
+	 * @author ricky barrette
+	 */
+	private static double mercator(final int latE6) {
+		final double lat = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latE6 / 1E6)));
+		return Math.log(Math.tan(Math.PI / 4 + lat / 2));
+	}
+}
@@ -0,0 +1,95 @@
+/**
+ * Benchmarks.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks, taking the same options as JMH's own main.
+ * 
+ * The parsing benchmarks are sampled, so their time is reported as
+ * percentiles, and the math kernels report their throughput per point. All
+ * of them are run with the gc profiler, so allocation per operation is
+ * reported, unless another profiler is given with -prof.
+ * 
+ * The fixtures are responses in the shape the directions and geocoding web
+ * services return, with walking and driving routes of typical size.
+ * 
+ * @author ricky barrette
+ */
+public class Benchmarks {
+
+	/**
+	 * @param args
+	 *            JMH options, ie -f 1 -wi 3 GeoUtils
+	 * @throws IOException
+	 * @throws RunnerException
+	 * @throws CommandLineOptionException
+	 * @author ricky barrette
+	 */
+	public static void main(final String[] args) throws IOException, RunnerException, CommandLineOptionException {
+		final CommandLineOptions cli = new CommandLineOptions(args);
+		if (cli.shouldHelp()) {
+			cli.showHelp();
+			return;
+		}
+		if (cli.shouldList()) {
+			new Runner(cli).list();
+			return;
+		}
+		final OptionsBuilder options = new OptionsBuilder();
+		options.parent(cli);
+		if (cli.getProfilers().isEmpty())
+			options.addProfiler(GCProfiler.class);
+		new Runner(options.build()).run();
+	}
+
+	/**
+	 * @param name
+	 *            of a file in the fixtures folder
+	 * @return the fixture's bytes
+	 * @throws IOException
+	 * @author ricky barrette
+	 */
+	public static byte[] readFixture(final String name) throws IOException {
+		final InputStream in = Benchmarks.class.getResourceAsStream("/fixtures/" + name);
+		if (in == null)
+			throw new IOException("no fixture " + name);
+		try {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			final byte[] buffer = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1)
+				out.write(buffer, 0, read);
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+}
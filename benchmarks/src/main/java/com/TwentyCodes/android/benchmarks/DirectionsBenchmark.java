@@ -0,0 +1,135 @@
+/**
+ * DirectionsBenchmark.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.TwentyCodes.android.location.Directions;
+import com.TwentyCodes.android.location.DirectionsParser;
+import com.TwentyCodes.android.location.Polyline;
+import com.TwentyCodes.android.location.PolylinePyramid;
+
+/**
+ * Parsing a directions response, from its bytes to a Directions with its
+ * polylines decoded, step by step.
+ * 
+ * @author ricky barrette
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DirectionsBenchmark {
+
+	private static final DirectionsParser.Handler NO_HANDLER = new DirectionsParser.Handler() {
+		@Override
+		public void onLeg(final int route, final int index, final DirectionsParser.Leg leg) {
+		}
+
+		@Override
+		public void onRoute(final int index, final DirectionsParser.Route route) {
+		}
+
+		@Override
+		public void onStep(final int route, final int leg, final int index, final DirectionsParser.Step step) {
+		}
+	};
+
+	@Param({ "directions_walking.json", "directions_driving.json" })
+	public String fixture;
+
+	private byte[] mResponse;
+	private byte[] mCached;
+	private Polyline mPolyline;
+
+	@Setup
+	public void setUp() throws IOException {
+		mResponse = Benchmarks.readFixture(fixture);
+		final Directions directions = parse();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		directions.write(new DataOutputStream(out));
+		mCached = out.toByteArray();
+		mPolyline = directions.getRoutes().get(0).getPolyline();
+	}
+
+	/**
+	 * Parses the response into a Directions, without decoding its polylines
+	 */
+	@Benchmark
+	public Directions parse() throws IOException {
+		return Directions.parse(new InputStreamReader(new ByteArrayInputStream(mResponse), "UTF-8"));
+	}
+
+	/**
+	 * Parses the response and decodes the polyline of every route, as
+	 * DirectionsOverlay does for the route it shows
+	 */
+	@Benchmark
+	public void parseAndDecode(final Blackhole blackhole) throws IOException {
+		for (final Directions.Route route : parse().getRoutes())
+			blackhole.consume(route.getPolyline());
+	}
+
+	/**
+	 * Streams the response through DirectionsParser alone, which is the floor
+	 * for parse()
+	 */
+	@Benchmark
+	public String parseEvents() throws IOException {
+		return DirectionsParser.parse(new InputStreamReader(new ByteArrayInputStream(mResponse), "UTF-8"), NO_HANDLER);
+	}
+
+	/**
+	 * Builds the per zoom level of detail of the first route
+	 */
+	@Benchmark
+	public PolylinePyramid pyramid() {
+		return new PolylinePyramid(mPolyline);
+	}
+
+	/**
+	 * Reads the Directions back from the form DirectionsCache stores
+	 */
+	@Benchmark
+	public Directions readCached() throws IOException {
+		return Directions.read(new DataInputStream(new ByteArrayInputStream(mCached)));
+	}
+}
@@ -0,0 +1,99 @@
+/**
+ * DistanceMethodBenchmark.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.TwentyCodes.android.location.DistanceMethod;
+
+/**
+ * The throughput of each DistanceMethod against its accuracy. The largest
+ * error against VINCENTY over the benchmark's points is printed with the
+ * results of each method and span.
+ * 
+ * @author ricky barrette
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DistanceMethodBenchmark {
+
+	static final int POINTS = 1024;
+
+	@Param({ "EQUIRECTANGULAR", "SPHERICAL_LAW_OF_COSINES", "HAVERSINE", "VINCENTY" })
+	public DistanceMethod method;
+
+	/**
+	 * Largest distance between the points in degrees of latitude
+	 */
+	@Param({ "0.0001", "0.1", "10" })
+	public double span;
+
+	private final double[] mLats = new double[POINTS];
+	private final double[] mLngs = new double[POINTS];
+	private final double[] mOut = new double[POINTS];
+
+	@Setup
+	public void setUp() {
+		final Random random = new Random(1);
+		for (int i = 0; i < POINTS; i++) {
+			mLats[i] = 40.7359 + (random.nextDouble() - 0.5) * span;
+			mLngs[i] = -73.9911 + (random.nextDouble() - 0.5) * span;
+		}
+
+		double maxError = 0, maxRelative = 0;
+		for (int i = 1; i < POINTS; i++) {
+			final double exact = DistanceMethod.VINCENTY.distanceKm(mLats[i - 1], mLngs[i - 1], mLats[i], mLngs[i]);
+			final double error = Math.abs(method.distanceKm(mLats[i - 1], mLngs[i - 1], mLats[i], mLngs[i]) - exact);
+			maxError = Math.max(maxError, error);
+			maxRelative = Math.max(maxRelative, error / exact);
+		}
+		System.out.printf("%n%s over %s degrees: max error %.3f m, %.4f%% of VINCENTY%n", method, span, maxError * 1000, maxRelative * 100);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public double[] distanceKm() {
+		double lat = mLats[POINTS - 1], lng = mLngs[POINTS - 1];
+		for (int i = 0; i < POINTS; i++) {
+			mOut[i] = method.distanceKm(lat, lng, mLats[i], mLngs[i]);
+			lat = mLats[i];
+			lng = mLngs[i];
+		}
+		return mOut;
+	}
+}
@@ -0,0 +1,170 @@
+/**
+ * FastMathBenchmark.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.TwentyCodes.android.location.FastMath;
+import com.TwentyCodes.android.location.GeoUtils;
+
+/**
+ * FastMath's trig functions and geo computations against the Math and
+ * GeoUtils versions. Throughput is per call.
+ * 
+ * @author ricky barrette
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FastMathBenchmark {
+
+	static final int CALLS = 1024;
+
+	private final double[] mAngles = new double[CALLS];
+	private final double[] mCosines = new double[CALLS];
+	private final double[] mLats = new double[CALLS];
+	private final double[] mLngs = new double[CALLS];
+	private final double[] mOut = new double[CALLS];
+	private final double[] mPoint = new double[2];
+
+	@Setup
+	public void setUp() {
+		GeoUtils.setFastMathEnabled(false);
+		final Random random = new Random(1);
+		for (int i = 0; i < CALLS; i++) {
+			mAngles[i] = (random.nextDouble() * 2 - 1) * Math.PI;
+			mCosines[i] = random.nextDouble() * 2 - 1;
+			mLats[i] = 40.7359 + (random.nextDouble() - 0.5) * 0.9;
+			mLngs[i] = -73.9911 + (random.nextDouble() - 0.5) * 1.2;
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] acosFast() {
+		for (int i = 0; i < CALLS; i++)
+			mOut[i] = FastMath.acos(mCosines[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] acosMath() {
+		for (int i = 0; i < CALLS; i++)
+			mOut[i] = Math.acos(mCosines[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] atan2Fast() {
+		for (int i = 0; i < CALLS; i++)
+			mOut[i] = FastMath.atan2(mCosines[i], mAngles[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] atan2Math() {
+		for (int i = 0; i < CALLS; i++)
+			mOut[i] = Math.atan2(mCosines[i], mAngles[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] bearingFast() {
+		for (int i = 1; i < CALLS; i++)
+			mOut[i] = FastMath.bearing(mLats[i - 1], mLngs[i - 1], mLats[i], mLngs[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] bearingMath() {
+		for (int i = 1; i < CALLS; i++)
+			mOut[i] = GeoUtils.bearing(mLats[i - 1], mLngs[i - 1], mLats[i], mLngs[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] distanceFromFast() {
+		for (int i = 0; i < CALLS; i++)
+			mOut[i] = FastMath.distanceFrom(mLats[i], mLngs[i], 0.5, (float) mLngs[i], mPoint)[0];
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] distanceFromMath() {
+		for (int i = 0; i < CALLS; i++)
+			mOut[i] = GeoUtils.distanceFrom(mLats[i], mLngs[i], 0.5, (float) mLngs[i], mPoint)[0];
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] distanceKmFast() {
+		for (int i = 1; i < CALLS; i++)
+			mOut[i] = FastMath.distanceKm(mLats[i - 1], mLngs[i - 1], mLats[i], mLngs[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] distanceKmMath() {
+		for (int i = 1; i < CALLS; i++)
+			mOut[i] = GeoUtils.distanceKm(mLats[i - 1], mLngs[i - 1], mLats[i], mLngs[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] sinFast() {
+		for (int i = 0; i < CALLS; i++)
+			mOut[i] = FastMath.sin(mAngles[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(CALLS)
+	public double[] sinMath() {
+		for (int i = 0; i < CALLS; i++)
+			mOut[i] = Math.sin(mAngles[i]);
+		return mOut;
+	}
+}
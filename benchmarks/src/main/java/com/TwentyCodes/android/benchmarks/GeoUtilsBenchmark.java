@@ -0,0 +1,120 @@
+/**
+ * GeoUtilsBenchmark.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.TwentyCodes.android.location.GeoUtils;
+import com.google.android.gms.maps.model.LatLng;
+
+/**
+ * Ranking candidate points against the user, with the batch distance and
+ * bearing kernels against a loop over the scalar methods. Throughput is per
+ * point.
+ * 
+ * @author ricky barrette
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeoUtilsBenchmark {
+
+	static final int POINTS = 1024;
+
+	private final double mLat = 40.7359;
+	private final double mLon = -73.9911;
+	private final LatLng mUser = new LatLng(mLat, mLon);
+	private final double[] mLats = new double[POINTS];
+	private final double[] mLngs = new double[POINTS];
+	private final LatLng[] mPoints = new LatLng[POINTS];
+	private final double[] mOut = new double[POINTS];
+
+	@Setup
+	public void setUp() {
+		GeoUtils.setFastMathEnabled(false);
+		final Random random = new Random(1);
+		for (int i = 0; i < POINTS; i++) {
+			// candidates within about 50 km
+			mLats[i] = mLat + (random.nextDouble() - 0.5) * 0.9;
+			mLngs[i] = mLon + (random.nextDouble() - 0.5) * 1.2;
+			mPoints[i] = new LatLng(mLats[i], mLngs[i]);
+		}
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public double[] bearingLatLngLoop() {
+		for (int i = 0; i < POINTS; i++)
+			mOut[i] = GeoUtils.bearing(mUser, mPoints[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public double[] bearingLoop() {
+		for (int i = 0; i < POINTS; i++)
+			mOut[i] = GeoUtils.bearing(mLat, mLon, mLats[i], mLngs[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public double[] bearings() {
+		return GeoUtils.bearings(mLat, mLon, mLats, mLngs, mOut);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public double[] distanceKmLatLngLoop() {
+		for (int i = 0; i < POINTS; i++)
+			mOut[i] = GeoUtils.distanceKm(mUser, mPoints[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public double[] distanceKmLoop() {
+		for (int i = 0; i < POINTS; i++)
+			mOut[i] = GeoUtils.distanceKm(mLat, mLon, mLats[i], mLngs[i]);
+		return mOut;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(POINTS)
+	public double[] distancesKm() {
+		return GeoUtils.distancesKm(mLat, mLon, mLats, mLngs, mOut);
+	}
+}
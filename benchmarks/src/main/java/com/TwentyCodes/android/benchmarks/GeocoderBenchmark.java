@@ -0,0 +1,119 @@
+/**
+ * GeocoderBenchmark.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.TwentyCodes.android.location.JsonPullParser;
+
+/**
+ * Pulling the addresses and locations out of a geocoding response with
+ * JsonPullParser.
+ * 
+ * @author ricky barrette
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeocoderBenchmark {
+
+	private byte[] mResponse;
+
+	@Setup
+	public void setUp() throws IOException {
+		mResponse = Benchmarks.readFixture("geocode.json");
+	}
+
+	/**
+	 * Reads the formatted address and location of every result, skipping the
+	 * rest
+	 */
+	@Benchmark
+	public void addresses(final Blackhole blackhole) throws IOException {
+		final JsonPullParser parser = new JsonPullParser(new InputStreamReader(new ByteArrayInputStream(mResponse), "UTF-8"));
+		parser.beginObject();
+		while (parser.hasNext()) {
+			if (!"results".contentEquals(parser.nextName())) {
+				parser.skipValue();
+				continue;
+			}
+			parser.beginArray();
+			while (parser.hasNext()) {
+				parser.beginObject();
+				while (parser.hasNext()) {
+					final CharSequence name = parser.nextName();
+					if ("formatted_address".contentEquals(name))
+						blackhole.consume(parser.nextString());
+					else if ("geometry".contentEquals(name))
+						location(parser, blackhole);
+					else
+						parser.skipValue();
+				}
+				parser.endObject();
+			}
+			parser.endArray();
+		}
+		parser.endObject();
+	}
+
+	/**
+	 * Skips the whole response, which is the floor for addresses()
+	 */
+	@Benchmark
+	public void skip() throws IOException {
+		new JsonPullParser(new InputStreamReader(new ByteArrayInputStream(mResponse), "UTF-8")).skipValue();
+	}
+
+	/**
+	 * Reads geometry.location
+	 */
+	private static void location(final JsonPullParser parser, final Blackhole blackhole) throws IOException {
+		parser.beginObject();
+		while (parser.hasNext())
+			if ("location".contentEquals(parser.nextName())) {
+				parser.beginObject();
+				while (parser.hasNext()) {
+					parser.nextName();
+					blackhole.consume(parser.nextDouble());
+				}
+				parser.endObject();
+			} else
+				parser.skipValue();
+		parser.endObject();
+	}
+}
@@ -0,0 +1,16 @@
+package com.google.android.gms.maps.model;
+
+/**
+ * Stand in for the play services LatLng, so the geo math can run on a plain
+ * JVM
+ */
+public final class LatLng {
+
+	public final double latitude;
+	public final double longitude;
+
+	public LatLng(final double latitude, final double longitude) {
+		this.latitude = latitude;
+		this.longitude = longitude;
+	}
+}
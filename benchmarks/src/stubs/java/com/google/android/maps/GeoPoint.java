@@ -0,0 +1,23 @@
+package com.google.android.maps;
+
+/**
+ * Stand in for the maps v1 GeoPoint, so the geo math can run on a plain JVM
+ */
+public class GeoPoint {
+
+	private final int mLatitudeE6;
+	private final int mLongitudeE6;
+
+	public GeoPoint(final int latitudeE6, final int longitudeE6) {
+		mLatitudeE6 = latitudeE6;
+		mLongitudeE6 = longitudeE6;
+	}
+
+	public int getLatitudeE6() {
+		return mLatitudeE6;
+	}
+
+	public int getLongitudeE6() {
+		return mLongitudeE6;
+	}
+}
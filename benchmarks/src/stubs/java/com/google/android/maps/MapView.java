@@ -0,0 +1,29 @@
+package com.google.android.maps;
+
+/**
+ * Stand in for the maps v1 MapView, with only what the geo math reads from it
+ */
+public class MapView {
+
+	private final GeoPoint mCenter;
+	private final int mLatitudeSpan;
+	private final int mLongitudeSpan;
+
+	public MapView(final GeoPoint center, final int latitudeSpan, final int longitudeSpan) {
+		mCenter = center;
+		mLatitudeSpan = latitudeSpan;
+		mLongitudeSpan = longitudeSpan;
+	}
+
+	public int getLatitudeSpan() {
+		return mLatitudeSpan;
+	}
+
+	public int getLongitudeSpan() {
+		return mLongitudeSpan;
+	}
+
+	public GeoPoint getMapCenter() {
+		return mCenter;
+	}
+}
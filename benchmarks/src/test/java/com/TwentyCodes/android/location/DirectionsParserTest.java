@@ -0,0 +1,170 @@
+/**
+ * DirectionsParserTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.TwentyCodes.android.benchmarks.Benchmarks;
+
+/**
+ * Streams the recorded directions responses through DirectionsParser and
+ * checks every callback against the same responses read by org.json.
+ * 
+ * @author ricky barrette
+ */
+public class DirectionsParserTest {
+
+	/**
+	 * Writes each callback as a line of text, since the parser reuses the
+	 * objects it hands out
+	 * 
+	 * @author ricky barrette
+	 */
+	private static class Recorder implements DirectionsParser.Handler {
+		final List<String> mEvents = new ArrayList<String>();
+
+		@Override
+		public void onLeg(final int route, final int index, final DirectionsParser.Leg leg) {
+			mEvents.add("leg " + route + " " + index + " " + leg.getDistance() + " " + leg.getDistanceText() + " " + leg.getDuration() + " "
+					+ leg.getDurationText() + " " + leg.getStartAddress() + " " + leg.getEndAddress() + " " + leg.getStartLatitude() + " "
+					+ leg.getStartLongitude() + " " + leg.getEndLatitude() + " " + leg.getEndLongitude());
+		}
+
+		@Override
+		public void onRoute(final int index, final DirectionsParser.Route route) {
+			mEvents.add("route " + index + " " + route.getSummary() + " " + route.getCopyrights() + " " + route.getWarnings() + " "
+					+ route.getOverviewPolyline());
+		}
+
+		@Override
+		public void onStep(final int route, final int leg, final int index, final DirectionsParser.Step step) {
+			mEvents.add("step " + route + " " + leg + " " + index + " " + step.getDistance() + " " + step.getDistanceText() + " "
+					+ step.getDuration() + " " + step.getDurationText() + " " + step.getInstructions() + " " + step.getStartLatitude() + " "
+					+ step.getStartLongitude() + " " + step.getEndLatitude() + " " + step.getEndLongitude() + " " + step.getPolyline());
+		}
+	}
+
+	@Test
+	public void driving() throws IOException {
+		assertFixture("directions_driving.json");
+	}
+
+	@Test
+	public void walking() throws IOException {
+		assertFixture("directions_walking.json");
+	}
+
+	@Test
+	public void warningsAndUnknownKeys() throws IOException {
+		final String json = "{\"geocoded_waypoints\":[{\"types\":[\"street_address\"]}],\"routes\":[{\"summary\":\"A\",\"warnings\":[\"one\",\"two\"],"
+				+ "\"extra\":{\"nested\":[1,2,{\"x\":null}]},\"legs\":[]}],\"status\":\"OK\"}";
+		final Recorder recorder = new Recorder();
+		assertEquals("OK", DirectionsParser.parse(new StringReader(json), recorder));
+		assertEquals(1, recorder.mEvents.size());
+		assertEquals("route 0 A null [one, two] ", recorder.mEvents.get(0));
+	}
+
+	@Test
+	public void zeroResults() throws IOException {
+		final Recorder recorder = new Recorder();
+		assertEquals("ZERO_RESULTS", DirectionsParser.parse(new StringReader("{\"routes\":[],\"status\":\"ZERO_RESULTS\"}"), recorder));
+		assertEquals(0, recorder.mEvents.size());
+		assertNull(DirectionsParser.parse(new StringReader("{\"routes\":[]}"), recorder));
+	}
+
+	/**
+	 * Checks the callbacks for a recorded response, and their order, against
+	 * the response read by org.json
+	 * 
+	 * @param name
+	 *            of the fixture
+	 */
+	private static void assertFixture(final String name) throws IOException {
+		final byte[] bytes = Benchmarks.readFixture(name);
+		final JSONObject response = new JSONObject(new String(bytes, "UTF-8"));
+
+		final List<String> expected = new ArrayList<String>();
+		final JSONArray routes = response.getJSONArray("routes");
+		for (int r = 0; r < routes.length(); r++) {
+			final JSONObject route = routes.getJSONObject(r);
+			final JSONArray legs = route.getJSONArray("legs");
+			for (int l = 0; l < legs.length(); l++) {
+				final JSONObject leg = legs.getJSONObject(l);
+				final JSONArray steps = leg.getJSONArray("steps");
+				for (int s = 0; s < steps.length(); s++) {
+					final JSONObject step = steps.getJSONObject(s);
+					expected.add("step " + r + " " + l + " " + s + " " + textValue(step, "distance") + " " + textValue(step, "duration") + " "
+							+ step.getString("html_instructions") + " " + location(step, "start_location") + " " + location(step, "end_location") + " "
+							+ step.getJSONObject("polyline").getString("points"));
+				}
+				expected.add("leg " + r + " " + l + " " + textValue(leg, "distance") + " " + textValue(leg, "duration") + " "
+						+ leg.getString("start_address") + " " + leg.getString("end_address") + " " + location(leg, "start_location") + " "
+						+ location(leg, "end_location"));
+			}
+			final List<String> warnings = new ArrayList<String>();
+			final JSONArray array = route.getJSONArray("warnings");
+			for (int i = 0; i < array.length(); i++)
+				warnings.add(array.getString(i));
+			expected.add("route " + r + " " + route.getString("summary") + " " + route.getString("copyrights") + " " + warnings + " "
+					+ route.getJSONObject("overview_polyline").getString("points"));
+		}
+
+		final Recorder recorder = new Recorder();
+		final InputStreamReader reader = new InputStreamReader(new ByteArrayInputStream(bytes), "UTF-8");
+		assertEquals(response.getString("status"), DirectionsParser.parse(reader, recorder));
+		assertEquals(expected.size(), recorder.mEvents.size());
+		for (int i = 0; i < expected.size(); i++)
+			assertEquals(expected.get(i), recorder.mEvents.get(i));
+	}
+
+	/**
+	 * @param object
+	 * @param key
+	 *            of a {lat, lng} object
+	 * @return the location as the recorder writes it
+	 */
+	private static String location(final JSONObject object, final String key) {
+		final JSONObject location = object.getJSONObject(key);
+		return location.getDouble("lat") + " " + location.getDouble("lng");
+	}
+
+	/**
+	 * @param object
+	 * @param key
+	 *            of a {text, value} object
+	 * @return the value and text as the recorder writes them
+	 */
+	private static String textValue(final JSONObject object, final String key) {
+		final JSONObject textValue = object.getJSONObject(key);
+		return textValue.getLong("value") + " " + textValue.getString("text");
+	}
+}
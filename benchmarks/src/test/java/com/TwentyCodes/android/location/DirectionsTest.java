@@ -0,0 +1,248 @@
+/**
+ * DirectionsTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import com.TwentyCodes.android.benchmarks.Benchmarks;
+
+/**
+ * Checks Directions against the recorded directions responses read by
+ * org.json, and that it reads back what it writes.
+ * 
+ * @author ricky barrette
+ */
+public class DirectionsTest {
+
+	private static final String[] FIXTURES = { "directions_driving.json", "directions_walking.json" };
+
+	@Test
+	public void fixtures() throws IOException {
+		for (final String name : FIXTURES) {
+			final JSONObject response = new JSONObject(new String(Benchmarks.readFixture(name), "UTF-8"));
+			final Directions directions = parse(name);
+			assertEquals(response.getString("status"), directions.getStatus());
+
+			final JSONArray routes = response.getJSONArray("routes");
+			assertEquals(routes.length(), directions.getRoutes().size());
+			for (int r = 0; r < routes.length(); r++) {
+				final JSONObject jsonRoute = routes.getJSONObject(r);
+				final Directions.Route route = directions.getRoutes().get(r);
+				assertEquals(jsonRoute.getString("summary"), route.getSummary());
+				assertEquals(jsonRoute.getString("copyrights"), route.getCopyrights());
+				assertEquals(jsonRoute.getJSONArray("warnings").length(), route.getWarnings().size());
+				for (int i = 0; i < route.getWarnings().size(); i++)
+					assertEquals(jsonRoute.getJSONArray("warnings").getString(i), route.getWarnings().get(i));
+				assertPolyline(Polyline.decode(jsonRoute.getJSONObject("overview_polyline").getString("points")), route.getOverviewPolyline());
+
+				final JSONArray legs = jsonRoute.getJSONArray("legs");
+				assertEquals(legs.length(), route.getLegs().size());
+				final List<int[]> routePath = new ArrayList<int[]>();
+				long distance = 0, duration = 0;
+				for (int l = 0; l < legs.length(); l++) {
+					final JSONObject jsonLeg = legs.getJSONObject(l);
+					final Directions.Leg leg = route.getLegs().get(l);
+					assertEquals(jsonLeg.getString("start_address"), leg.getStartAddress());
+					assertEquals(jsonLeg.getString("end_address"), leg.getEndAddress());
+					assertEquals(toE6(jsonLeg, "start_location", "lat"), leg.getStartLatitudeE6());
+					assertEquals(toE6(jsonLeg, "start_location", "lng"), leg.getStartLongitudeE6());
+					assertEquals(toE6(jsonLeg, "end_location", "lat"), leg.getEndLatitudeE6());
+					assertEquals(toE6(jsonLeg, "end_location", "lng"), leg.getEndLongitudeE6());
+					assertEquals(jsonLeg.getJSONObject("distance").getLong("value"), leg.getDistance());
+					assertEquals(jsonLeg.getJSONObject("distance").getString("text"), leg.getDistanceText());
+					assertEquals(jsonLeg.getJSONObject("duration").getLong("value"), leg.getDuration());
+					assertEquals(jsonLeg.getJSONObject("duration").getString("text"), leg.getDurationText());
+					distance += leg.getDistance();
+					duration += leg.getDuration();
+
+					final JSONArray steps = jsonLeg.getJSONArray("steps");
+					assertEquals(steps.length(), leg.getSteps().size());
+					final List<int[]> legPath = new ArrayList<int[]>();
+					for (int s = 0; s < steps.length(); s++) {
+						final JSONObject jsonStep = steps.getJSONObject(s);
+						final Directions.Step step = leg.getSteps().get(s);
+						assertEquals(jsonStep.getString("html_instructions"), step.getHtmlInstructions());
+						assertEquals(Directions.toText(jsonStep.getString("html_instructions")), step.getInstructions());
+						assertEquals(toE6(jsonStep, "start_location", "lat"), step.getStartLatitudeE6());
+						assertEquals(toE6(jsonStep, "start_location", "lng"), step.getStartLongitudeE6());
+						assertEquals(toE6(jsonStep, "end_location", "lat"), step.getEndLatitudeE6());
+						assertEquals(toE6(jsonStep, "end_location", "lng"), step.getEndLongitudeE6());
+						assertEquals(jsonStep.getJSONObject("distance").getLong("value"), step.getDistance());
+						assertEquals(jsonStep.getJSONObject("distance").getString("text"), step.getDistanceText());
+						assertEquals(jsonStep.getJSONObject("duration").getLong("value"), step.getDuration());
+						assertEquals(jsonStep.getJSONObject("duration").getString("text"), step.getDurationText());
+
+						final Polyline stepPath = Polyline.decode(jsonStep.getJSONObject("polyline").getString("points"));
+						assertPolyline(stepPath, step.getPolyline());
+						join(legPath, stepPath);
+						join(routePath, stepPath);
+					}
+					assertPolyline(legPath, leg.getPolyline());
+				}
+				assertPolyline(routePath, route.getPolyline());
+				assertEquals(distance, route.getDistance());
+				assertEquals(duration, route.getDuration());
+			}
+		}
+	}
+
+	@Test
+	public void roundTrip() throws IOException {
+		for (final String name : FIXTURES) {
+			final Directions directions = parse(name);
+			final byte[] bytes = write(directions);
+			final Directions read = Directions.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+			assertEquals(describe(directions), describe(read));
+			assertArrayEquals(bytes, write(read));
+		}
+	}
+
+	@Test
+	public void toText() {
+		assertEquals("Turn left onto Main St\nDestination will be on the right",
+				Directions.toText("Turn <b>left</b> onto <b>Main St</b><div style=\"font-size:0.9em\">Destination will be on the right</div>"));
+		assertEquals("A & B <C> \"D\" 'E' F G H", Directions.toText("A &amp; B &lt;C&gt; &quot;D&quot; &apos;E&apos;&nbsp;F &#71; &#x48;"));
+		assertEquals("&bogus; & x", Directions.toText("&bogus; & x"));
+		assertEquals("one\ntwo", Directions.toText("<p>one</p><br/>two"));
+	}
+
+	@Test
+	public void unknownVersion() throws IOException {
+		final byte[] bytes = write(parse(FIXTURES[1]));
+		bytes[0] = 2;
+		try {
+			Directions.read(new DataInputStream(new ByteArrayInputStream(bytes)));
+			fail("version 2 is not known");
+		} catch (final IOException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * @param expected
+	 *            lat, lon pairs
+	 * @param actual
+	 */
+	private static void assertPolyline(final List<int[]> expected, final Polyline actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i)[0], actual.getLatitudeE6(i));
+			assertEquals(expected.get(i)[1], actual.getLongitudeE6(i));
+		}
+	}
+
+	private static void assertPolyline(final Polyline expected, final Polyline actual) {
+		assertArrayEquals(Arrays.copyOf(expected.getPoints(), expected.size() * 2), Arrays.copyOf(actual.getPoints(), actual.size() * 2));
+	}
+
+	/**
+	 * @param directions
+	 * @return every field of the directions as text
+	 */
+	private static String describe(final Directions directions) {
+		final StringBuilder sb = new StringBuilder(directions.getStatus()).append('\n');
+		for (final Directions.Route route : directions.getRoutes()) {
+			sb.append(route.getSummary()).append('|').append(route.getCopyrights()).append('|').append(route.getWarnings()).append('|')
+					.append(toString(route.getOverviewPolyline())).append('|').append(toString(route.getPolyline())).append('\n');
+			for (final Directions.Leg leg : route.getLegs()) {
+				sb.append(leg.getStartAddress()).append('|').append(leg.getEndAddress()).append('|').append(leg.getStartLatitudeE6()).append(',')
+						.append(leg.getStartLongitudeE6()).append('|').append(leg.getEndLatitudeE6()).append(',').append(leg.getEndLongitudeE6())
+						.append('|').append(leg.getDistance()).append(' ').append(leg.getDistanceText()).append('|').append(leg.getDuration())
+						.append(' ').append(leg.getDurationText()).append('\n');
+				for (final Directions.Step step : leg.getSteps())
+					sb.append(step.getHtmlInstructions()).append('|').append(step.getStartLatitudeE6()).append(',').append(step.getStartLongitudeE6())
+							.append('|').append(step.getEndLatitudeE6()).append(',').append(step.getEndLongitudeE6()).append('|')
+							.append(step.getDistance()).append(' ').append(step.getDistanceText()).append('|').append(step.getDuration())
+							.append(' ').append(step.getDurationText()).append('|').append(toString(step.getPolyline())).append('\n');
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Adds a step's path to the end of a path, dropping its first point when
+	 * it is where the path ends
+	 * 
+	 * @param path
+	 *            lat, lon pairs
+	 * @param step
+	 */
+	private static void join(final List<int[]> path, final Polyline step) {
+		for (int i = 0; i < step.size(); i++) {
+			final int[] point = { step.getLatitudeE6(i), step.getLongitudeE6(i) };
+			if (i == 0 && !path.isEmpty() && Arrays.equals(path.get(path.size() - 1), point))
+				continue;
+			path.add(point);
+		}
+	}
+
+	/**
+	 * @param name
+	 *            of a fixture
+	 * @return the parsed fixture
+	 */
+	private static Directions parse(final String name) throws IOException {
+		return Directions.parse(new InputStreamReader(new ByteArrayInputStream(Benchmarks.readFixture(name)), "UTF-8"));
+	}
+
+	/**
+	 * @param object
+	 * @param location
+	 *            key of a {lat, lng} object
+	 * @param key
+	 *            lat or lng
+	 * @return the degrees in microdegrees
+	 */
+	private static int toE6(final JSONObject object, final String location, final String key) {
+		return (int) Math.round(object.getJSONObject(location).getDouble(key) * 1E6);
+	}
+
+	private static String toString(final Polyline polyline) {
+		return Arrays.toString(Arrays.copyOf(polyline.getPoints(), polyline.size() * 2));
+	}
+
+	/**
+	 * @param directions
+	 * @return the directions as written by Directions.write()
+	 */
+	private static byte[] write(final Directions directions) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		directions.write(out);
+		out.flush();
+		return bytes.toByteArray();
+	}
+}
@@ -0,0 +1,105 @@
+/**
+ * DistanceFormatterTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertEquals;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks that DistanceFormatter formats like the DecimalFormat based
+ * distanceToString() it replaced.
+ * 
+ * @author ricky barrette
+ */
+public class DistanceFormatterTest {
+
+	private static final DecimalFormatSymbols SYMBOLS = DecimalFormatSymbols.getInstance(Locale.US);
+
+	private final DistanceFormatter mMetric = new DistanceFormatter(true, 3, 2, '.');
+	private final DistanceFormatter mUs = new DistanceFormatter(false, 2, 2, '.');
+
+	@Test
+	public void examples() {
+		assertEquals("1.062 Km", mMetric.format(1.0625));
+		assertEquals("1 Km", mMetric.format(1.0005));
+		assertEquals("1234567.891 Km", mMetric.format(1234567.8915));
+		assertEquals("100000000000000000000 Km", mMetric.format(1E20));
+		assertEquals("250 m", mMetric.format(0.25));
+		assertEquals("-0.5 m", mMetric.format(-0.0005));
+	}
+
+	@Test
+	public void random() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 200000; i++) {
+			final double distance = Math.pow(10, random.nextDouble() * 24 - 4) * random.nextDouble();
+			check(distance);
+		}
+	}
+
+	@Test
+	public void ties() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 200000; i++) {
+			// halfway between two values of the last digit, give or take the double
+			final long scaled = random.nextInt(Integer.MAX_VALUE) * 10L + 5;
+			final int digits = random.nextInt(DistanceFormatter.MAX_PRECISION) + 1;
+			final double distance = scaled / Math.pow(10, digits);
+			check(distance);
+			check(Math.nextUp(distance));
+			check(Math.nextAfter(distance, 0));
+		}
+		// exact binary ties
+		for (int i = 1; i < 100000; i++)
+			check(i / 4096.0 + 1);
+	}
+
+	private void check(final double distance) {
+		assertEquals(Double.toString(distance), expected(distance, true), mMetric.format(distance));
+		assertEquals(Double.toString(distance), expected(distance, false), mUs.format(distance));
+	}
+
+	/**
+	 * @return the distance formatted the way distanceToString() used to
+	 */
+	private static String expected(double distance, final boolean metric) {
+		final DecimalFormat threeDForm = new DecimalFormat("#.###", SYMBOLS);
+		final DecimalFormat twoDForm = new DecimalFormat("#.##", SYMBOLS);
+		if (metric) {
+			if (distance < 1) {
+				distance = distance * 1000;
+				return twoDForm.format(distance) + " m";
+			}
+			return threeDForm.format(distance) + " Km";
+		}
+		distance = distance / 1.609344;
+		if (distance < 1) {
+			distance = distance * 5280;
+			return twoDForm.format(distance) + " ft";
+		}
+		return twoDForm.format(distance) + " mi";
+	}
+}
@@ -0,0 +1,181 @@
+/**
+ * FastMathTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the distribution of FastMath's errors against the exact Math and
+ * GeoUtils paths, and that the worst of them is within the bounds documented
+ * on FastMath.
+ * 
+ * @author ricky barrette
+ */
+public class FastMathTest {
+
+	private static final int SAMPLES = 1000000;
+
+	private final Random mRandom = new Random(1);
+	private final double[] mErrors = new double[SAMPLES];
+
+	@Test
+	public void acos() {
+		for (int i = 0; i < SAMPLES; i++) {
+			final double x = mRandom.nextDouble() * 2 - 1;
+			mErrors[i] = Math.abs(FastMath.acos(x) - Math.acos(x));
+		}
+		check("acos", 1E-15);
+	}
+
+	@Test
+	public void asin() {
+		for (int i = 0; i < SAMPLES; i++) {
+			final double x = mRandom.nextDouble() * 2 - 1;
+			mErrors[i] = Math.abs(FastMath.asin(x) - Math.asin(x));
+		}
+		check("asin", 1E-15);
+	}
+
+	@Test
+	public void atan2() {
+		for (int i = 0; i < SAMPLES; i++) {
+			final double y = mRandom.nextGaussian(), x = mRandom.nextGaussian();
+			mErrors[i] = Math.abs(FastMath.atan2(y, x) - Math.atan2(y, x));
+		}
+		check("atan2", 1E-15);
+	}
+
+	@Test
+	public void bearing() {
+		for (int i = 0; i < SAMPLES; i++) {
+			final double lat1 = latitude(), lon1 = longitude(), lat2 = latitude(), lon2 = longitude();
+			final double error = Math.abs(FastMath.bearing(lat1, lon1, lat2, lon2) - GeoUtils.bearing(lat1, lon1, lat2, lon2));
+			mErrors[i] = Math.min(error, 360 - error);
+		}
+		check("bearing", 1E-8);
+	}
+
+	@Test
+	public void cos() {
+		for (int i = 0; i < SAMPLES; i++) {
+			final double x = (mRandom.nextDouble() * 2 - 1) * 2 * Math.PI;
+			mErrors[i] = Math.abs(FastMath.cos(x) - Math.cos(x));
+		}
+		check("cos", 1E-15);
+	}
+
+	@Test
+	public void distanceFrom() {
+		final double[] exact = new double[2], fast = new double[2];
+		for (int i = 0; i < SAMPLES; i++) {
+			final double lat = latitude(), lon = longitude(), distance = mRandom.nextDouble() * 1000;
+			final float bearing = (float) (mRandom.nextDouble() * 360);
+			GeoUtils.distanceFrom(lat, lon, distance, bearing, exact);
+			FastMath.distanceFrom(lat, lon, distance, bearing, fast);
+			mErrors[i] = Math.max(Math.abs(fast[0] - exact[0]), Math.abs(fast[1] - exact[1]));
+		}
+		check("distanceFrom", 1E-8);
+	}
+
+	@Test
+	public void distanceFromLatitudeArc() {
+		for (int i = 0; i < SAMPLES;) {
+			final double lat = latitude(), distance = mRandom.nextDouble() * 1000000;
+			final double exact = GeoUtils.distanceFrom(lat, 0, distance);
+			// no point on the arc is that far away, see FastMath.acos()
+			if (Double.isNaN(exact))
+				continue;
+			mErrors[i++] = Math.abs(FastMath.distanceFrom(lat, 0, distance) - exact);
+		}
+		check("distanceFrom arc", 1E-5);
+	}
+
+	@Test
+	public void distanceKm() {
+		for (int i = 0; i < SAMPLES; i++) {
+			final double lat1 = latitude(), lon1 = longitude(), lat2 = latitude(), lon2 = longitude();
+			mErrors[i] = Math.abs(FastMath.distanceKm(lat1, lon1, lat2, lon2) - GeoUtils.distanceKm(lat1, lon1, lat2, lon2));
+		}
+		// 1 cm
+		check("distanceKm", 1E-5);
+	}
+
+	@Test
+	public void outOfRange() {
+		assertEquals(0, FastMath.acos(1.0000001), 0);
+		assertEquals(Math.PI, FastMath.acos(-1.0000001), 0);
+		assertEquals(Math.PI / 2, FastMath.asin(1.0000001), 0);
+		assertEquals(-Math.PI / 2, FastMath.asin(-1.0000001), 0);
+		assertTrue(Double.isNaN(Math.acos(1.0000001)));
+
+		/*
+		 * rounding pushes the law of cosines past 1 for a few percent of
+		 * identical points, giving NaN with Math. It is still only good to a
+		 * meter or so this close.
+		 */
+		GeoUtils.setFastMathEnabled(true);
+		try {
+			for (int i = 0; i < SAMPLES; i++) {
+				final double lat = latitude(), lon = longitude();
+				assertEquals(0, GeoUtils.distanceKm(lat, lon, lat, lon), 1E-3);
+			}
+		} finally {
+			GeoUtils.setFastMathEnabled(false);
+		}
+	}
+
+	@Test
+	public void sin() {
+		for (int i = 0; i < SAMPLES; i++) {
+			final double x = (mRandom.nextDouble() * 2 - 1) * 2 * Math.PI;
+			mErrors[i] = Math.abs(FastMath.sin(x) - Math.sin(x));
+		}
+		check("sin", 1E-15);
+	}
+
+	/**
+	 * Prints the distribution of the errors, and checks the worst of them
+	 * 
+	 * @param name
+	 * @param bound
+	 *            documented error bound
+	 */
+	private void check(final String name, final double bound) {
+		Arrays.sort(mErrors);
+		final double max = mErrors[SAMPLES - 1];
+		System.out.printf("%-16s p50 %.2e  p99 %.2e  p99.9 %.2e  max %.2e  bound %.0e%n", name, mErrors[SAMPLES / 2], mErrors[SAMPLES / 100 * 99],
+				mErrors[SAMPLES / 1000 * 999], max, bound);
+		assertTrue(name + " off by " + max, max <= bound);
+	}
+
+	private double latitude() {
+		return (mRandom.nextDouble() * 2 - 1) * 85;
+	}
+
+	private double longitude() {
+		return (mRandom.nextDouble() * 2 - 1) * 180;
+	}
+}
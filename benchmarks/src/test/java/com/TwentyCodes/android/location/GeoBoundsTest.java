@@ -0,0 +1,109 @@
+/**
+ * GeoBoundsTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Checks GeoBounds around the anti-meridian, where -180 and 180 are the same
+ * meridian.
+ * 
+ * @author ricky barrette
+ */
+public class GeoBoundsTest {
+
+	@Test
+	public void crossing() {
+		final GeoBounds bounds = new GeoBounds(0, 170, 10, -170);
+		assertTrue(bounds.contains(5, 180));
+		assertTrue(bounds.contains(5, -180));
+		assertTrue(bounds.contains(5, 175));
+		assertTrue(bounds.contains(5, -175));
+		assertFalse(bounds.contains(5, 0));
+		assertEquals(20, bounds.getLongitudeSpan(), 0);
+	}
+
+	@Test
+	public void eastEdge() {
+		final GeoBounds bounds = new GeoBounds(0, 170, 10, 180);
+		assertTrue(bounds.contains(5, 180));
+		assertTrue(bounds.contains(5, -180));
+		assertTrue(bounds.contains(5, 175));
+		assertFalse(bounds.contains(5, -175));
+		assertEquals(180, bounds.getEast(), 0);
+		assertEquals(10, bounds.getLongitudeSpan(), 0);
+
+		// -180 given as the east edge is the same meridian
+		bounds.set(0, 170, 10, -180);
+		assertEquals(180, bounds.getEast(), 0);
+		assertTrue(bounds.contains(5, 180));
+		assertFalse(bounds.contains(5, -175));
+		assertEquals(10, bounds.getLongitudeSpan(), 0);
+	}
+
+	@Test
+	public void expand() {
+		final GeoBounds bounds = new GeoBounds(0, 160, 10, 170).expand(10);
+		assertEquals(180, bounds.getEast(), 0);
+		assertTrue(bounds.contains(5, -180));
+		assertFalse(bounds.contains(5, -175));
+	}
+
+	@Test
+	public void include() {
+		final GeoBounds bounds = new GeoBounds(0, 170, 10, 175).include(5, -180);
+		assertEquals(180, bounds.getEast(), 0);
+		assertTrue(bounds.contains(5, 180));
+		assertFalse(bounds.contains(5, -175));
+	}
+
+	@Test
+	public void intersects() {
+		assertTrue(new GeoBounds(0, 170, 10, 180).intersects(new GeoBounds(0, -180, 10, -170)));
+		assertTrue(new GeoBounds(0, -180, 10, -170).intersects(new GeoBounds(0, 170, 10, 180)));
+		assertFalse(new GeoBounds(0, 160, 10, 170).intersects(new GeoBounds(0, -180, 10, -170)));
+	}
+
+	@Test
+	public void westEdge() {
+		final GeoBounds bounds = new GeoBounds(0, -180, 10, -170);
+		assertTrue(bounds.contains(5, 180));
+		assertTrue(bounds.contains(5, -180));
+		assertFalse(bounds.contains(5, 175));
+		assertEquals(10, bounds.getLongitudeSpan(), 0);
+
+		bounds.set(0, 180, 10, -170);
+		assertEquals(-180, bounds.getWest(), 0);
+		assertEquals(10, bounds.getLongitudeSpan(), 0);
+	}
+
+	@Test
+	public void world() {
+		final GeoBounds bounds = new GeoBounds(-90, -180, 90, 180);
+		assertTrue(bounds.contains(0, 180));
+		assertTrue(bounds.contains(0, -180));
+		assertTrue(bounds.contains(0, 0));
+		assertEquals(360, bounds.getLongitudeSpan(), 0);
+	}
+}
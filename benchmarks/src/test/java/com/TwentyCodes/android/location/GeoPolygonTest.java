@@ -0,0 +1,173 @@
+/**
+ * GeoPolygonTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks GeoPolygon.contains(), with and without its band grid, against a
+ * plain ray cast over every edge.
+ * 
+ * @author ricky barrette
+ */
+public class GeoPolygonTest {
+
+	/**
+	 * A random star shaped polygon, and its vertices relative to its center
+	 * 
+	 * @author ricky barrette
+	 */
+	private static class Star {
+		final double mLat;
+		final double mLon;
+		final double[] mLats;
+		final double[] mLngs;
+		final double[] mDx;
+
+		Star(final Random random, final int count, final double lat, final double lon) {
+			mLat = lat;
+			mLon = lon;
+			final double[] angles = new double[count];
+			for (int i = 0; i < count; i++)
+				angles[i] = random.nextDouble() * 2 * Math.PI;
+			Arrays.sort(angles);
+			mLats = new double[count];
+			mLngs = new double[count];
+			mDx = new double[count];
+			for (int i = 0; i < count; i++) {
+				final double radius = 5 + random.nextDouble() * 15;
+				// half degrees, so rays often pass through vertices
+				mLats[i] = lat + Math.round(radius * Math.sin(angles[i]) * 2) / 2.0;
+				mDx[i] = Math.round(radius * Math.cos(angles[i]) * 2) / 2.0;
+				mLngs[i] = wrap(lon + mDx[i]);
+			}
+		}
+
+		/**
+		 * A ray cast east over every edge, each edge's lat range half open
+		 * 
+		 * @param lat
+		 * @param lon
+		 * @return true if lat/lon is inside
+		 */
+		boolean contains(final double lat, final double lon) {
+			final double x = wrap(lon - mLon);
+			boolean inside = false;
+			for (int i = 0, j = mLats.length - 1; i < mLats.length; j = i++)
+				if (mLats[i] > lat != mLats[j] > lat && x < mDx[j] + (lat - mLats[j]) * (mDx[i] - mDx[j]) / (mLats[i] - mLats[j]))
+					inside = !inside;
+			return inside;
+		}
+	}
+
+	@Test
+	public void antiMeridian() {
+		final double[] lats = { -10, -10, 10, 10 };
+		for (final double[] lngs : new double[][] { { 170, -170, -170, 170 }, { 170, 190, 190, 170 }, { -190, -170, -170, -190 } }) {
+			final GeoPolygon polygon = new GeoPolygon(lats, lngs);
+			assertTrue(polygon.contains(0, 180));
+			assertTrue(polygon.contains(0, -180));
+			assertTrue(polygon.contains(0, 175));
+			assertTrue(polygon.contains(0, -175));
+			assertTrue(polygon.contains(0, 535));
+			assertFalse(polygon.contains(0, 0));
+			assertFalse(polygon.contains(0, 165));
+			assertFalse(polygon.contains(0, -165));
+			assertFalse(polygon.contains(11, 180));
+			assertEquals(20, polygon.getEast() - polygon.getWest(), 1E-9);
+		}
+	}
+
+	@Test
+	public void gridMatchesLinearScan() {
+		final Random random = new Random(5);
+		for (int p = 0; p < 200; p++) {
+			// some polygons straddle the anti-meridian
+			final double lon = p % 4 == 0 ? 175 + random.nextDouble() * 10 : random.nextDouble() * 360 - 180;
+			final Star star = new Star(random, 3 + random.nextInt(300), random.nextDouble() * 120 - 60, wrap(lon));
+			final GeoPolygon linear = new GeoPolygon(star.mLats, star.mLngs, 0);
+			final GeoPolygon gridded = new GeoPolygon(star.mLats, star.mLngs, 1 + random.nextInt(40));
+			assertFalse(linear.isGridded());
+			assertTrue(gridded.isGridded());
+
+			for (int i = 0; i < 2000; i++) {
+				final double lat;
+				if (i % 2 == 0)
+					// on the latitude of a vertex, where the half open ranges matter
+					lat = star.mLats[random.nextInt(star.mLats.length)];
+				else
+					lat = star.mLat + random.nextDouble() * 50 - 25;
+				// off the half degree grid, so never on a vertex or an edge through two
+				final double pointLon = wrap(star.mLon + random.nextDouble() * 50 - 25 + 0.001);
+				final boolean expected = star.contains(lat, pointLon);
+				assertEquals(expected, linear.contains(lat, pointLon));
+				assertEquals(expected, gridded.contains(lat, pointLon));
+			}
+
+			// on the vertices, the two must at least agree
+			for (int i = 0; i < star.mLats.length; i++)
+				assertEquals(linear.contains(star.mLats[i], star.mLngs[i]), gridded.contains(star.mLats[i], star.mLngs[i]));
+		}
+	}
+
+	@Test
+	public void halfOpenLatitudes() {
+		// a diamond, so rays through its east and west vertices cross one edge each
+		final double[] lats = { 0, 5, 10, 5 };
+		final double[] lngs = { 5, 10, 5, 0 };
+		for (final GeoPolygon polygon : new GeoPolygon[] { new GeoPolygon(lats, lngs, 0), new GeoPolygon(lats, lngs, 3) }) {
+			assertTrue(polygon.contains(5, 0.5));
+			assertTrue(polygon.contains(5, 5));
+			assertTrue(polygon.contains(5, 9.5));
+			assertFalse(polygon.contains(5, 10.5));
+			assertFalse(polygon.contains(0.5, 1));
+			assertFalse(polygon.contains(9.5, 9));
+		}
+
+		// a notch whose bottom vertex is on the ray
+		final double[] notchLats = { 0, 0, 10, 10, 5, 10, 10 };
+		final double[] notchLngs = { 0, 10, 10, 6, 5, 4, 0 };
+		for (final GeoPolygon polygon : new GeoPolygon[] { new GeoPolygon(notchLats, notchLngs, 0), new GeoPolygon(notchLats, notchLngs, 4) }) {
+			assertTrue(polygon.contains(5, 1));
+			assertTrue(polygon.contains(5, 9));
+			assertTrue(polygon.contains(7, 1));
+			assertFalse(polygon.contains(7, 5));
+			assertTrue(polygon.contains(7, 9));
+		}
+	}
+
+	/**
+	 * @param lon
+	 * @return lon wrapped to -180 to 180
+	 */
+	private static double wrap(final double lon) {
+		double wrapped = (lon + 180) % 360;
+		if (wrapped < 0)
+			wrapped += 360;
+		return wrapped - 180;
+	}
+}
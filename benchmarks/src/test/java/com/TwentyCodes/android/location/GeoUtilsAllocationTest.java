@@ -0,0 +1,141 @@
+/**
+ * GeoUtilsAllocationTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the methods documented as allocating nothing don't, by
+ * counting the bytes the test thread allocates around them.
+ * 
+ * @author ricky barrette
+ */
+public class GeoUtilsAllocationTest {
+
+	private static final int CALLS = 10000;
+
+	private final com.sun.management.ThreadMXBean mThreads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+	private final long mThread = Thread.currentThread().getId();
+	private final double[] mOut = new double[2];
+	private final double[] mLats = new double[64];
+	private final double[] mLngs = new double[64];
+	private final double[] mClosest = new double[4];
+	private final double[] mSegments = new double[63];
+	private double mSink;
+
+	@Before
+	public void setUp() {
+		assumeTrue(mThreads.isThreadAllocatedMemorySupported());
+		mThreads.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	@After
+	public void tearDown() {
+		GeoUtils.setFastMathEnabled(false);
+	}
+
+	@Test
+	public void circle() {
+		// once to load, initialize and compile everything it touches
+		circle(CALLS);
+		assertEquals(0, circle(CALLS));
+	}
+
+	@Test
+	public void distanceFrom() {
+		distanceFrom(CALLS);
+		assertEquals(0, distanceFrom(CALLS));
+	}
+
+	@Test
+	public void distanceFromFastMath() {
+		GeoUtils.setFastMathEnabled(true);
+		distanceFrom(CALLS);
+		assertEquals(0, distanceFrom(CALLS));
+	}
+
+	@Test
+	public void segments() {
+		GeoUtils.circle(40.7359, -73.9911, 1, mLats, mLngs);
+		segments(CALLS);
+		assertEquals(0, segments(CALLS));
+	}
+
+	/**
+	 * @return the bytes allocated by calls to circle(), less those allocated
+	 *         by reading the counter
+	 */
+	private long circle(final int calls) {
+		final long overhead = overhead();
+		final long start = mThreads.getThreadAllocatedBytes(mThread);
+		for (int i = 0; i < calls; i++)
+			GeoUtils.circle(40.7359, -73.9911, 0.001 * i, mLats, mLngs);
+		final long allocated = mThreads.getThreadAllocatedBytes(mThread) - start;
+		mSink += mLats[1];
+		return allocated - overhead;
+	}
+
+	/**
+	 * @return the bytes allocated by calls to distanceFrom(), less those
+	 *         allocated by reading the counter
+	 */
+	private long distanceFrom(final int calls) {
+		final long overhead = overhead();
+		final long start = mThreads.getThreadAllocatedBytes(mThread);
+		for (int i = 0; i < calls; i++) {
+			GeoUtils.distanceFrom(40.7359, -73.9911, 0.001 * i, i % 360, mOut);
+			mSink += mOut[0];
+		}
+		final long allocated = mThreads.getThreadAllocatedBytes(mThread) - start;
+		return allocated - overhead;
+	}
+
+	/**
+	 * @return the bytes allocated by calls to closestSegment() and
+	 *         distancesToSegments(), less those allocated by reading the
+	 *         counter
+	 */
+	private long segments(final int calls) {
+		final long overhead = overhead();
+		final long start = mThreads.getThreadAllocatedBytes(mThread);
+		for (int i = 0; i < calls; i++) {
+			GeoUtils.closestSegment(40.7359, -73.9911 + 0.0001 * i, mLats, mLngs, 0, 62, mClosest);
+			GeoUtils.distancesToSegments(40.7359, -73.9911 + 0.0001 * i, mLats, mLngs, mSegments);
+			mSink += mClosest[3] + mSegments[0];
+		}
+		final long allocated = mThreads.getThreadAllocatedBytes(mThread) - start;
+		return allocated - overhead;
+	}
+
+	/**
+	 * @return the bytes allocated by reading the counter itself
+	 */
+	private long overhead() {
+		final long start = mThreads.getThreadAllocatedBytes(mThread);
+		return mThreads.getThreadAllocatedBytes(mThread) - start;
+	}
+}
@@ -0,0 +1,121 @@
+/**
+ * GeoUtilsE6Test.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks the accuracy envelope documented on GeoUtilsE6 against the double
+ * implementation in GeoUtils, over random pairs of points below 70 degrees of
+ * latitude, including pairs across the anti-meridian.
+ * 
+ * @author ricky barrette
+ */
+public class GeoUtilsE6Test {
+
+	private static final int PAIRS = 200000;
+	private static final double MIN_BEARING_METERS = 100;
+
+	private final Random mRandom = new Random(1);
+	private final double[] mPoint = new double[2];
+
+	@Test
+	public void acrossAntiMeridian() {
+		check(10, 1, 0, 0.2, 0.1);
+	}
+
+	@Test
+	public void under10Km() {
+		check(10, 1, 0, 0.2, 180);
+	}
+
+	@Test
+	public void under100Km() {
+		check(100, 1, 0.001, 1.5, 180);
+	}
+
+	@Test
+	public void under500Km() {
+		check(500, 1, 0.002, Double.NaN, 180);
+	}
+
+	/**
+	 * @return the difference between two bearings in degrees, 0 to 180
+	 */
+	private static double angle(final double a, final double b) {
+		final double d = Math.abs(a - b) % 360;
+		return d > 180 ? 360 - d : d;
+	}
+
+	/**
+	 * Compares PAIRS random pairs of points up to maxKm apart, below 70
+	 * degrees of latitude
+	 * 
+	 * @param maxKm
+	 * @param meters
+	 *            allowed distance error in meters
+	 * @param fraction
+	 *            allowed distance error as a fraction of the distance, if
+	 *            more than meters
+	 * @param degrees
+	 *            allowed bearing error, or NaN if bearings aren't documented
+	 *            for the distance
+	 * @param lonSpan
+	 *            how far from the anti-meridian the first point of each pair
+	 *            may be, in degrees
+	 */
+	private void check(final double maxKm, final double meters, final double fraction, final double degrees, final double lonSpan) {
+		for (int i = 0; i < PAIRS;) {
+			final double lat = (mRandom.nextDouble() * 2 - 1) * 70;
+			final double lon = (180 - mRandom.nextDouble() * lonSpan) * (mRandom.nextBoolean() ? 1 : -1);
+			GeoUtils.distanceFrom(lat, lon, mRandom.nextDouble() * maxKm, (float) (mRandom.nextDouble() * 360), mPoint);
+			if (Math.abs(mPoint[0]) > 70)
+				continue;
+			i++;
+
+			final int lat1E6 = (int) Math.round(lat * 1E6), lon1E6 = (int) Math.round(lon * 1E6);
+			final int lat2E6 = (int) Math.round(mPoint[0] * 1E6);
+			final int lon2E6 = (int) Math.round(wrap(mPoint[1]) * 1E6);
+			final double lat1 = lat1E6 / 1E6, lon1 = lon1E6 / 1E6, lat2 = lat2E6 / 1E6, lon2 = lon2E6 / 1E6;
+
+			final double exact = GeoUtils.distanceKm(lat1, lon1, lat2, lon2) * 1000;
+			final double error = Math.abs(GeoUtilsE6.distanceMeters(lat1E6, lon1E6, lat2E6, lon2E6) - exact);
+			final double allowed = Math.max(meters, exact * fraction);
+			assertTrue("distance " + lat1 + "," + lon1 + " to " + lat2 + "," + lon2 + " off by " + error + " m", error <= allowed);
+
+			// a microdegree is a noticeable angle between points close together
+			if (Double.isNaN(degrees) || exact < MIN_BEARING_METERS)
+				continue;
+			final double bearingError = angle(GeoUtilsE6.bearing(lat1E6, lon1E6, lat2E6, lon2E6) / 100.0, GeoUtils.bearing(lat1, lon1, lat2, lon2));
+			assertTrue("bearing " + lat1 + "," + lon1 + " to " + lat2 + "," + lon2 + " off by " + bearingError, bearingError <= degrees);
+		}
+	}
+
+	/**
+	 * @return lon wrapped into -180 to 180
+	 */
+	private static double wrap(final double lon) {
+		return lon > 180 ? lon - 360 : lon < -180 ? lon + 360 : lon;
+	}
+}
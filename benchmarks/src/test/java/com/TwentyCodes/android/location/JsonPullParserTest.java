@@ -0,0 +1,220 @@
+/**
+ * JsonPullParserTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.TwentyCodes.android.location.JsonPullParser.Token;
+
+/**
+ * Checks JsonPullParser's fast path for numbers against Double.parseDouble(),
+ * its string escapes, and values split across reads of the underlying
+ * reader.
+ * 
+ * @author ricky barrette
+ */
+public class JsonPullParserTest {
+
+	/**
+	 * A reader that hands out one char per read, so every token crosses the
+	 * end of the parser's buffer
+	 * 
+	 * @author ricky barrette
+	 */
+	private static class TrickleReader extends Reader {
+		private final String mText;
+		private int mPos;
+
+		TrickleReader(final String text) {
+			mText = text;
+		}
+
+		@Override
+		public void close() {
+		}
+
+		@Override
+		public int read(final char[] buffer, final int offset, final int count) {
+			if (mPos == mText.length())
+				return -1;
+			buffer[offset] = mText.charAt(mPos++);
+			return 1;
+		}
+	}
+
+	@Test
+	public void coordinates() throws IOException {
+		final Random random = new Random(1);
+		for (int i = 0; i < 100000; i++) {
+			// how the directions api writes them, up to 15 significant digits
+			final double degrees = (random.nextDouble() * 2 - 1) * 180;
+			final String text = new BigDecimal(degrees).setScale(random.nextInt(15), BigDecimal.ROUND_HALF_EVEN).toPlainString();
+			assertDouble(text);
+		}
+	}
+
+	@Test
+	public void doubles() throws IOException {
+		final Random random = new Random(2);
+		for (int i = 0; i < 100000; i++) {
+			final double value = Double.longBitsToDouble(random.nextLong());
+			if (Double.isNaN(value) || Double.isInfinite(value))
+				continue;
+			// exponents and 17 digit mantissas take the slow path
+			assertDouble(Double.toString(value));
+			assertDouble(new BigDecimal(value).round(new MathContext(15)).toString());
+		}
+	}
+
+	@Test
+	public void edgeNumbers() throws IOException {
+		final String[] numbers = { "0", "-0", "0.0", "-0.0", "1", "-1", "123456789012345", "1234567890123456", "0.1", "0.3", "999999999999999",
+				"0.000000000000000000001", "0.0000000000000000000001", "0.00000000000000000000001", "0000012.5", "1e3", "1E-3", "-2.5e+10",
+				"12345678901234567890", "9007199254740993" };
+		for (final String number : numbers)
+			assertDouble(number);
+	}
+
+	@Test
+	public void escapes() throws IOException {
+		final String json = "[\"a\\\"b\\\\c\\/d\\n\\t\\r\\b\\f\\u00e9\\uD83D\\uDE00\", \"\"]";
+		final String expected = "a\"b\\c/d\n\t\r\b\fé😀";
+		for (final Reader reader : new Reader[] { new StringReader(json), new TrickleReader(json) }) {
+			final JsonPullParser parser = new JsonPullParser(reader);
+			parser.beginArray();
+			assertEquals(expected, parser.nextString());
+			assertEquals("", parser.nextString());
+			parser.endArray();
+			assertEquals(Token.END_DOCUMENT, parser.peek());
+		}
+	}
+
+	@Test
+	public void longStrings() throws IOException {
+		// escapes on both sides of the 8192 char buffer's end
+		final StringBuilder expected = new StringBuilder();
+		final StringBuilder json = new StringBuilder("{\"text\":\"");
+		for (int i = 0; i < 20000; i++) {
+			final char c = (char) ('a' + i % 26);
+			expected.append(c);
+			json.append(c);
+			if (i % 7 == 0) {
+				expected.append('"');
+				json.append("\\\"");
+			}
+			if (i % 11 == 0) {
+				expected.append('€');
+				json.append("\\u20AC");
+			}
+		}
+		json.append("\",\"n\":1}");
+
+		final JsonPullParser parser = new JsonPullParser(new StringReader(json.toString()));
+		parser.beginObject();
+		assertEquals("text", parser.nextName().toString());
+		assertEquals(expected.toString(), parser.nextString());
+		assertEquals("n", parser.nextName().toString());
+		assertEquals(1, parser.nextLong());
+		parser.endObject();
+	}
+
+	@Test
+	public void longs() throws IOException {
+		final JsonPullParser parser = new JsonPullParser(new StringReader("[0, -17, 9007199254740993, \"42\", 1e3, 2.0]"));
+		parser.beginArray();
+		assertEquals(0, parser.nextLong());
+		assertEquals(-17, parser.nextLong());
+		assertEquals(9007199254740993L, parser.nextLong());
+		assertEquals(42, parser.nextLong());
+		assertEquals(1000, parser.nextLong());
+		assertEquals(2, parser.nextLong());
+		parser.endArray();
+
+		final JsonPullParser fraction = new JsonPullParser(new StringReader("[1.5]"));
+		fraction.beginArray();
+		try {
+			fraction.nextLong();
+			fail("1.5 is not a whole number");
+		} catch (final IOException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void skipValue() throws IOException {
+		final String json = "{\"skip\":{\"a\":[1,{\"b\":null},[true,false],\"x\\\"]\"],\"c\":{}},\"keep\":[1,2],\"last\":\"yes\"}";
+		for (final Reader reader : new Reader[] { new StringReader(json), new TrickleReader(json) }) {
+			final JsonPullParser parser = new JsonPullParser(reader);
+			parser.beginObject();
+			assertEquals("skip", parser.nextName().toString());
+			parser.skipValue();
+			assertEquals("keep", parser.nextName().toString());
+			parser.beginArray();
+			assertEquals(1, parser.nextLong());
+			parser.skipValue();
+			assertFalse(parser.hasNext());
+			parser.endArray();
+			assertTrue(parser.hasNext());
+			assertEquals("last", parser.nextName().toString());
+			assertEquals("yes", parser.nextString());
+			parser.endObject();
+			assertEquals(Token.END_DOCUMENT, parser.peek());
+		}
+	}
+
+	@Test
+	public void unterminatedString() {
+		final JsonPullParser parser = new JsonPullParser(new StringReader("[\"abc"));
+		try {
+			parser.beginArray();
+			parser.nextString();
+			fail("the string never ends");
+		} catch (final IOException e) {
+			// expected
+		}
+	}
+
+	/**
+	 * Checks that a number parses to the same double as Double.parseDouble(),
+	 * both bare and quoted
+	 * 
+	 * @param number
+	 */
+	private static void assertDouble(final String number) throws IOException {
+		final long expected = Double.doubleToLongBits(Double.parseDouble(number));
+		final JsonPullParser parser = new JsonPullParser(new StringReader("[" + number + ",\"" + number + "\"]"));
+		parser.beginArray();
+		assertEquals(number, expected, Double.doubleToLongBits(parser.nextDouble()));
+		assertEquals(number, expected, Double.doubleToLongBits(parser.nextDouble()));
+		parser.endArray();
+	}
+}
@@ -0,0 +1,205 @@
+/**
+ * KdTreeTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks KdTree's queries against sorting every point by
+ * GeoUtils.distanceKm(), on random points spread over the globe and bunched
+ * across the anti-meridian and around a pole.
+ * 
+ * @author ricky barrette
+ */
+public class KdTreeTest {
+
+	/**
+	 * KM two great circle distances may differ by, computed two ways
+	 */
+	private static final double TOLERANCE = 1E-6;
+
+	private static final int COUNT = 2000;
+
+	@Test
+	public void empty() {
+		final KdTree<Integer> tree = new KdTree<Integer>(new Integer[0], new double[0], new double[0]);
+		assertEquals(0, tree.size());
+		assertEquals(0, tree.nearest(0, 0, 5, Double.POSITIVE_INFINITY, new ArrayList<Integer>(), null));
+		assertTrue(tree.within(0, 0, 1000, new ArrayList<Integer>()).isEmpty());
+	}
+
+	@Test
+	public void nearest() {
+		final Random random = new Random(7);
+		for (int spread = 0; spread < 3; spread++) {
+			final double[] lats = new double[COUNT];
+			final double[] lngs = new double[COUNT];
+			final KdTree<Integer> tree = randomTree(random, spread, lats, lngs);
+
+			for (int q = 0; q < 200; q++) {
+				final double lat = randomLat(random, spread);
+				final double lon = randomLon(random, spread);
+				final Integer[] sorted = sortByDistance(lats, lngs, lat, lon);
+				final int k = 1 + random.nextInt(50);
+				final double maxDistance = q % 2 == 0 ? Double.POSITIVE_INFINITY : random.nextDouble() * 2000;
+
+				final List<Integer> out = new ArrayList<Integer>();
+				final double[] distances = new double[k];
+				final int count = tree.nearest(lat, lon, k, maxDistance, out, distances);
+				assertEquals(count, out.size());
+
+				// points right at the limit may go either way
+				int least = 0, most = 0;
+				for (int i = 0; i < k && i < COUNT; i++) {
+					final double distance = GeoUtils.distanceKm(lat, lon, lats[sorted[i]], lngs[sorted[i]]);
+					if (distance < maxDistance - TOLERANCE)
+						least++;
+					if (distance <= maxDistance + TOLERANCE)
+						most++;
+				}
+				assertTrue(count >= least && count <= most);
+
+				for (int i = 0; i < count; i++) {
+					final int item = out.get(i);
+					final double distance = GeoUtils.distanceKm(lat, lon, lats[item], lngs[item]);
+					assertEquals(distance, distances[i], TOLERANCE);
+					// the i-th nearest, or tied with it
+					assertEquals(GeoUtils.distanceKm(lat, lon, lats[sorted[i]], lngs[sorted[i]]), distance, TOLERANCE);
+					assertTrue(i == 0 || distances[i - 1] <= distances[i]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void within() {
+		final Random random = new Random(8);
+		for (int spread = 0; spread < 3; spread++) {
+			final double[] lats = new double[COUNT];
+			final double[] lngs = new double[COUNT];
+			final KdTree<Integer> tree = randomTree(random, spread, lats, lngs);
+
+			for (int q = 0; q < 200; q++) {
+				final double lat = randomLat(random, spread);
+				final double lon = randomLon(random, spread);
+				final double radius = random.nextDouble() * 3000;
+				final List<Integer> out = tree.within(lat, lon, radius, new ArrayList<Integer>());
+				Collections.sort(out);
+
+				final List<Integer> expected = new ArrayList<Integer>();
+				for (int i = 0; i < COUNT; i++) {
+					final double distance = GeoUtils.distanceKm(lat, lon, lats[i], lngs[i]);
+					if (Math.abs(distance - radius) < TOLERANCE) {
+						// right at the radius, may go either way
+						if (out.contains(i))
+							expected.add(i);
+					} else if (distance < radius)
+						expected.add(i);
+				}
+				assertEquals(expected, out);
+			}
+		}
+	}
+
+	/**
+	 * @param random
+	 * @param spread
+	 *            0 for the whole globe, 1 for across the anti-meridian, 2 for
+	 *            around the north pole
+	 * @return a random latitude for the spread
+	 */
+	private static double randomLat(final Random random, final int spread) {
+		switch (spread) {
+			case 1:
+				return random.nextDouble() * 40 - 20;
+			case 2:
+				return 80 + random.nextDouble() * 10;
+			default:
+				return Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+		}
+	}
+
+	/**
+	 * @param random
+	 * @param spread
+	 * @return a random longitude for the spread, -180 to 180
+	 */
+	private static double randomLon(final Random random, final int spread) {
+		if (spread == 1) {
+			final double lon = 170 + random.nextDouble() * 20;
+			return lon > 180 ? lon - 360 : lon;
+		}
+		return random.nextDouble() * 360 - 180;
+	}
+
+	/**
+	 * Fills lats and lngs with random points, and builds a tree of them
+	 * 
+	 * @param random
+	 * @param spread
+	 * @param lats
+	 * @param lngs
+	 * @return the tree, whose items are the points' indexes
+	 */
+	private static KdTree<Integer> randomTree(final Random random, final int spread, final double[] lats, final double[] lngs) {
+		final Integer[] items = new Integer[lats.length];
+		for (int i = 0; i < lats.length; i++) {
+			items[i] = i;
+			lats[i] = randomLat(random, spread);
+			lngs[i] = randomLon(random, spread);
+		}
+		final KdTree<Integer> tree = new KdTree<Integer>(items, lats, lngs);
+		assertEquals(lats.length, tree.size());
+		return tree;
+	}
+
+	/**
+	 * @param lats
+	 * @param lngs
+	 * @param lat
+	 * @param lon
+	 * @return the indexes of the points, nearest to lat/lon first
+	 */
+	private static Integer[] sortByDistance(final double[] lats, final double[] lngs, final double lat, final double lon) {
+		final Integer[] sorted = new Integer[lats.length];
+		final double[] distances = new double[lats.length];
+		for (int i = 0; i < lats.length; i++) {
+			sorted[i] = i;
+			distances[i] = GeoUtils.distanceKm(lat, lon, lats[i], lngs[i]);
+		}
+		Arrays.sort(sorted, new Comparator<Integer>() {
+			@Override
+			public int compare(final Integer a, final Integer b) {
+				return Double.compare(distances[a], distances[b]);
+			}
+		});
+		return sorted;
+	}
+}
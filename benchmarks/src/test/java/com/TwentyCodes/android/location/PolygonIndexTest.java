@@ -0,0 +1,157 @@
+/**
+ * PolygonIndexTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks PolygonIndex.query() against testing every polygon, as fences are
+ * added, replaced and removed.
+ * 
+ * @author ricky barrette
+ */
+public class PolygonIndexTest {
+
+	@Test
+	public void addReplaceRemove() {
+		final PolygonIndex<String> index = new PolygonIndex<String>();
+		final GeoPolygon a = square(0, 0, 10);
+		final GeoPolygon b = square(20, 20, 10);
+		index.add("fence", a);
+		assertSame(a, index.get("fence"));
+		assertEquals(Collections.singletonList("fence"), index.query(5, 5, new ArrayList<String>()));
+
+		index.add("fence", b);
+		assertEquals(1, index.size());
+		assertSame(b, index.get("fence"));
+		assertTrue(index.query(5, 5, new ArrayList<String>()).isEmpty());
+		assertEquals(Collections.singletonList("fence"), index.query(25, 25, new ArrayList<String>()));
+
+		assertTrue(index.remove("fence"));
+		assertFalse(index.remove("fence"));
+		assertFalse(index.contains("fence"));
+		assertNull(index.get("fence"));
+		assertTrue(index.query(25, 25, new ArrayList<String>()).isEmpty());
+	}
+
+	@Test
+	public void antiMeridian() {
+		final PolygonIndex<String> index = new PolygonIndex<String>();
+		index.add("date line", square(-5, 175, 10));
+		index.add("greenwich", square(-5, -5, 10));
+		assertEquals(Collections.singletonList("date line"), index.query(0, 179, new ArrayList<String>()));
+		assertEquals(Collections.singletonList("date line"), index.query(0, -179, new ArrayList<String>()));
+		assertEquals(Collections.singletonList("date line"), index.query(0, 180, new ArrayList<String>()));
+		assertEquals(Collections.singletonList("greenwich"), index.query(0, 0, new ArrayList<String>()));
+		assertTrue(index.query(0, 170, new ArrayList<String>()).isEmpty());
+		assertTrue(index.query(0, -170, new ArrayList<String>()).isEmpty());
+	}
+
+	@Test
+	public void matchesBruteForce() {
+		final Random random = new Random(6);
+		final PolygonIndex<Integer> index = new PolygonIndex<Integer>();
+		final Map<Integer, GeoPolygon> fences = new LinkedHashMap<Integer, GeoPolygon>();
+		for (int round = 0; round < 20; round++) {
+			// add and replace some fences, then remove some
+			for (int i = 0; i < 30; i++) {
+				final Integer id = random.nextInt(100);
+				final GeoPolygon polygon = randomPolygon(random);
+				index.add(id, polygon);
+				fences.put(id, polygon);
+			}
+			for (int i = 0; i < 10; i++) {
+				final Integer id = random.nextInt(100);
+				assertEquals(fences.remove(id) != null, index.remove(id));
+			}
+			assertEquals(fences.size(), index.size());
+
+			for (int i = 0; i < 2000; i++) {
+				// mostly near the anti-meridian and the fences that straddle it
+				final double lat = random.nextDouble() * 60 - 30;
+				final double lon = i % 2 == 0 ? wrap(180 + random.nextDouble() * 60 - 30) : random.nextDouble() * 360 - 180;
+				final List<Integer> expected = new ArrayList<Integer>();
+				for (final Map.Entry<Integer, GeoPolygon> fence : fences.entrySet())
+					if (fence.getValue().contains(lat, lon))
+						expected.add(fence.getKey());
+				final List<Integer> actual = index.query(lat, lon, new ArrayList<Integer>());
+				Collections.sort(expected);
+				Collections.sort(actual);
+				assertEquals(expected, actual);
+			}
+		}
+	}
+
+	/**
+	 * @param random
+	 * @return a random triangle or quad up to 20 degrees across, often
+	 *         straddling the anti-meridian
+	 */
+	private static GeoPolygon randomPolygon(final Random random) {
+		final double lat = random.nextDouble() * 40 - 20;
+		final double lon = random.nextBoolean() ? wrap(180 + random.nextDouble() * 20 - 10) : random.nextDouble() * 360 - 180;
+		final int count = 3 + random.nextInt(2);
+		final double[] lats = new double[count];
+		final double[] lngs = new double[count];
+		for (int i = 0; i < count; i++) {
+			final double angle = 2 * Math.PI * (i + random.nextDouble() * 0.5) / count;
+			final double radius = 2 + random.nextDouble() * 8;
+			lats[i] = lat + radius * Math.sin(angle);
+			lngs[i] = wrap(lon + radius * Math.cos(angle));
+		}
+		return new GeoPolygon(lats, lngs);
+	}
+
+	/**
+	 * @param south
+	 * @param west
+	 * @param size
+	 *            of the square's sides in degrees
+	 * @return a square
+	 */
+	private static GeoPolygon square(final double south, final double west, final double size) {
+		return new GeoPolygon(new double[] { south, south, south + size, south + size }, new double[] { west, wrap(west + size),
+				wrap(west + size), west });
+	}
+
+	/**
+	 * @param lon
+	 * @return lon wrapped to -180 to 180
+	 */
+	private static double wrap(final double lon) {
+		double wrapped = (lon + 180) % 360;
+		if (wrapped < 0)
+			wrapped += 360;
+		return wrapped - 180;
+	}
+}
@@ -0,0 +1,203 @@
+/**
+ * PolylineTest.java
+ * @date Oct 18, 2026
+ * @author ricky barrette
+ * 
+ * Copyright 2012 Richard Barrette 
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License. 
+ * You may obtain a copy of the License at 
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0 
+ * 
+ * Unless required by applicable law or agreed to in writing, software 
+ * distributed under the License is distributed on an "AS IS" BASIS, 
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. 
+ * See the License for the specific language governing permissions and 
+ * limitations under the License
+ */
+package com.TwentyCodes.android.location;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Checks Polyline's decoders against a known polyline, against each other,
+ * and against a simple encoder.
+ * 
+ * @author ricky barrette
+ */
+public class PolylineTest {
+
+	/**
+	 * The example from Google's description of the format
+	 */
+	private static final String EXAMPLE = "_p~iF~ps|U_ulLnnqC_mqNvxq`@";
+
+	@Test
+	public void bytesAndCharsAgree() throws Exception {
+		final Random random = new Random(3);
+		for (int i = 0; i < 200; i++) {
+			final int[] points = randomPoints(random, 1 + random.nextInt(50));
+			final String encoded = encode(points, 0, points.length / 2);
+			final byte[] bytes = ("xx" + encoded + "yy").getBytes("US-ASCII");
+			final Polyline chars = new Polyline().append("xx" + encoded + "yy", 2, encoded.length() + 2, false);
+			final Polyline bytesPolyline = new Polyline().append(bytes, 2, encoded.length(), false);
+			assertArrayEquals(toArray(chars), toArray(bytesPolyline));
+		}
+	}
+
+	@Test
+	public void example() {
+		final Polyline polyline = Polyline.decode(EXAMPLE);
+		assertArrayEquals(new int[] { 38500000, -120200000, 40700000, -120950000, 43252000, -126453000 }, toArray(polyline));
+		assertArrayEquals(new double[] { 38.5, 40.7, 43.252 }, polyline.toLatitudes(), 1E-9);
+		assertArrayEquals(new double[] { -120.2, -120.95, -126.453 }, polyline.toLongitudes(), 1E-9);
+	}
+
+	@Test
+	public void isJoined() {
+		// the example starts where it ends
+		final String back = encode(new int[] { 43252000, -126453000, 40700000, -120950000 }, 0, 2);
+		final Polyline polyline = Polyline.decode(EXAMPLE);
+		polyline.append(back, 0, back.length(), true);
+		assertArrayEquals(new int[] { 38500000, -120200000, 40700000, -120950000, 43252000, -126453000, 40700000, -120950000 },
+				toArray(polyline));
+
+		// only the first point is dropped, not a later repeat
+		final String repeat = encode(new int[] { 40700000, -120950000, 40700000, -120950000 }, 0, 2);
+		polyline.append(repeat, 0, repeat.length(), true);
+		assertEquals(5, polyline.size());
+
+		// nor a first point that differs, nor anything when not joined
+		polyline.append(back, 0, back.length(), true);
+		assertEquals(7, polyline.size());
+		polyline.append(back, 0, back.length(), false);
+		assertEquals(9, polyline.size());
+
+		// nothing to join to
+		assertEquals(2, new Polyline().append(back, 0, back.length(), true).size());
+	}
+
+	@Test
+	public void malformed() {
+		assertThrows(EXAMPLE.substring(0, EXAMPLE.length() - 1), "truncated polyline");
+		assertThrows("_p~iF", "truncated polyline");
+		assertThrows("_p~iF~ps|U ", "malformed polyline");
+		assertThrows("_p~iF~ps|ÿ", "malformed polyline");
+		try {
+			new Polyline().append(EXAMPLE, 0, EXAMPLE.length() + 1, false);
+			fail();
+		} catch (final IndexOutOfBoundsException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void roundTrip() {
+		final Random random = new Random(4);
+		for (int i = 0; i < 1000; i++) {
+			final int[] points = randomPoints(random, random.nextInt(100));
+			assertArrayEquals(points, toArray(Polyline.decode(encode(points, 0, points.length / 2))));
+		}
+	}
+
+	/**
+	 * Checks that decoding a polyline, as chars and as bytes, throws
+	 * 
+	 * @param encoded
+	 * @param message
+	 *            of the exception
+	 */
+	private static void assertThrows(final String encoded, final String message) {
+		try {
+			Polyline.decode(encoded);
+			fail(encoded);
+		} catch (final IllegalArgumentException e) {
+			assertEquals(message, e.getMessage());
+		}
+		final byte[] bytes = new byte[encoded.length()];
+		for (int i = 0; i < bytes.length; i++)
+			bytes[i] = (byte) encoded.charAt(i);
+		try {
+			new Polyline().append(bytes, 0, bytes.length, false);
+			fail(encoded);
+		} catch (final IllegalArgumentException e) {
+			assertEquals(message, e.getMessage());
+		}
+	}
+
+	/**
+	 * Encodes points in Google's format
+	 * 
+	 * @param points
+	 *            lat, lon pairs in 1e6 degrees, multiples of 10
+	 * @param start
+	 *            index of the first point
+	 * @param end
+	 *            index after the last point
+	 * @return the encoded polyline
+	 */
+	private static String encode(final int[] points, final int start, final int end) {
+		final StringBuilder sb = new StringBuilder();
+		int lastLat = 0, lastLon = 0;
+		for (int i = start; i < end; i++) {
+			final int lat = points[i * 2] / 10;
+			final int lon = points[i * 2 + 1] / 10;
+			encode(lat - lastLat, sb);
+			encode(lon - lastLon, sb);
+			lastLat = lat;
+			lastLon = lon;
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Encodes a signed value in Google's format
+	 * 
+	 * @param value
+	 * @param sb
+	 */
+	private static void encode(final int value, final StringBuilder sb) {
+		int v = value < 0 ? ~(value << 1) : value << 1;
+		while (v >= 0x20) {
+			sb.append((char) ((0x20 | v & 0x1f) + 63));
+			v >>= 5;
+		}
+		sb.append((char) (v + 63));
+	}
+
+	/**
+	 * @param random
+	 * @param count
+	 * @return random lat, lon pairs in 1e6 degrees, with repeats, at the
+	 *         precision the format keeps
+	 */
+	private static int[] randomPoints(final Random random, final int count) {
+		final int[] points = new int[count * 2];
+		for (int i = 0; i < count; i++)
+			if (i > 0 && random.nextInt(10) == 0) {
+				points[i * 2] = points[i * 2 - 2];
+				points[i * 2 + 1] = points[i * 2 - 1];
+			} else {
+				points[i * 2] = (random.nextInt(18000001) - 9000000) * 10;
+				points[i * 2 + 1] = (random.nextInt(36000001) - 18000000) * 10;
+			}
+		return points;
+	}
+
+	/**
+	 * @param polyline
+	 * @return the polyline's lat, lon pairs
+	 */
+	private static int[] toArray(final Polyline polyline) {
+		return Arrays.copyOf(polyline.getPoints(), polyline.size() * 2);
+	}
+}